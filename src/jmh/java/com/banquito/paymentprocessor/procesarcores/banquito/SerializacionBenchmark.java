@@ -0,0 +1,139 @@
+package com.banquito.paymentprocessor.procesarcores.banquito;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.ComercioRequestDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.CoreResponseDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.TarjetaRequestDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Serialización y deserialización Jackson de los DTO que viajan en cada transacción: la solicitud
+ * recibida, las dos solicitudes al core y su respuesta.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacionBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private TransaccionCoreDTO transaccion;
+    private TarjetaRequestDTO tarjetaRequest;
+    private ComercioRequestDTO comercioRequest;
+    private CoreResponseDTO coreResponse;
+
+    private byte[] transaccionJson;
+    private byte[] tarjetaRequestJson;
+    private byte[] comercioRequestJson;
+    private byte[] coreResponseJson;
+
+    @Setup
+    public void setup() throws IOException {
+        transaccion = TransaccionCoreDTO.builder()
+                .codTransaccion("TRX123456")
+                .codigoUnico("TRANS20240301123456")
+                .codigoGtw("PAYPAL")
+                .numeroTarjeta("4111111111111111")
+                .cvv("123")
+                .fechaCaducidad("12/30")
+                .monto(new BigDecimal("100.00"))
+                .codigoMoneda("USD")
+                .marca("VISA")
+                .referencia("REF123456")
+                .pais("EC")
+                .tipo("COM")
+                .swiftBancoComercio("BANQECBB")
+                .cuentaIbanComercio("ES9121000418450200051332")
+                .swiftBancoTarjeta("BANQECAA")
+                .build();
+        tarjetaRequest = TarjetaRequestDTO.builder()
+                .tipo("COM")
+                .monto(new BigDecimal("100.00"))
+                .moneda("USD")
+                .pais("EC")
+                .swift("BANQECAA")
+                .numeroTarjeta("4111111111111111")
+                .codigoUnicoTransaccion("TRANS20240301123456")
+                .referencia("REF123456")
+                .diferido(false)
+                .cuotas(1)
+                .build();
+        comercioRequest = ComercioRequestDTO.builder()
+                .iban("ES9121000418450200051332")
+                .swift("BANQECBB")
+                .tipo("COM")
+                .codigoUnico("TRANS20240301123456")
+                .monto(new BigDecimal("100.00"))
+                .referencia("REF123456")
+                .build();
+        coreResponse = CoreResponseDTO.builder()
+                .estado("APROBADO")
+                .mensaje("Transacción exitosa")
+                .codigoRespuesta("00")
+                .codigoTransaccion("AUTH123")
+                .build();
+
+        transaccionJson = objectMapper.writeValueAsBytes(transaccion);
+        tarjetaRequestJson = objectMapper.writeValueAsBytes(tarjetaRequest);
+        comercioRequestJson = objectMapper.writeValueAsBytes(comercioRequest);
+        coreResponseJson = objectMapper.writeValueAsBytes(coreResponse);
+    }
+
+    @Benchmark
+    public byte[] serializarTransaccionCore() throws IOException {
+        return objectMapper.writeValueAsBytes(transaccion);
+    }
+
+    @Benchmark
+    public TransaccionCoreDTO deserializarTransaccionCore() throws IOException {
+        return objectMapper.readValue(transaccionJson, TransaccionCoreDTO.class);
+    }
+
+    @Benchmark
+    public byte[] serializarTarjetaRequest() throws IOException {
+        return objectMapper.writeValueAsBytes(tarjetaRequest);
+    }
+
+    @Benchmark
+    public TarjetaRequestDTO deserializarTarjetaRequest() throws IOException {
+        return objectMapper.readValue(tarjetaRequestJson, TarjetaRequestDTO.class);
+    }
+
+    @Benchmark
+    public byte[] serializarComercioRequest() throws IOException {
+        return objectMapper.writeValueAsBytes(comercioRequest);
+    }
+
+    @Benchmark
+    public ComercioRequestDTO deserializarComercioRequest() throws IOException {
+        return objectMapper.readValue(comercioRequestJson, ComercioRequestDTO.class);
+    }
+
+    @Benchmark
+    public byte[] serializarCoreResponse() throws IOException {
+        return objectMapper.writeValueAsBytes(coreResponse);
+    }
+
+    @Benchmark
+    public CoreResponseDTO deserializarCoreResponse() throws IOException {
+        return objectMapper.readValue(coreResponseJson, CoreResponseDTO.class);
+    }
+}
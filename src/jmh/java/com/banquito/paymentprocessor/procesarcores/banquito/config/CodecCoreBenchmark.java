@@ -0,0 +1,135 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.client.CoreBancarioClient;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.CoreResponseDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.TarjetaRequestDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+import feign.optionals.OptionalDecoder;
+
+/**
+ * Codificación de la solicitud de débito y decodificación de la respuesta del core con el codec por
+ * defecto de Spring Cloud OpenFeign frente a {@link CoreClientEncoder} y {@link CoreClientDecoder}.
+ * La comparación relevante es {@code gc.alloc.rate.norm} (bytes asignados por operación).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodecCoreBenchmark {
+
+    private static final Request REQUEST = Request.create(Request.HttpMethod.POST,
+            "http://core/v1/transacciones/tarjeta", Collections.emptyMap(), new byte[0], StandardCharsets.UTF_8, null);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private Encoder encoderSpring;
+    private Decoder decoderSpring;
+    private Encoder encoderCore;
+    private Decoder decoderCore;
+
+    private TarjetaRequestDTO tarjetaRequest;
+    private byte[] coreResponseJson;
+    private Type tipoRespuesta;
+    private Map<String, Collection<String>> cabeceras;
+
+    @Setup
+    public void setup() throws IOException, NoSuchMethodException {
+        HttpMessageConverters convertidores = new HttpMessageConverters(
+                new MappingJackson2HttpMessageConverter(objectMapper));
+        encoderSpring = new SpringEncoder(() -> convertidores);
+        decoderSpring = new OptionalDecoder(new ResponseEntityDecoder(new SpringDecoder(() -> convertidores)));
+        encoderCore = new CoreClientEncoder(objectMapper, List.of(TarjetaRequestDTO.class), 16);
+        decoderCore = new CoreClientDecoder(objectMapper, List.of(CoreResponseDTO.class));
+
+        tarjetaRequest = TarjetaRequestDTO.builder()
+                .tipo("COM")
+                .monto(new BigDecimal("100.00"))
+                .moneda("USD")
+                .pais("EC")
+                .swift("BANQECAA")
+                .numeroTarjeta("4111111111111111")
+                .codigoUnicoTransaccion("TRANS20240301123456")
+                .referencia("REF123456")
+                .diferido(false)
+                .cuotas(1)
+                .build();
+        coreResponseJson = objectMapper.writeValueAsBytes(CoreResponseDTO.builder()
+                .estado("APROBADO")
+                .mensaje("Transacción exitosa")
+                .codigoRespuesta("00")
+                .codigoTransaccion("AUTH123")
+                .build());
+        tipoRespuesta = CoreBancarioClient.class.getMethod("procesarTransaccionTarjeta", TarjetaRequestDTO.class)
+                .getGenericReturnType();
+        cabeceras = Map.of("Content-Type", List.of("application/json"),
+                "Content-Length", List.of(String.valueOf(coreResponseJson.length)));
+    }
+
+    @Benchmark
+    public RequestTemplate codificarSpring() {
+        RequestTemplate plantilla = new RequestTemplate();
+        encoderSpring.encode(tarjetaRequest, TarjetaRequestDTO.class, plantilla);
+        return plantilla;
+    }
+
+    @Benchmark
+    public RequestTemplate codificarCore() {
+        RequestTemplate plantilla = new RequestTemplate();
+        encoderCore.encode(tarjetaRequest, TarjetaRequestDTO.class, plantilla);
+        return plantilla;
+    }
+
+    @Benchmark
+    public Object decodificarSpring() throws IOException {
+        return decoderSpring.decode(respuesta(), tipoRespuesta);
+    }
+
+    @Benchmark
+    public Object decodificarCore() throws IOException {
+        return decoderCore.decode(respuesta(), tipoRespuesta);
+    }
+
+    private Response respuesta() {
+        return Response.builder()
+                .status(200)
+                .reason("OK")
+                .headers(cabeceras)
+                .request(REQUEST)
+                .body(coreResponseJson)
+                .build();
+    }
+}
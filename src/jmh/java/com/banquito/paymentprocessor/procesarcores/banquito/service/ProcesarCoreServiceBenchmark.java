@@ -0,0 +1,193 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.client.CoreBancarioClient;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.ComercioRequestDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.CoreResponseDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.RetencionRequestDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.ReversoRequestDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.TarjetaRequestDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.config.AjustesCore;
+import com.banquito.paymentprocessor.procesarcores.banquito.config.AjustesDinamicos;
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ch.qos.logback.classic.Logger;
+import feign.Request;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Costo por transacción del flujo bloqueante sin red: el core se reemplaza por un stub que aprueba
+ * de inmediato, así que se mide el trabajo propio del servicio (conversiones, resiliencia,
+ * idempotencia y diario).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcesarCoreServiceBenchmark {
+
+    private static final ResponseEntity<CoreResponseDTO> APROBADO = ResponseEntity.ok(CoreResponseDTO.builder()
+            .estado("APROBADO")
+            .codigoRespuesta("00")
+            .codigoTransaccion("AUTH123")
+            .build());
+
+    private ProcesarCoreService service;
+    private DiarioTransacciones diarioTransacciones;
+    private ColaCompensaciones colaCompensaciones;
+    private TransaccionCoreDTO transaccion;
+    private TransaccionCoreDTO duplicada;
+    private long secuencia;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        // Sin esto el log INFO por transacción domina la medición
+        ((Logger) LoggerFactory.getLogger("com.banquito")).setLevel(ch.qos.logback.classic.Level.WARN);
+
+        CoreBancarioClient coreBancarioClient = new CoreBancarioClient() {
+            @Override
+            public ResponseEntity<CoreResponseDTO> procesarTransaccionTarjeta(TarjetaRequestDTO request) {
+                return APROBADO;
+            }
+
+            @Override
+            public ResponseEntity<CoreResponseDTO> procesarTransaccionCuenta(ComercioRequestDTO request) {
+                return APROBADO;
+            }
+
+            @Override
+            public ResponseEntity<CoreResponseDTO> procesarTransaccionTarjeta(URI core, TarjetaRequestDTO request,
+                    Request.Options opciones) {
+                return procesarTransaccionTarjeta(request);
+            }
+
+            @Override
+            public ResponseEntity<CoreResponseDTO> reversarTransaccionTarjeta(URI core, ReversoRequestDTO request,
+                    Request.Options opciones) {
+                return reversarTransaccionTarjeta(request);
+            }
+
+            @Override
+            public ResponseEntity<CoreResponseDTO> reversarTransaccionTarjeta(ReversoRequestDTO request) {
+                return APROBADO;
+            }
+
+            @Override
+            public ResponseEntity<CoreResponseDTO> retenerCreditoCuenta(ComercioRequestDTO request) {
+                return APROBADO;
+            }
+
+            @Override
+            public ResponseEntity<CoreResponseDTO> confirmarCreditoCuenta(RetencionRequestDTO request) {
+                return APROBADO;
+            }
+
+            @Override
+            public ResponseEntity<CoreResponseDTO> anularCreditoCuenta(RetencionRequestDTO request) {
+                return APROBADO;
+            }
+        };
+
+        Path directorio = Files.createTempDirectory("procesar-core-benchmark");
+        colaCompensaciones = new ColaCompensaciones(directorio.resolve("compensaciones"), 1, 1, 0, 0,
+                new ObjectMapper(), compensacion -> { });
+        diarioTransacciones = new DiarioTransacciones(directorio.resolve("diario"), 64 * 1024 * 1024, 5,
+                Duration.ofDays(1));
+        diarioTransacciones.iniciar();
+
+        service = new ProcesarCoreService(coreBancarioClient,
+                new EjecutorCoreBancario(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(),
+                        new SimpleMeterRegistry(), ObservationRegistry.NOOP),
+                new IdempotenciaService(new AlmacenIdempotenciaMemoria(100_000, Duration.ofMinutes(10))),
+                new SagaService(colaCompensaciones),
+                diarioTransacciones,
+                new MetricasTransaccion(new SimpleMeterRegistry()),
+                EjecucionParalela.deshabilitada(),
+                CoberturaDebito.deshabilitada(new SimpleMeterRegistry()),
+                AcumuladorCreditos.deshabilitado(),
+                RuteadorBin.deshabilitado(),
+                new AjustesDinamicos(new AjustesCore(1_000, 5_000, 3, 1, 5, Duration.ofSeconds(30)), null, 0,
+                        new SimpleMeterRegistry()));
+
+        transaccion = crearTransaccion("BENCH");
+        duplicada = crearTransaccion("DUPLICADA");
+        service.procesarTransaccion(duplicada);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        diarioTransacciones.close();
+        colaCompensaciones.close();
+    }
+
+    @Benchmark
+    public TransaccionCoreResponseDTO procesarTransaccion() {
+        // Código único nuevo en cada invocación para no medir solo la respuesta de idempotencia
+        transaccion.setCodigoUnico("BENCH" + secuencia++);
+        return service.procesarTransaccion(transaccion);
+    }
+
+    @Benchmark
+    public TransaccionCoreResponseDTO procesarTransaccionDuplicada() {
+        return service.procesarTransaccion(duplicada);
+    }
+
+    @Benchmark
+    public TarjetaRequestDTO convertirATarjetaRequest() {
+        return service.convertirATarjetaRequest(transaccion);
+    }
+
+    @Benchmark
+    public ComercioRequestDTO convertirAComercioRequest() {
+        return service.convertirAComercioRequest(transaccion);
+    }
+
+    static TransaccionCoreDTO crearTransaccion(String codigoUnico) {
+        TransaccionCoreDTO dto = new TransaccionCoreDTO();
+        dto.setCodTransaccion("TRX123456");
+        dto.setCodigoUnico(codigoUnico);
+        dto.setCodigoGtw("PAYPAL");
+        dto.setNumeroTarjeta("4111111111111111");
+        dto.setCvv("123");
+        dto.setFechaCaducidad("12/30");
+        dto.setMonto(new BigDecimal("100.00"));
+        dto.setCodigoMoneda("USD");
+        dto.setTipo("COM");
+        dto.setSwiftBancoTarjeta("BANQECAA");
+        dto.setSwiftBancoComercio("BANQECBB");
+        dto.setCuentaIbanComercio("ES9121000418450200051332");
+        dto.setReferencia("REF123456");
+        dto.setPais("EC");
+        dto.setMarca("VISA");
+        return dto;
+    }
+}
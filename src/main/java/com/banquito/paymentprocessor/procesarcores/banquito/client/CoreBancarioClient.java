@@ -1,5 +1,7 @@
 package com.banquito.paymentprocessor.procesarcores.banquito.client;
 
+import java.net.URI;
+
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -7,14 +9,42 @@ import org.springframework.web.bind.annotation.RequestBody;
 
 import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.ComercioRequestDTO;
 import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.CoreResponseDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.RetencionRequestDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.ReversoRequestDTO;
 import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.TarjetaRequestDTO;
 
+import feign.Request;
+
 @FeignClient(name = "core-bancario", url = "${core.bancario.url}")
 public interface CoreBancarioClient {
     
     @PostMapping("/v1/transacciones/tarjeta")
     ResponseEntity<CoreResponseDTO> procesarTransaccionTarjeta(@RequestBody TarjetaRequestDTO request);
     
+    /**
+     * Débito a tarjeta en el core de un emisor: {@code core} reemplaza la URL base del cliente y
+     * {@code opciones} sus timeouts.
+     */
+    @PostMapping("/v1/transacciones/tarjeta")
+    ResponseEntity<CoreResponseDTO> procesarTransaccionTarjeta(URI core, @RequestBody TarjetaRequestDTO request,
+            Request.Options opciones);
+    
     @PostMapping("/v1/transacciones/cuenta")
     ResponseEntity<CoreResponseDTO> procesarTransaccionCuenta(@RequestBody ComercioRequestDTO request);
+    
+    @PostMapping("/v1/transacciones/tarjeta/reverso")
+    ResponseEntity<CoreResponseDTO> reversarTransaccionTarjeta(@RequestBody ReversoRequestDTO request);
+    
+    @PostMapping("/v1/transacciones/tarjeta/reverso")
+    ResponseEntity<CoreResponseDTO> reversarTransaccionTarjeta(URI core, @RequestBody ReversoRequestDTO request,
+            Request.Options opciones);
+    
+    @PostMapping("/v1/transacciones/cuenta/retencion")
+    ResponseEntity<CoreResponseDTO> retenerCreditoCuenta(@RequestBody ComercioRequestDTO request);
+    
+    @PostMapping("/v1/transacciones/cuenta/retencion/confirmacion")
+    ResponseEntity<CoreResponseDTO> confirmarCreditoCuenta(@RequestBody RetencionRequestDTO request);
+    
+    @PostMapping("/v1/transacciones/cuenta/retencion/anulacion")
+    ResponseEntity<CoreResponseDTO> anularCreditoCuenta(@RequestBody RetencionRequestDTO request);
 } 
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.client.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Confirmación o anulación de un crédito retenido en la cuenta del comercio. El core identifica la
+ * retención por el {@code codigoUnico} de la transacción; anular una retención inexistente no es error.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetencionRequestDTO {
+    
+    private String codigoUnico;
+    private String iban;
+    private BigDecimal monto;
+    private String motivo;
+}
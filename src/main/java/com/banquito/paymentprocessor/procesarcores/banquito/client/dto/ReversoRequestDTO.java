@@ -0,0 +1,32 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.client.dto;
+
+import java.math.BigDecimal;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.util.EnmascaradorPan;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReversoRequestDTO {
+    
+    private String codigoUnicoTransaccion;
+    @ToString.Exclude
+    private String numeroTarjeta;
+    private BigDecimal monto;
+    private String moneda;
+    private String swift;
+    private String referencia;
+    private String motivo;
+
+    @ToString.Include(name = "numeroTarjeta")
+    private String numeroTarjetaEnmascarado() {
+        return EnmascaradorPan.enmascarar(numeroTarjeta);
+    }
+}
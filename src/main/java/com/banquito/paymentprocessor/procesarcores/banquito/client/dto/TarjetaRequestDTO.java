@@ -4,10 +4,13 @@ import java.math.BigDecimal;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import com.banquito.paymentprocessor.procesarcores.banquito.util.EnmascaradorPan;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Data
 @Builder
@@ -20,10 +23,16 @@ public class TarjetaRequestDTO {
     private String moneda;
     private String pais;
     private String swift;
+    @ToString.Exclude
     private String numeroTarjeta;
     private String codigoUnicoTransaccion;
     private String referencia;
     private String transaccionEncriptada;
     private Boolean diferido;
     private Integer cuotas;
-} 
\ No newline at end of file
+
+    @ToString.Include(name = "numeroTarjeta")
+    private String numeroTarjetaEnmascarado() {
+        return EnmascaradorPan.enmascarar(numeroTarjeta);
+    }
+}
@@ -0,0 +1,39 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class AjustesConfig {
+
+    /**
+     * Los valores de arranque son las mismas propiedades que el archivo y el endpoint pueden sobrescribir.
+     */
+    @Bean(initMethod = "iniciar", destroyMethod = "close")
+    public AjustesDinamicos ajustesDinamicos(
+            @Value("${spring.cloud.openfeign.client.config.default.connectTimeout:5000}") int timeoutConexion,
+            @Value("${spring.cloud.openfeign.client.config.default.readTimeout:5000}") int timeoutLectura,
+            @Value("${core.bancario.retry.max-attempts}") int maxIntentos,
+            @Value("${core.bancario.retry.backoff}") long backoff,
+            @Value("${core.bancario.retry.backoff-maximo:5000}") long backoffMaximo,
+            @Value("${core.timeout:30}") long timeoutTransaccion,
+            @Value("${core.ajustes.archivo:}") String archivo,
+            @Value("${core.ajustes.intervalo-recarga:5000}") long intervaloRecarga,
+            MeterRegistry meterRegistry) {
+        AjustesCore arranque = new AjustesCore(timeoutConexion, timeoutLectura, maxIntentos, backoff, backoffMaximo,
+                Duration.ofSeconds(timeoutTransaccion));
+        return new AjustesDinamicos(arranque, archivo.isBlank() ? null : Path.of(archivo), intervaloRecarga,
+                meterRegistry);
+    }
+
+    @Bean
+    public AjustesEndpoint ajustesEndpoint(AjustesDinamicos ajustesDinamicos) {
+        return new AjustesEndpoint(ajustesDinamicos);
+    }
+}
@@ -0,0 +1,112 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import feign.Request;
+
+/**
+ * Valores de timeouts y reintentos vigentes para las llamadas al core. Es inmutable: un cambio crea una
+ * instancia nueva, así que quien la lee obtiene siempre un conjunto de valores coherente. Las opciones de
+ * Feign se crean una sola vez por instancia.
+ */
+public final class AjustesCore {
+
+    static final String TIMEOUT_CONEXION = "spring.cloud.openfeign.client.config.default.connectTimeout";
+    static final String TIMEOUT_LECTURA = "spring.cloud.openfeign.client.config.default.readTimeout";
+    static final String MAX_INTENTOS = "core.bancario.retry.max-attempts";
+    static final String BACKOFF = "core.bancario.retry.backoff";
+    static final String BACKOFF_MAXIMO = "core.bancario.retry.backoff-maximo";
+    static final String TIMEOUT_TRANSACCION = "core.timeout";
+
+    private final int timeoutConexion;
+    private final int timeoutLectura;
+    private final int maxIntentos;
+    private final long backoff;
+    private final long backoffMaximo;
+    private final Duration timeoutTransaccion;
+    private final Request.Options opciones;
+
+    public AjustesCore(int timeoutConexion, int timeoutLectura, int maxIntentos, long backoff, long backoffMaximo,
+            Duration timeoutTransaccion) {
+        if (timeoutConexion <= 0 || timeoutLectura <= 0 || maxIntentos < 1 || backoff < 0
+                || backoffMaximo < backoff || timeoutTransaccion.isNegative() || timeoutTransaccion.isZero()) {
+            throw new IllegalArgumentException("Ajustes del core inválidos: timeouts y transacción positivos, "
+                    + "al menos un intento y backoff-maximo no menor que backoff");
+        }
+        this.timeoutConexion = timeoutConexion;
+        this.timeoutLectura = timeoutLectura;
+        this.maxIntentos = maxIntentos;
+        this.backoff = backoff;
+        this.backoffMaximo = backoffMaximo;
+        this.timeoutTransaccion = timeoutTransaccion;
+        this.opciones = new Request.Options(timeoutConexion, TimeUnit.MILLISECONDS, timeoutLectura,
+                TimeUnit.MILLISECONDS, true);
+    }
+
+    /**
+     * Copia con los valores indicados por nombre de propiedad; los demás se conservan.
+     */
+    public AjustesCore con(Map<String, String> cambios) {
+        int conexion = timeoutConexion;
+        int lectura = timeoutLectura;
+        int intentos = maxIntentos;
+        long espera = backoff;
+        long esperaMaxima = backoffMaximo;
+        Duration transaccion = timeoutTransaccion;
+        for (Map.Entry<String, String> cambio : cambios.entrySet()) {
+            String valor = cambio.getValue().trim();
+            switch (cambio.getKey()) {
+                case TIMEOUT_CONEXION -> conexion = Integer.parseInt(valor);
+                case TIMEOUT_LECTURA -> lectura = Integer.parseInt(valor);
+                case MAX_INTENTOS -> intentos = Integer.parseInt(valor);
+                case BACKOFF -> espera = Long.parseLong(valor);
+                case BACKOFF_MAXIMO -> esperaMaxima = Long.parseLong(valor);
+                case TIMEOUT_TRANSACCION -> transaccion = Duration.ofSeconds(Long.parseLong(valor));
+                default -> throw new IllegalArgumentException("Ajuste desconocido: " + cambio.getKey());
+            }
+        }
+        return new AjustesCore(conexion, lectura, intentos, espera, esperaMaxima, transaccion);
+    }
+
+    public Map<String, Object> comoMapa() {
+        Map<String, Object> valores = new LinkedHashMap<>();
+        valores.put(TIMEOUT_CONEXION, timeoutConexion);
+        valores.put(TIMEOUT_LECTURA, timeoutLectura);
+        valores.put(MAX_INTENTOS, maxIntentos);
+        valores.put(BACKOFF, backoff);
+        valores.put(BACKOFF_MAXIMO, backoffMaximo);
+        valores.put(TIMEOUT_TRANSACCION, timeoutTransaccion.toSeconds());
+        return valores;
+    }
+
+    public int getTimeoutConexion() {
+        return timeoutConexion;
+    }
+
+    public int getTimeoutLectura() {
+        return timeoutLectura;
+    }
+
+    public int getMaxIntentos() {
+        return maxIntentos;
+    }
+
+    public long getBackoff() {
+        return backoff;
+    }
+
+    public long getBackoffMaximo() {
+        return backoffMaximo;
+    }
+
+    public Duration getTimeoutTransaccion() {
+        return timeoutTransaccion;
+    }
+
+    public Request.Options getOpciones() {
+        return opciones;
+    }
+}
@@ -0,0 +1,165 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Ajustes del core modificables sin reiniciar. Los valores vigentes son los de arranque, sobrescritos por
+ * los del archivo {@code core.ajustes.archivo} (formato properties, con los mismos nombres de propiedad) y
+ * estos por los fijados desde el endpoint {@code /actuator/ajustes}.
+ * <p>
+ * Cada cambio construye y valida un {@link AjustesCore} nuevo y lo publica reemplazando una referencia
+ * volátil, de modo que leerlo en cada llamada al core cuesta una lectura volátil. Un cambio inválido se
+ * descarta y se conservan los ajustes anteriores.
+ */
+public class AjustesDinamicos implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AjustesDinamicos.class);
+
+    private final AjustesCore arranque;
+    private final Path archivo;
+    private final long intervalo;
+    private final ScheduledExecutorService programador;
+    private final Counter cambiosRechazados;
+
+    // Solo se modifican con el lock tomado; las lecturas usan la referencia volátil
+    private final ReentrantLock lock = new ReentrantLock();
+    private Map<String, String> delArchivo = Map.of();
+    private final Map<String, String> manuales = new LinkedHashMap<>();
+    private FileTime ultimaModificacion;
+
+    private volatile AjustesCore actual;
+
+    public AjustesDinamicos(AjustesCore arranque, Path archivo, long intervalo, MeterRegistry meterRegistry) {
+        this.arranque = arranque;
+        this.actual = arranque;
+        this.archivo = archivo;
+        this.intervalo = intervalo;
+        this.programador = archivo == null ? null : Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("ajustes-core")
+                .daemon(true)
+                .factory());
+        this.cambiosRechazados = Counter.builder("core.ajustes.rechazados")
+                .description("Cambios de ajustes del core descartados por inválidos")
+                .register(meterRegistry);
+    }
+
+    public AjustesCore actual() {
+        return actual;
+    }
+
+    /**
+     * Aplica el archivo de ajustes si existe y programa su revisión periódica.
+     */
+    public void iniciar() {
+        if (programador == null) {
+            return;
+        }
+        revisar();
+        programador.scheduleWithFixedDelay(this::revisar, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Fija un ajuste desde el endpoint. Lanza {@link IllegalArgumentException} si el ajuste no existe o el
+     * resultado es inválido, sin modificar los ajustes vigentes.
+     */
+    public AjustesCore fijar(String clave, String valor) {
+        lock.lock();
+        try {
+            Map<String, String> nuevos = new LinkedHashMap<>(manuales);
+            nuevos.put(clave, valor);
+            publicar(delArchivo, nuevos, "endpoint");
+            manuales.put(clave, valor);
+            return actual;
+        } catch (IllegalArgumentException e) {
+            cambiosRechazados.increment();
+            throw e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Descarta los ajustes fijados desde el endpoint y vuelve a los del arranque y el archivo.
+     */
+    public AjustesCore restablecer() {
+        lock.lock();
+        try {
+            publicar(delArchivo, Map.of(), "endpoint");
+            manuales.clear();
+            return actual;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, String> getManuales() {
+        lock.lock();
+        try {
+            return Map.copyOf(manuales);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (programador != null) {
+            programador.shutdownNow();
+        }
+    }
+
+    private void revisar() {
+        lock.lock();
+        try {
+            FileTime modificacion = Files.exists(archivo) ? Files.getLastModifiedTime(archivo) : null;
+            if (modificacion == null ? ultimaModificacion == null : modificacion.equals(ultimaModificacion)) {
+                return;
+            }
+            Map<String, String> leidos = modificacion == null ? Map.of() : leer();
+            publicar(leidos, manuales, archivo.toString());
+            delArchivo = leidos;
+            ultimaModificacion = modificacion;
+        } catch (IOException | RuntimeException e) {
+            cambiosRechazados.increment();
+            log.error("Se conservan los ajustes del core anteriores, no se pudo aplicar {}: {}", archivo,
+                    e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Map<String, String> leer() throws IOException {
+        Properties propiedades = new Properties();
+        try (Reader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            propiedades.load(lector);
+        }
+        Map<String, String> valores = new HashMap<>();
+        propiedades.forEach((clave, valor) -> valores.put((String) clave, (String) valor));
+        return valores;
+    }
+
+    private void publicar(Map<String, String> archivo, Map<String, String> manuales, String origen) {
+        AjustesCore nuevos = arranque.con(archivo).con(manuales);
+        actual = nuevos;
+        log.warn("Ajustes del core actualizados desde {}: {}", origen, nuevos.comoMapa());
+    }
+}
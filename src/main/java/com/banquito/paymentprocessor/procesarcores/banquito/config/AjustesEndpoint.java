@@ -0,0 +1,51 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+/**
+ * {@code /actuator/ajustes}: GET devuelve los ajustes vigentes, POST con {@code clave} y {@code valor}
+ * fija uno y DELETE descarta los fijados por este endpoint.
+ */
+@Endpoint(id = "ajustes")
+public class AjustesEndpoint {
+
+    private final AjustesDinamicos ajustesDinamicos;
+
+    public AjustesEndpoint(AjustesDinamicos ajustesDinamicos) {
+        this.ajustesDinamicos = ajustesDinamicos;
+    }
+
+    @ReadOperation
+    public Map<String, Object> consultar() {
+        return respuesta(ajustesDinamicos.actual());
+    }
+
+    @WriteOperation
+    public Map<String, Object> fijar(String clave, String valor) {
+        try {
+            return respuesta(ajustesDinamicos.fijar(clave, valor));
+        } catch (IllegalArgumentException e) {
+            // Se responde 400 en lugar de 500: el ajuste no existe o su valor es inválido
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+
+    @DeleteOperation
+    public Map<String, Object> restablecer() {
+        return respuesta(ajustesDinamicos.restablecer());
+    }
+
+    private Map<String, Object> respuesta(AjustesCore ajustes) {
+        Map<String, Object> respuesta = new LinkedHashMap<>();
+        respuesta.put("vigentes", ajustes.comoMapa());
+        respuesta.put("fijadosPorEndpoint", ajustesDinamicos.getManuales());
+        return respuesta;
+    }
+}
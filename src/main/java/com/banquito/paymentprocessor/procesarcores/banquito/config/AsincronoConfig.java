@@ -0,0 +1,28 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AsincronoConfig {
+
+    /**
+     * Trabajadores del modo asíncrono. La cola es acotada y sin política de espera: cuando está
+     * llena el envío se rechaza de inmediato para que el controlador responda 429.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor asincronoExecutor(
+            @Value("${core.asincrono.paralelismo:32}") int paralelismo,
+            @Value("${core.asincrono.capacidad-cola:5000}") int capacidadCola) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(paralelismo, paralelismo, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(capacidadCola), Thread.ofPlatform().name("procesar-asincrono-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
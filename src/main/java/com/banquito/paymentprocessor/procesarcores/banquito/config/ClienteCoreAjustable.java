@@ -0,0 +1,54 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.service.Plazo;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+/**
+ * Aplica a cada llamada los timeouts vigentes de {@link AjustesDinamicos} en lugar de los fijados al crear
+ * el cliente Feign. Los timeouts pasados en la propia llamada como {@link OpcionesLlamada}, como los de un
+ * emisor en el ruteo por BIN, se respetan; el que no fijen se toma de los ajustes vigentes.
+ * <p>
+ * Dentro de una transacción con {@link Plazo}, los timeouts se acotan a lo que resta del plazo, que se
+ * envía al core en la cabecera {@link Plazo#CABECERA}. Si el plazo ya venció la solicitud no se envía.
+ */
+public class ClienteCoreAjustable implements Client {
+
+    private final Client cliente;
+    private final AjustesDinamicos ajustesDinamicos;
+
+    public ClienteCoreAjustable(Client cliente, AjustesDinamicos ajustesDinamicos) {
+        this.cliente = cliente;
+        this.ajustesDinamicos = ajustesDinamicos;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options opciones) throws IOException {
+        Request.Options efectivas = opciones instanceof OpcionesLlamada propias
+                ? propias.completar(ajustesDinamicos.actual().getOpciones())
+                : ajustesDinamicos.actual().getOpciones();
+        Plazo plazo = Plazo.actual();
+        if (plazo == null) {
+            return cliente.execute(request, efectivas);
+        }
+
+        long restante = plazo.verificar("la llamada al core " + request.url());
+        Map<String, Collection<String>> cabeceras = new LinkedHashMap<>(request.headers());
+        cabeceras.put(Plazo.CABECERA, List.of(Long.toString(restante)));
+        Request conPlazo = Request.create(request.httpMethod(), request.url(), cabeceras, request.body(),
+                request.charset(), request.requestTemplate());
+        return cliente.execute(conPlazo, new Request.Options(
+                Math.min(efectivas.connectTimeoutMillis(), restante), TimeUnit.MILLISECONDS,
+                Math.min(efectivas.readTimeoutMillis(), restante), TimeUnit.MILLISECONDS,
+                efectivas.isFollowRedirects()));
+    }
+}
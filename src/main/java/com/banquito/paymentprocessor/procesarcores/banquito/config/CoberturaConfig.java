@@ -0,0 +1,37 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.service.CoberturaDebito;
+
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class CoberturaConfig {
+
+    /**
+     * Cada llamada de cobertura corre en un hilo virtual con el contexto de la observación copiado,
+     * para que sus spans cuelguen de la misma traza que la llamada original.
+     */
+    @Bean(destroyMethod = "close")
+    public CoberturaDebito coberturaDebito(
+            @Value("${core.cobertura.habilitada:false}") boolean habilitada,
+            @Value("${core.cobertura.percentil:0.95}") double percentil,
+            @Value("${core.cobertura.retardo-minimo:50}") long retardoMinimo,
+            @Value("${core.cobertura.porcentaje-maximo:5}") double porcentajeMaximo,
+            MeterRegistry meterRegistry) {
+        if (!habilitada) {
+            return CoberturaDebito.deshabilitada(meterRegistry);
+        }
+        ContextSnapshotFactory contexto = ContextSnapshotFactory.builder().build();
+        return new CoberturaDebito(true, percentil, retardoMinimo, porcentajeMaximo,
+                ContextExecutorService.wrap(Executors.newVirtualThreadPerTaskExecutor(), () -> contexto.captureAll()),
+                meterRegistry);
+    }
+}
@@ -0,0 +1,87 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.ResponseEntity;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.client.CoreBancarioClient;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.CoreResponseDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.ReversoRequestDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.exception.CoreProcessingException;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.ColaCompensaciones;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.Compensacion;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.DestinoEmisor;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.DiarioTransacciones;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.EjecutorCoreBancario;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.EstadoDiario;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.OperacionCore;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.RuteadorBin;
+import com.banquito.paymentprocessor.procesarcores.banquito.util.CifradorPan;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Configuration
+public class CompensacionConfig {
+
+    @Bean(initMethod = "iniciar", destroyMethod = "close")
+    public ColaCompensaciones colaCompensaciones(
+            CoreBancarioClient coreBancarioClient,
+            EjecutorCoreBancario ejecutorCoreBancario,
+            DiarioTransacciones diarioTransacciones,
+            RuteadorBin ruteadorBin,
+            ObjectMapper objectMapper,
+            @Value("${core.compensacion.directorio:data/compensaciones}") String directorio,
+            @Value("${core.compensacion.hilos:2}") int hilos,
+            @Value("${core.compensacion.max-intentos:20}") int maxIntentos,
+            @Value("${core.compensacion.backoff:1000}") long backoff,
+            @Value("${core.compensacion.backoff-maximo:300000}") long backoffMaximo,
+            @Value("${core.compensacion.clave-pan:}") String clavePan) {
+        CifradorPan cifradorPan = clavePan.isBlank() ? null : new CifradorPan(clavePan);
+        return new ColaCompensaciones(Path.of(directorio), hilos, maxIntentos, backoff, backoffMaximo, objectMapper,
+                compensacion -> aplicar(coreBancarioClient, ejecutorCoreBancario, diarioTransacciones, ruteadorBin,
+                        compensacion),
+                cifradorPan);
+    }
+
+    private void aplicar(CoreBancarioClient coreBancarioClient, EjecutorCoreBancario ejecutorCoreBancario,
+            DiarioTransacciones diarioTransacciones, RuteadorBin ruteadorBin, Compensacion compensacion) {
+        OperacionCore operacion = compensacion.getOperacion();
+        ResponseEntity<CoreResponseDTO> respuesta = switch (operacion) {
+            case REVERSO_TARJETA -> ejecutorCoreBancario.ejecutar(operacion,
+                    () -> reversar(coreBancarioClient, ruteadorBin, compensacion));
+            case CONFIRMACION_RETENCION -> ejecutorCoreBancario.ejecutar(operacion,
+                    () -> coreBancarioClient.confirmarCreditoCuenta(compensacion.getRetencion()));
+            case ANULACION_RETENCION -> ejecutorCoreBancario.ejecutar(operacion,
+                    () -> coreBancarioClient.anularCreditoCuenta(compensacion.getRetencion()));
+            case CREDITO_AGREGADO -> ejecutorCoreBancario.ejecutar(operacion,
+                    () -> coreBancarioClient.procesarTransaccionCuenta(compensacion.getCredito()));
+            default -> throw new IllegalStateException("Operación no diferible: " + operacion);
+        };
+        if (respuesta == null || respuesta.getBody() == null
+                || !"APROBADO".equals(respuesta.getBody().getEstado())) {
+            throw new CoreProcessingException("Operación '" + operacion.getDescripcion()
+                    + "' no aprobada por el core para la transacción " + compensacion.getCodigoUnico());
+        }
+        if (compensacion.getManifiesto() != null) {
+            compensacion.getManifiesto()
+                    .forEach(codigoUnico -> diarioTransacciones.registrar(codigoUnico, EstadoDiario.ACREDITADA));
+        }
+    }
+
+    /**
+     * El reverso va al core que aplicó el débito, guardado al encolarlo. Los reversos encolados antes de
+     * guardar el emisor resuelven el BIN con la tabla vigente.
+     */
+    private ResponseEntity<CoreResponseDTO> reversar(CoreBancarioClient coreBancarioClient, RuteadorBin ruteadorBin,
+            Compensacion compensacion) {
+        ReversoRequestDTO reverso = compensacion.getReverso();
+        DestinoEmisor emisor = compensacion.getEmisor() != null
+                ? compensacion.getEmisor()
+                : DestinoEmisor.de(ruteadorBin.resolver(reverso.getNumeroTarjeta()));
+        return emisor.core() == null
+                ? coreBancarioClient.reversarTransaccionTarjeta(reverso)
+                : coreBancarioClient.reversarTransaccionTarjeta(emisor.core(), reverso, emisor.opciones());
+    }
+}
@@ -0,0 +1,61 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.service.LimitadorConcurrencia;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.PlanificadorGateways;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class ConcurrenciaConfig {
+
+    @Bean
+    public LimitadorConcurrencia limitadorConcurrencia(
+            @Value("${core.concurrencia.adaptativa:true}") boolean habilitado,
+            @Value("${core.concurrencia.limite-inicial:50}") int limiteInicial,
+            @Value("${core.concurrencia.limite-minimo:5}") int limiteMinimo,
+            @Value("${core.concurrencia.limite-maximo:500}") int limiteMaximo,
+            MeterRegistry meterRegistry) {
+        return new LimitadorConcurrencia(habilitado, limiteInicial, limiteMinimo, limiteMaximo, meterRegistry);
+    }
+
+    /**
+     * Los pesos se declaran como {@code GATEWAY:peso}; los gateways sin peso declarado tienen peso 1.
+     */
+    @Bean
+    public PlanificadorGateways planificadorGateways(LimitadorConcurrencia limitadorConcurrencia,
+            @Value("${core.planificador.pesos:}") List<String> pesos,
+            @Value("${core.planificador.prioridad.tipos:}") Set<String> tiposPrioritarios,
+            @Value("${core.planificador.capacidad-carril:200}") int capacidadCarril,
+            @Value("${core.planificador.capacidad-total:2000}") int capacidadTotal,
+            MeterRegistry meterRegistry) {
+        Map<String, Integer> pesosPorGateway = new HashMap<>();
+        for (String peso : pesos) {
+            int separador = peso.lastIndexOf(':');
+            if (separador <= 0) {
+                throw new IllegalArgumentException("Peso de gateway inválido, se espera GATEWAY:peso: " + peso);
+            }
+            pesosPorGateway.put(peso.substring(0, separador).trim(),
+                    Integer.parseInt(peso.substring(separador + 1).trim()));
+        }
+        return new PlanificadorGateways(limitadorConcurrencia, pesosPorGateway, tiposPrioritarios, capacidadCarril,
+                capacidadTotal, meterRegistry);
+    }
+
+    /**
+     * Se registra como handler del ObservationRegistry de Spring Boot, así que recibe cada llamada
+     * al core sin acoplar el ejecutor al limitador.
+     */
+    @Bean
+    public MuestreoLatenciaCore muestreoLatenciaCore(LimitadorConcurrencia limitadorConcurrencia) {
+        return new MuestreoLatenciaCore(limitadorConcurrencia);
+    }
+}
@@ -0,0 +1,66 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.ComercioRequestDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.CoreResponseDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.RetencionRequestDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.ReversoRequestDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.TarjetaRequestDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Beans de Feign para el {@code CoreBancarioClient}. Se registran en el contexto para que Spring Cloud
+ * OpenFeign use estas instancias configuradas en lugar de instanciar las clases con valores vacíos.
+ */
+@Configuration
+public class CoreClientConfig {
+
+    @Bean
+    public PresupuestoReintentos presupuestoReintentos(
+            @Value("${core.bancario.retry.presupuesto.capacidad:50}") int capacidad,
+            @Value("${core.bancario.retry.presupuesto.recarga-por-segundo:10}") double recargaPorSegundo) {
+        return new PresupuestoReintentos(capacidad, recargaPorSegundo);
+    }
+
+    @Bean
+    public MetricasReintentos metricasReintentos(MeterRegistry meterRegistry,
+            ObservationRegistry observationRegistry) {
+        return new MetricasReintentos(meterRegistry, observationRegistry);
+    }
+
+    @Bean
+    public CoreClientRetryer coreClientRetryer(AjustesDinamicos ajustesDinamicos,
+            PresupuestoReintentos presupuestoReintentos,
+            MetricasReintentos metricasReintentos) {
+        return new CoreClientRetryer(ajustesDinamicos, presupuestoReintentos, metricasReintentos);
+    }
+
+    @Bean
+    public CoreClientErrorDecoder coreClientErrorDecoder() {
+        return new CoreClientErrorDecoder();
+    }
+
+    /**
+     * Usa el ObjectMapper de Spring Boot para conservar la misma configuración de Jackson que el
+     * SpringEncoder al que reemplaza.
+     */
+    @Bean
+    public CoreClientEncoder coreClientEncoder(ObjectMapper objectMapper,
+            @Value("${core.bancario.codec.buffers:256}") int buffers) {
+        return new CoreClientEncoder(objectMapper, List.of(TarjetaRequestDTO.class, ComercioRequestDTO.class,
+                ReversoRequestDTO.class, RetencionRequestDTO.class), buffers);
+    }
+
+    @Bean
+    public CoreClientDecoder coreClientDecoder(ObjectMapper objectMapper) {
+        return new CoreClientDecoder(objectMapper, List.of(CoreResponseDTO.class));
+    }
+}
@@ -0,0 +1,73 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import feign.Response;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+
+/**
+ * Deserializa las respuestas del core leyendo directamente del stream de la conexión con un
+ * {@link ObjectReader} preconstruido por tipo, sin cargar antes el cuerpo completo en memoria.
+ * Admite los métodos que devuelven {@code ResponseEntity<T>} y los que devuelven el DTO directamente.
+ */
+public class CoreClientDecoder implements Decoder {
+
+    private final ObjectMapper objectMapper;
+    private final Map<Type, ObjectReader> lectores = new ConcurrentHashMap<>();
+
+    public CoreClientDecoder(ObjectMapper objectMapper, List<Class<?>> tipos) {
+        this.objectMapper = objectMapper;
+        for (Class<?> tipo : tipos) {
+            lectores.put(tipo, objectMapper.readerFor(tipo));
+        }
+    }
+
+    @Override
+    public Object decode(Response response, Type type) throws IOException {
+        if (type instanceof ParameterizedType parametrizado && parametrizado.getRawType() == ResponseEntity.class) {
+            Object cuerpo = leer(response, parametrizado.getActualTypeArguments()[0]);
+            return new ResponseEntity<>(cuerpo, cabeceras(response), HttpStatusCode.valueOf(response.status()));
+        }
+        return leer(response, type);
+    }
+
+    private Object leer(Response response, Type tipo) throws IOException {
+        if (response.body() == null || response.status() == 204) {
+            return null;
+        }
+        ObjectReader lector = lectores.computeIfAbsent(tipo,
+                clave -> objectMapper.readerFor(objectMapper.constructType(clave)));
+        try (InputStream cuerpo = response.body().asInputStream();
+                JsonParser parser = lector.createParser(cuerpo)) {
+            // Un cuerpo vacío se interpreta como respuesta sin contenido
+            return parser.nextToken() == null ? null : lector.readValue(parser);
+        } catch (IOException e) {
+            throw new DecodeException(response.status(),
+                    "No se pudo leer la respuesta del core: " + e.getMessage(), response.request(), e);
+        }
+    }
+
+    private static HttpHeaders cabeceras(Response response) {
+        HttpHeaders cabeceras = new HttpHeaders();
+        for (Map.Entry<String, Collection<String>> cabecera : response.headers().entrySet()) {
+            cabeceras.addAll(cabecera.getKey(), List.copyOf(cabecera.getValue()));
+        }
+        return cabeceras;
+    }
+}
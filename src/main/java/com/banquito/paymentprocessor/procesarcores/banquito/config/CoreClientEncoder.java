@@ -0,0 +1,107 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import feign.RequestTemplate;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+
+/**
+ * Serializa los DTO de las solicitudes al core directamente a bytes con un {@link ObjectWriter}
+ * preconstruido por tipo, sobre buffers reutilizados de un pool. Evita la negociación de
+ * {@code HttpMessageConverter} y los buffers intermedios del {@code SpringEncoder}; la única copia por
+ * llamada es el arreglo final que Feign conserva como cuerpo de la solicitud.
+ */
+public class CoreClientEncoder implements Encoder {
+
+    private static final int CAPACIDAD_INICIAL_BUFFER = 512;
+    private static final int CAPACIDAD_MAXIMA_BUFFER = 16 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final Map<Type, ObjectWriter> escritores = new ConcurrentHashMap<>();
+    private final ArrayBlockingQueue<BufferSalida> buffers;
+
+    public CoreClientEncoder(ObjectMapper objectMapper, List<Class<?>> tipos, int buffersEnPool) {
+        this.objectMapper = objectMapper;
+        this.buffers = new ArrayBlockingQueue<>(buffersEnPool);
+        for (Class<?> tipo : tipos) {
+            escritores.put(tipo, objectMapper.writerFor(tipo));
+        }
+    }
+
+    @Override
+    public void encode(Object object, Type bodyType, RequestTemplate template) {
+        ObjectWriter escritor = escritores.computeIfAbsent(bodyType,
+                tipo -> objectMapper.writerFor(objectMapper.constructType(tipo)));
+        BufferSalida buffer = buffers.poll();
+        if (buffer == null) {
+            buffer = new BufferSalida();
+        }
+        try {
+            escritor.writeValue(buffer, object);
+            template.header("Content-Type", "application/json");
+            template.body(buffer.copia(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new EncodeException("No se pudo serializar la solicitud al core: " + e.getMessage(), e);
+        } finally {
+            // Los buffers que crecieron por una solicitud atípica no vuelven al pool
+            if (buffer.reiniciar()) {
+                buffers.offer(buffer);
+            }
+        }
+    }
+
+    /**
+     * Salida en memoria reutilizable; a diferencia de {@code ByteArrayOutputStream} no sincroniza y
+     * conserva su arreglo entre usos.
+     */
+    private static final class BufferSalida extends OutputStream {
+
+        private byte[] datos = new byte[CAPACIDAD_INICIAL_BUFFER];
+        private int tamano;
+
+        @Override
+        public void write(int b) {
+            asegurar(1);
+            datos[tamano++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            asegurar(len);
+            System.arraycopy(b, off, datos, tamano, len);
+            tamano += len;
+        }
+
+        @Override
+        public void close() {
+            // Jackson cierra la salida al terminar; el buffer sigue en uso hasta copiarlo
+        }
+
+        private byte[] copia() {
+            return Arrays.copyOf(datos, tamano);
+        }
+
+        private boolean reiniciar() {
+            tamano = 0;
+            return datos.length <= CAPACIDAD_MAXIMA_BUFFER;
+        }
+
+        private void asegurar(int adicional) {
+            if (tamano + adicional > datos.length) {
+                datos = Arrays.copyOf(datos, Math.max(datos.length * 2, tamano + adicional));
+            }
+        }
+    }
+}
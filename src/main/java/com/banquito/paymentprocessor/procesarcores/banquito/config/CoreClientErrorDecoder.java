@@ -1,20 +1,41 @@
 package com.banquito.paymentprocessor.procesarcores.banquito.config;
 
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.banquito.paymentprocessor.procesarcores.banquito.exception.CoreProcessingException;
 
 import feign.Response;
+import feign.RetryableException;
 import feign.codec.ErrorDecoder;
 
+/**
+ * Traduce las respuestas de error del core. Solo 408, 429 y 503 se marcan como reintentables porque
+ * indican que el core no procesó la solicitud; cualquier otro 5xx o un 504 del balanceador pudo haber
+ * aplicado el movimiento y reintentarlo duplicaría el débito o el crédito.
+ */
 public class CoreClientErrorDecoder implements ErrorDecoder {
-    
+
     private static final Logger log = LoggerFactory.getLogger(CoreClientErrorDecoder.class);
     private final ErrorDecoder defaultErrorDecoder = new Default();
 
     @Override
     public Exception decode(String methodKey, Response response) {
+        if (response.status() == 408 || response.status() == 429 || response.status() == 503) {
+            log.warn("El core bancario no está disponible temporalmente: {} - {}", response.status(), response.reason());
+            return new RetryableException(
+                response.status(),
+                String.format("El core bancario no está disponible temporalmente: %s", response.reason()),
+                response.request().httpMethod(),
+                retryAfter(response.headers().get("Retry-After")),
+                response.request()
+            );
+        }
         if (response.status() >= 400 && response.status() <= 499) {
             log.error("Error en la llamada al core bancario: {} - {}", response.status(), response.reason());
             return new CoreProcessingException(
@@ -24,4 +45,26 @@ public class CoreClientErrorDecoder implements ErrorDecoder {
         }
         return defaultErrorDecoder.decode(methodKey, response);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Interpreta la cabecera Retry-After, en segundos o como fecha HTTP.
+     *
+     * @return Instante en milisegundos desde epoch a partir del cual se puede reintentar, o null
+     */
+    static Long retryAfter(Collection<String> valores) {
+        if (valores == null || valores.isEmpty()) {
+            return null;
+        }
+        String valor = valores.iterator().next().trim();
+        try {
+            return System.currentTimeMillis() + Long.parseLong(valor) * 1000L;
+        } catch (NumberFormatException e) {
+            try {
+                return ZonedDateTime.parse(valor, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            } catch (DateTimeParseException ex) {
+                log.debug("Cabecera Retry-After inválida: {}", valor);
+                return null;
+            }
+        }
+    }
+}
@@ -1,42 +1,142 @@
 package com.banquito.paymentprocessor.procesarcores.banquito.config;
 
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.net.http.HttpConnectTimeoutException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.service.Plazo;
 
 import feign.RetryableException;
 import feign.Retryer;
 
+/**
+ * Retryer de Feign con backoff exponencial y full jitter, limitado por un presupuesto global de
+ * reintentos. Feign clona el retryer en cada invocación, por lo que el contador de intentos es
+ * propio de cada llamada y solo el {@link PresupuestoReintentos} se comparte.
+ * <p>
+ * Solo se reintentan las fallas seguras para un POST de débito o crédito: las respuestas 408, 429 y 503
+ * que {@link CoreClientErrorDecoder} clasifica como reintentables (el core no procesó la solicitud) y los
+ * errores al establecer la conexión. El decoder por defecto de Feign también marca como reintentable
+ * cualquier 5xx con Retry-After, que no se reintenta porque el core pudo haber aplicado el movimiento. Un timeout de lectura no se reintenta porque el core pudo haber
+ * aplicado el movimiento.
+ * <p>
+ * Creado con {@link AjustesDinamicos}, cada invocación toma el máximo de intentos y los backoff vigentes
+ * al clonarse, así que un cambio de ajustes aplica a las llamadas siguientes sin afectar a las en curso.
+ * Tampoco se reintenta si la espera no cabe en el {@link Plazo} de la transacción.
+ */
 public class CoreClientRetryer implements Retryer {
-    
+
     private static final Logger log = LoggerFactory.getLogger(CoreClientRetryer.class);
-    
-    @Value("${core.bancario.retry.max-attempts}")
-    private int maxAttempts;
-    
-    @Value("${core.bancario.retry.backoff}")
-    private long backoff;
-    
+
+    private final int maxAttempts;
+    private final long backoff;
+    private final long backoffMaximo;
+    private final PresupuestoReintentos presupuesto;
+    private final MetricasReintentos metricas;
+    private final AjustesDinamicos ajustesDinamicos;
+
     private int attempt = 1;
 
+    public CoreClientRetryer(int maxAttempts, long backoff, long backoffMaximo, PresupuestoReintentos presupuesto,
+            MetricasReintentos metricas) {
+        this(maxAttempts, backoff, backoffMaximo, presupuesto, metricas, null);
+    }
+
+    public CoreClientRetryer(AjustesDinamicos ajustesDinamicos, PresupuestoReintentos presupuesto,
+            MetricasReintentos metricas) {
+        this(ajustesDinamicos.actual(), presupuesto, metricas, ajustesDinamicos);
+    }
+
+    private CoreClientRetryer(AjustesCore ajustes, PresupuestoReintentos presupuesto, MetricasReintentos metricas,
+            AjustesDinamicos ajustesDinamicos) {
+        this(ajustes.getMaxIntentos(), ajustes.getBackoff(), ajustes.getBackoffMaximo(), presupuesto, metricas,
+                ajustesDinamicos);
+    }
+
+    private CoreClientRetryer(int maxAttempts, long backoff, long backoffMaximo, PresupuestoReintentos presupuesto,
+            MetricasReintentos metricas, AjustesDinamicos ajustesDinamicos) {
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.backoffMaximo = backoffMaximo;
+        this.presupuesto = presupuesto;
+        this.metricas = metricas;
+        this.ajustesDinamicos = ajustesDinamicos;
+    }
+
     @Override
     public void continueOrPropagate(RetryableException e) {
+        if (!esReintentable(e)) {
+            log.warn("Falla no segura para reintentar en la llamada al core bancario: {}", e.getMessage());
+            propagar(e, "no-reintentable");
+        }
         if (attempt++ >= maxAttempts) {
             log.error("Se alcanzó el máximo número de intentos ({}) para la llamada al core bancario", maxAttempts);
-            throw e;
+            propagar(e, "intentos-agotados");
+        }
+
+        long espera = calcularEspera(e);
+        if (espera > backoffMaximo) {
+            log.warn("El core solicitó esperar {} ms, más que el máximo permitido ({} ms)", espera, backoffMaximo);
+            propagar(e, "espera-excesiva");
+        }
+        Plazo plazo = Plazo.actual();
+        if (plazo != null && plazo.restanteMs() <= espera) {
+            log.warn("No se reintenta la llamada al core bancario: quedan {} ms del plazo de la transacción",
+                    plazo.restanteMs());
+            propagar(e, "plazo-vencido");
+        }
+        if (!presupuesto.intentarConsumir()) {
+            log.warn("Presupuesto de reintentos agotado, no se reintenta la llamada al core bancario");
+            propagar(e, "presupuesto-agotado");
         }
 
         try {
-            log.warn("Reintentando llamada al core bancario. Intento {} de {}", attempt, maxAttempts);
-            Thread.sleep(backoff * attempt);
+            log.warn("Reintentando llamada al core bancario en {} ms. Intento {} de {}", espera, attempt, maxAttempts);
+            metricas.registrarReintento(e.status(), espera);
+            Thread.sleep(espera);
         } catch (InterruptedException ex) {
             Thread.currentThread().interrupt();
             throw e;
         }
     }
 
+    private void propagar(RetryableException e, String motivo) {
+        metricas.registrar(motivo, e.status());
+        throw e;
+    }
+
+    long calcularEspera(RetryableException e) {
+        if (e.retryAfter() != null) {
+            return Math.max(0L, e.retryAfter() - System.currentTimeMillis());
+        }
+        // Full jitter: espera aleatoria entre 0 y el backoff exponencial del intento
+        long techo = Math.min(backoffMaximo, backoff << Math.min(attempt - 2, 30));
+        return ThreadLocalRandom.current().nextLong(techo + 1);
+    }
+
+    static boolean esReintentable(RetryableException e) {
+        if (e.status() > 0) {
+            return e.status() == 408 || e.status() == 429 || e.status() == 503;
+        }
+        Throwable causa = e.getCause();
+        return causa instanceof ConnectException
+                || causa instanceof UnknownHostException
+                || causa instanceof ConnectTimeoutException
+                || causa instanceof ConnectionRequestTimeoutException
+                || causa instanceof HttpConnectTimeoutException;
+    }
+
     @Override
     public Retryer clone() {
-        return new CoreClientRetryer();
+        if (ajustesDinamicos != null) {
+            return new CoreClientRetryer(ajustesDinamicos.actual(), presupuesto, metricas, ajustesDinamicos);
+        }
+        return new CoreClientRetryer(maxAttempts, backoff, backoffMaximo, presupuesto, metricas);
     }
-} 
\ No newline at end of file
+}
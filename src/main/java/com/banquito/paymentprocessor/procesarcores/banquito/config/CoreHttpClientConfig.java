@@ -0,0 +1,134 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import java.time.Duration;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import feign.Client;
+import feign.hc5.ApacheHttp5Client;
+import feign.http2client.Http2Client;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Transporte HTTP del {@code CoreBancarioClient}. Por defecto usa Apache HttpClient 5 con un pool de
+ * conexiones HTTP/1.1 persistentes; con {@code core.bancario.http.http2=true} usa el cliente HTTP/2
+ * del JDK, que multiplexa las solicitudes sobre una sola conexión por host. En ambos casos los timeouts
+ * de cada llamada son los vigentes en {@link AjustesDinamicos}.
+ */
+@Configuration
+public class CoreHttpClientConfig {
+
+    @Value("${core.bancario.http.max-conexiones:200}")
+    private int maxConexiones;
+
+    @Value("${core.bancario.http.max-conexiones-por-ruta:50}")
+    private int maxConexionesPorRuta;
+
+    @Value("${core.bancario.http.tiempo-vida:60000}")
+    private long tiempoVida;
+
+    @Value("${core.bancario.http.inactividad-maxima:30000}")
+    private long inactividadMaxima;
+
+    @Value("${core.bancario.http.keep-alive:30000}")
+    private long keepAlive;
+
+    @Value("${core.bancario.http.validar-despues-inactividad:2000}")
+    private long validarDespuesInactividad;
+
+    @Value("${core.bancario.http.espera-conexion:2000}")
+    private long esperaConexion;
+
+    @Value("${spring.cloud.openfeign.client.config.default.connectTimeout:5000}")
+    private long connectTimeout;
+
+    @Bean
+    @ConditionalOnProperty(name = "core.bancario.http.http2", havingValue = "false", matchIfMissing = true)
+    public PoolingHttpClientConnectionManager coreConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConexiones)
+                .setMaxConnPerRoute(maxConexionesPorRuta)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout))
+                        .setTimeToLive(TimeValue.ofMilliseconds(tiempoVida))
+                        .setValidateAfterInactivity(TimeValue.ofMilliseconds(validarDespuesInactividad))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "core.bancario.http.http2", havingValue = "false", matchIfMissing = true)
+    public CloseableHttpClient coreHttpClient(PoolingHttpClientConnectionManager coreConnectionManager) {
+        // El keep-alive por defecto aplica cuando el core no envía la cabecera Keep-Alive.
+        // Los reintentos los maneja el Retryer de Feign, por eso se desactivan los de HttpClient.
+        return HttpClients.custom()
+                .setConnectionManager(coreConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(esperaConexion))
+                        .setConnectionKeepAlive(TimeValue.ofMilliseconds(keepAlive))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(inactividadMaxima))
+                .disableAutomaticRetries()
+                .disableCookieManagement()
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "core.bancario.http.http2", havingValue = "false", matchIfMissing = true)
+    public Client feignClient(CloseableHttpClient coreHttpClient, AjustesDinamicos ajustesDinamicos) {
+        return new ClienteCoreAjustable(new ApacheHttp5Client(coreHttpClient), ajustesDinamicos);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "core.bancario.http.http2", havingValue = "true")
+    public Client feignHttp2Client(AjustesDinamicos ajustesDinamicos) {
+        return new ClienteCoreAjustable(new Http2Client(java.net.http.HttpClient.newBuilder()
+                .version(java.net.http.HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeout))
+                .build()), ajustesDinamicos);
+    }
+
+    /**
+     * Publica el estado del pool en {@code /actuator/metrics/core.http.pool.*}.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "core.bancario.http.http2", havingValue = "false", matchIfMissing = true)
+    public MeterBinder corePoolMetrics(PoolingHttpClientConnectionManager coreConnectionManager) {
+        return registry -> {
+            Gauge.builder("core.http.pool.leased", coreConnectionManager, cm -> estadisticas(cm).getLeased())
+                    .description("Conexiones al core en uso")
+                    .register(registry);
+            Gauge.builder("core.http.pool.available", coreConnectionManager, cm -> estadisticas(cm).getAvailable())
+                    .description("Conexiones al core inactivas disponibles para reutilizar")
+                    .register(registry);
+            Gauge.builder("core.http.pool.pending", coreConnectionManager, cm -> estadisticas(cm).getPending())
+                    .description("Solicitudes esperando una conexión del pool")
+                    .register(registry);
+            Gauge.builder("core.http.pool.max", coreConnectionManager, cm -> estadisticas(cm).getMax())
+                    .description("Máximo de conexiones del pool")
+                    .register(registry);
+        };
+    }
+
+    private static PoolStats estadisticas(PoolingHttpClientConnectionManager connectionManager) {
+        return connectionManager.getTotalStats();
+    }
+}
@@ -0,0 +1,43 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.service.AcumuladorCreditos;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.ColaCompensaciones;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class CreditoDiferidoConfig {
+
+    /**
+     * Las liquidaciones se encolan en la cola de compensaciones, que ya reintenta con backoff y deja
+     * en fallidas las que agotan los intentos.
+     */
+    @Bean(initMethod = "iniciar", destroyMethod = "close")
+    public AcumuladorCreditos acumuladorCreditos(
+            @Value("${core.credito-diferido.habilitado:false}") boolean habilitado,
+            @Value("${core.credito-diferido.comercios:}") Set<String> comercios,
+            @Value("${core.credito-diferido.max-transacciones:500}") int maxTransacciones,
+            @Value("${core.credito-diferido.monto-maximo:}") BigDecimal montoMaximo,
+            @Value("${core.credito-diferido.ventana:60000}") long ventana,
+            @Value("${core.credito-diferido.tamano-bitacora:16MB}") DataSize tamanoBitacora,
+            @Value("${core.credito-diferido.directorio:data/creditos}") String directorio,
+            ObjectMapper objectMapper,
+            ColaCompensaciones colaCompensaciones,
+            MeterRegistry meterRegistry) {
+        if (!habilitado) {
+            return AcumuladorCreditos.deshabilitado();
+        }
+        return new AcumuladorCreditos(true, comercios, maxTransacciones, montoMaximo, ventana,
+                tamanoBitacora.toBytes(), Path.of(directorio), objectMapper, colaCompensaciones, meterRegistry);
+    }
+}
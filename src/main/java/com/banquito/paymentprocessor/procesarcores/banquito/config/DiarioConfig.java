@@ -0,0 +1,25 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.service.DiarioTransacciones;
+
+@Configuration
+public class DiarioConfig {
+
+    @Bean(initMethod = "iniciar", destroyMethod = "close")
+    public DiarioTransacciones diarioTransacciones(
+            @Value("${core.diario.directorio:data/diario}") String directorio,
+            @Value("${core.diario.tamano-segmento:64MB}") DataSize tamanoSegmento,
+            @Value("${core.diario.intervalo-sincronizacion:5}") long intervaloSincronizacion,
+            @Value("${core.diario.retencion:86400000}") long retencion) {
+        return new DiarioTransacciones(Path.of(directorio), Math.toIntExact(tamanoSegmento.toBytes()),
+                intervaloSincronizacion, Duration.ofMillis(retencion));
+    }
+}
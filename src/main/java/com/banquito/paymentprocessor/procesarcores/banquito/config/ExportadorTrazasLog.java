@@ -0,0 +1,60 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+/**
+ * Exportador de spans al log de la aplicación, pensado para trabajar sin un colector. Solo escribe los
+ * spans que duran al menos el umbral configurado, lo que permite dejarlo activo para encontrar las
+ * transacciones lentas de la cola de latencia y seguir su {@code traceId} en el resto del log.
+ */
+public class ExportadorTrazasLog implements SpanExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportadorTrazasLog.class);
+
+    private final long umbralNanos;
+
+    public ExportadorTrazasLog(Duration umbral) {
+        this.umbralNanos = umbral.toNanos();
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        for (SpanData span : spans) {
+            long duracion = span.getEndEpochNanos() - span.getStartEpochNanos();
+            if (duracion >= umbralNanos) {
+                log.info("Span '{}' {} ms trace={} span={} padre={} estado={} atributos={} eventos={}",
+                        span.getName(), TimeUnit.NANOSECONDS.toMillis(duracion), span.getTraceId(),
+                        span.getSpanId(), span.getParentSpanId(), span.getStatus().getStatusCode(),
+                        span.getAttributes().asMap(), eventos(span));
+            }
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private String eventos(SpanData span) {
+        return span.getEvents().stream()
+                .map(EventData::getName)
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
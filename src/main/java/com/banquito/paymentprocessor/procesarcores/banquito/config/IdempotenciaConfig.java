@@ -0,0 +1,23 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.service.AlmacenIdempotencia;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.AlmacenIdempotenciaMemoria;
+
+@Configuration
+public class IdempotenciaConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(AlmacenIdempotencia.class)
+    public AlmacenIdempotencia almacenIdempotencia(
+            @Value("${core.idempotencia.max-entradas:100000}") long maxEntradas,
+            @Value("${core.idempotencia.ttl:600000}") long ttl) {
+        return new AlmacenIdempotenciaMemoria(maxEntradas, Duration.ofMillis(ttl));
+    }
+}
@@ -0,0 +1,38 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+public class LoteConfig {
+
+    /**
+     * Pool compartido por todos los lotes. El número de hilos limita las llamadas
+     * simultáneas al core sin importar cuántos lotes lleguen a la vez.
+     */
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Scheduler loteScheduler(
+            @Value("${core.lote.hilos-maximos:64}") int hilosMaximos,
+            @Value("${core.lote.cola-maxima:10000}") int colaMaxima) {
+        return Schedulers.newBoundedElastic(hilosMaximos, colaMaxima, "procesar-lote");
+    }
+
+    /**
+     * Con hilos virtuales cada transacción del lote obtiene su propio hilo; la concurrencia
+     * queda limitada únicamente por {@code core.lote.concurrencia}.
+     */
+    @Bean(name = "loteScheduler", destroyMethod = "dispose")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Scheduler loteSchedulerVirtual() {
+        return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "procesar-lote");
+    }
+}
@@ -0,0 +1,60 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Métricas de {@link CoreClientRetryer}: cada decisión sobre una falla (reintentar o propagar, con el
+ * motivo) y la espera antes de cada reintento. La causa se etiqueta por código HTTP o como conexión,
+ * ambos de cardinalidad acotada.
+ * <p>
+ * Cada reintento se anota además como evento en la observación en curso (la llamada de
+ * {@code EjecutorCoreBancario}), de modo que la traza muestra cuándo y por qué se repitió el intento.
+ */
+public class MetricasReintentos {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> decisiones = new ConcurrentHashMap<>();
+    private final Timer espera;
+    private final ObservationRegistry observationRegistry;
+
+    public MetricasReintentos(MeterRegistry meterRegistry, ObservationRegistry observationRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+        this.espera = Timer.builder("core.reintentos.espera")
+                .description("Espera antes de reintentar una llamada al core bancario")
+                .register(meterRegistry);
+    }
+
+    void registrar(String resultado, int status) {
+        String causa = causa(status);
+        decisiones.computeIfAbsent(resultado + ":" + causa, clave -> Counter.builder("core.reintentos")
+                .description("Fallas de llamadas al core bancario según la decisión del retryer")
+                .tag("resultado", resultado)
+                .tag("causa", causa)
+                .register(meterRegistry))
+                .increment();
+    }
+
+    void registrarReintento(int status, long milisegundos) {
+        registrar("reintentado", status);
+        espera.record(milisegundos, TimeUnit.MILLISECONDS);
+
+        Observation llamada = observationRegistry.getCurrentObservation();
+        if (llamada != null) {
+            llamada.event(Observation.Event.of("reintento",
+                    "reintento en " + milisegundos + " ms por " + causa(status)));
+        }
+    }
+
+    private static String causa(int status) {
+        return status > 0 ? "http-" + status : "conexion";
+    }
+}
@@ -0,0 +1,55 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.exception.CoreProcessingException;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.EjecutorCoreBancario;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.LimitadorConcurrencia;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.Plazo;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+
+/**
+ * Alimenta al {@link LimitadorConcurrencia} con la duración de cada observación
+ * {@code core.bancario.llamada}. Las llamadas que no se enviaron (circuito abierto, bulkhead lleno o
+ * plazo de la transacción vencido antes de enviarla) no aportan muestra, un 4xx del core cuenta como respuesta normal y cualquier otra falla como
+ * sobrecarga.
+ */
+public class MuestreoLatenciaCore implements ObservationHandler<Observation.Context> {
+
+    private static final String INICIO = MuestreoLatenciaCore.class.getName() + ".inicio";
+
+    private final LimitadorConcurrencia limitadorConcurrencia;
+
+    public MuestreoLatenciaCore(LimitadorConcurrencia limitadorConcurrencia) {
+        this.limitadorConcurrencia = limitadorConcurrencia;
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return EjecutorCoreBancario.OBSERVACION_LLAMADA.equals(context.getName());
+    }
+
+    @Override
+    public void onStart(Observation.Context context) {
+        context.put(INICIO, System.nanoTime());
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        Long inicio = context.get(INICIO);
+        if (inicio == null) {
+            return;
+        }
+        Throwable error = context.getError();
+        if (error instanceof CoreProcessingException cpe && Plazo.ERROR_PLAZO_VENCIDO.equals(cpe.getErrorCode())) {
+            return;
+        }
+        if (error == null || error instanceof CoreProcessingException) {
+            limitadorConcurrencia.registrarLatencia(System.nanoTime() - inicio);
+        } else if (!(error instanceof CallNotPermittedException) && !(error instanceof BulkheadFullException)) {
+            limitadorConcurrencia.registrarSobrecarga();
+        }
+    }
+}
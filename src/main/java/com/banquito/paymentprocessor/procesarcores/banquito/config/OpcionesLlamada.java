@@ -0,0 +1,44 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import java.util.concurrent.TimeUnit;
+
+import feign.Request;
+
+/**
+ * Timeouts fijados para una llamada concreta al core; {@link ClienteCoreAjustable} no los reemplaza por
+ * los ajustes generales. Un timeout sin valor se toma de los ajustes vigentes al momento de la llamada.
+ */
+public class OpcionesLlamada extends Request.Options {
+
+    private final Integer timeoutConexion;
+    private final Integer timeoutLectura;
+
+    public OpcionesLlamada(Integer timeoutConexion, Integer timeoutLectura) {
+        super(timeoutConexion != null ? timeoutConexion : 0, TimeUnit.MILLISECONDS,
+                timeoutLectura != null ? timeoutLectura : 0, TimeUnit.MILLISECONDS, true);
+        this.timeoutConexion = timeoutConexion;
+        this.timeoutLectura = timeoutLectura;
+    }
+
+    public Integer getTimeoutConexion() {
+        return timeoutConexion;
+    }
+
+    public Integer getTimeoutLectura() {
+        return timeoutLectura;
+    }
+
+    /**
+     * @param vigentes opciones de los ajustes vigentes del core
+     * @return estas opciones con los timeouts sin valor tomados de {@code vigentes}
+     */
+    public Request.Options completar(Request.Options vigentes) {
+        if (timeoutConexion != null && timeoutLectura != null) {
+            return this;
+        }
+        return new Request.Options(
+                timeoutConexion != null ? timeoutConexion : vigentes.connectTimeoutMillis(), TimeUnit.MILLISECONDS,
+                timeoutLectura != null ? timeoutLectura : vigentes.readTimeoutMillis(), TimeUnit.MILLISECONDS,
+                isFollowRedirects());
+    }
+}
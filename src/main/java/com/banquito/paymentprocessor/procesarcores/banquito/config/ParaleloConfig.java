@@ -0,0 +1,35 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.service.EjecucionParalela;
+
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+
+@Configuration
+public class ParaleloConfig {
+
+    /**
+     * La retención del crédito corre en un hilo virtual por transacción; el contexto de la observación
+     * se copia al hilo para que su span cuelgue de la misma traza.
+     */
+    @Bean(destroyMethod = "close")
+    public EjecucionParalela ejecucionParalela(
+            @Value("${core.paralelo.habilitado:false}") boolean habilitado,
+            @Value("${core.paralelo.monto-maximo:}") BigDecimal montoMaximo,
+            @Value("${core.paralelo.comercios-confiables:}") Set<String> comerciosConfiables) {
+        if (!habilitado) {
+            return EjecucionParalela.deshabilitada();
+        }
+        ContextSnapshotFactory contexto = ContextSnapshotFactory.builder().build();
+        return new EjecucionParalela(true, montoMaximo, comerciosConfiables,
+                ContextExecutorService.wrap(Executors.newVirtualThreadPerTaskExecutor(), () -> contexto.captureAll()));
+    }
+}
@@ -0,0 +1,47 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+/**
+ * Token bucket compartido por todas las llamadas al core. Cada reintento consume un token y los
+ * tokens se recargan a una tasa fija, de modo que durante una caída los reintentos no pueden
+ * multiplicar la carga sobre el core más allá de {@code recargaPorSegundo}.
+ */
+public class PresupuestoReintentos {
+
+    private final double capacidad;
+    private final double recargaPorNano;
+
+    private double tokens;
+    private long ultimaRecarga;
+
+    public PresupuestoReintentos(int capacidad, double recargaPorSegundo) {
+        this.capacidad = capacidad;
+        this.recargaPorNano = recargaPorSegundo / 1_000_000_000d;
+        this.tokens = capacidad;
+        this.ultimaRecarga = System.nanoTime();
+    }
+
+    /**
+     * Intenta consumir un token para un reintento.
+     *
+     * @return true si el reintento está dentro del presupuesto
+     */
+    public synchronized boolean intentarConsumir() {
+        recargar();
+        if (tokens < 1d) {
+            return false;
+        }
+        tokens -= 1d;
+        return true;
+    }
+
+    public synchronized double disponibles() {
+        recargar();
+        return tokens;
+    }
+
+    private void recargar() {
+        long ahora = System.nanoTime();
+        tokens = Math.min(capacidad, tokens + (ahora - ultimaRecarga) * recargaPorNano);
+        ultimaRecarga = ahora;
+    }
+}
@@ -0,0 +1,31 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.service.RuteadorBin;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class RuteoConfig {
+
+    /**
+     * Los timeouts que un emisor no fija se toman de los ajustes vigentes del core en cada llamada.
+     */
+    @Bean(initMethod = "iniciar", destroyMethod = "close")
+    public RuteadorBin ruteadorBin(
+            @Value("${core.ruteo.archivo:}") String archivo,
+            @Value("${core.ruteo.intervalo-recarga:5000}") long intervaloRecarga,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        if (archivo.isBlank()) {
+            return RuteadorBin.deshabilitado();
+        }
+        return new RuteadorBin(Path.of(archivo), intervaloRecarga, objectMapper, meterRegistry);
+    }
+}
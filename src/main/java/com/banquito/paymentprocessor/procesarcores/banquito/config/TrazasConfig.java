@@ -0,0 +1,25 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+/**
+ * Exportadores de trazas. Spring Boot agrega al {@code SdkTracerProvider} todos los beans
+ * {@link SpanExporter}, así que un exportador OTLP puede convivir con el de log o reemplazarlo
+ * desactivando este con {@code core.trazas.exportador=ninguno}.
+ */
+@Configuration
+public class TrazasConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "core.trazas.exportador", havingValue = "log", matchIfMissing = true)
+    public SpanExporter exportadorTrazasLog(@Value("${core.trazas.umbral-lento:0}") long umbralLento) {
+        return new ExportadorTrazasLog(Duration.ofMillis(umbralLento));
+    }
+}
@@ -1,18 +1,54 @@
 package com.banquito.paymentprocessor.procesarcores.banquito.config;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import io.micrometer.observation.ObservationRegistry;
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
 @Configuration
 public class WebClientConfig {
 
+    @Value("${core.reactivo.max-conexiones:1000}")
+    private int maxConexiones;
+
+    @Value("${core.reactivo.max-pendientes:5000}")
+    private int maxPendientes;
+
+    @Value("${core.reactivo.connect-timeout:5000}")
+    private int connectTimeout;
+
+    @Value("${core.reactivo.read-timeout:5000}")
+    private long readTimeout;
+
     @Bean
-    public WebClient webClient() {
+    public WebClient webClient(ObservationRegistry observationRegistry) {
+        // Pool propio para el modo reactivo: las conexiones se comparten entre todas las
+        // transacciones en curso y las solicitudes que exceden el pool esperan sin bloquear hilos
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("core-bancario")
+                .maxConnections(maxConexiones)
+                .pendingAcquireMaxCount(maxPendientes)
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeout)
+                .responseTimeout(Duration.ofMillis(readTimeout));
+
         return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                // Span por llamada y propagación del contexto W3C hacia el core
+                .observationRegistry(observationRegistry)
                 .codecs(configurer -> configurer
                         .defaultCodecs()
                         .maxInMemorySize(16 * 1024 * 1024))
                 .build();
     }
-} 
\ No newline at end of file
+}
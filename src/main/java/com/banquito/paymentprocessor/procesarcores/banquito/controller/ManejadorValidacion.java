@@ -0,0 +1,73 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.controller;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.ErrorValidacionDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreDTO;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Path;
+
+/**
+ * Convierte los errores de validación de {@link TransaccionCoreDTO} en un 400 con la lista de campos
+ * inválidos. La validación corre antes de llegar al servicio, así que estas transacciones no ocupan
+ * capacidad del planificador ni llaman al core. En los lotes cada transacción se valida por separado
+ * en {@code ProcesarLoteService}. Los parámetros sueltos, como la cabecera del plazo, se validan en
+ * el proxy de {@code @Validated} y llegan como {@link ConstraintViolationException}.
+ */
+@RestControllerAdvice
+public class ManejadorValidacion {
+
+    private static final Logger log = LoggerFactory.getLogger(ManejadorValidacion.class);
+
+    private static final String MENSAJE = "Datos de la transacción inválidos";
+
+    @ExceptionHandler({ MethodArgumentNotValidException.class })
+    public ResponseEntity<ErrorValidacionDTO> argumentoInvalido(MethodArgumentNotValidException e) {
+        return respuesta(e.getBindingResult());
+    }
+
+    @ExceptionHandler({ ConstraintViolationException.class })
+    public ResponseEntity<ErrorValidacionDTO> parametroInvalido(ConstraintViolationException e) {
+        List<ErrorValidacionDTO.Campo> errores = e.getConstraintViolations().stream()
+                .map(violacion -> new ErrorValidacionDTO.Campo(parametro(violacion), violacion.getMessage()))
+                .toList();
+        log.debug("Solicitud rechazada por validación: {}", errores);
+        return ResponseEntity.badRequest().body(ErrorValidacionDTO.builder()
+                .mensaje(MENSAJE)
+                .errores(errores)
+                .build());
+    }
+
+    private String parametro(ConstraintViolation<?> violacion) {
+        String parametro = null;
+        for (Path.Node nodo : violacion.getPropertyPath()) {
+            parametro = nodo.getName();
+        }
+        return parametro;
+    }
+
+    private ResponseEntity<ErrorValidacionDTO> respuesta(BindingResult resultado) {
+        String codigoUnico = resultado.getTarget() instanceof TransaccionCoreDTO transaccion
+                ? transaccion.getCodigoUnico()
+                : null;
+        List<ErrorValidacionDTO.Campo> errores = resultado.getFieldErrors().stream()
+                .map(error -> new ErrorValidacionDTO.Campo(error.getField(), error.getDefaultMessage()))
+                .toList();
+        log.debug("Transacción {} rechazada por validación: {}", codigoUnico, errores);
+        return ResponseEntity.badRequest().body(ErrorValidacionDTO.builder()
+                .codigoUnico(codigoUnico)
+                .mensaje(MENSAJE)
+                .errores(errores)
+                .build());
+    }
+}
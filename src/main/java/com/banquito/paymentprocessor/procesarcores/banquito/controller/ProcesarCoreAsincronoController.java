@@ -0,0 +1,81 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.controller;
+
+import java.net.URI;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreResponseDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.exception.ColaTrabajoLlenaException;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.ProcesarAsincronoService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Controlador alternativo para {@code core.ejecucion.modo=asincrono}. Acepta la transacción, la
+ * encola y responde de inmediato; el resultado se consulta en {@code /transacciones/{codigoUnico}}.
+ */
+@RestController
+@RequestMapping("/api/v1/core")
+@Validated
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "core.ejecucion.modo", havingValue = "asincrono")
+@Tag(name = "Core Transaccional", description = "API para el procesamiento de transacciones con el core bancario")
+public class ProcesarCoreAsincronoController {
+
+    private static final Logger log = LoggerFactory.getLogger(ProcesarCoreAsincronoController.class);
+
+    private final ProcesarAsincronoService procesarAsincronoService;
+
+    @PostMapping("/procesar-cores")
+    @Operation(
+        summary = "Acepta una transacción para procesarla en el core bancario",
+        description = "Valida y encola la transacción; el débito a la tarjeta y el crédito al comercio se realizan "
+                + "en segundo plano. El estado se consulta en GET /api/v1/core/transacciones/{codigoUnico}"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "202",
+            description = "Transacción aceptada, el cuerpo contiene su estado actual",
+            content = @Content(schema = @Schema(implementation = TransaccionCoreResponseDTO.class))
+        ),
+        @ApiResponse(responseCode = "400", description = "Datos de la solicitud inválidos"),
+        @ApiResponse(responseCode = "429", description = "Cola de trabajo llena, reintentar más tarde"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<TransaccionCoreResponseDTO> procesarTransaccion(@Valid @RequestBody TransaccionCoreDTO transaccion) {
+        log.debug("Recibida solicitud para procesar transacción: {}", transaccion.getCodigoUnico());
+
+        TransaccionCoreResponseDTO respuesta = procesarAsincronoService.aceptar(transaccion);
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/core/transacciones/" + respuesta.getCodigoUnico()))
+                .body(respuesta);
+    }
+
+    @ExceptionHandler({ ColaTrabajoLlenaException.class })
+    public ResponseEntity<Void> colaLlena(ColaTrabajoLlenaException e) {
+        log.warn("Transacción rechazada: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
+}
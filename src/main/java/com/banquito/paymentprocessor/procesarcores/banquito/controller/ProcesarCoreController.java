@@ -1,11 +1,18 @@
 package com.banquito.paymentprocessor.procesarcores.banquito.controller;
 
+import java.time.LocalDateTime;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -13,21 +20,29 @@ import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.ComercioR
 import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.TarjetaRequestDTO;
 import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreDTO;
 import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreResponseDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.exception.CarrilLlenoException;
+import com.banquito.paymentprocessor.procesarcores.banquito.exception.CoreProcessingException;
+import com.banquito.paymentprocessor.procesarcores.banquito.exception.LimiteConcurrenciaException;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.PlanificadorGateways;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.Plazo;
 import com.banquito.paymentprocessor.procesarcores.banquito.service.ProcesarCoreService;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 
 @RestController
 @RequestMapping("/api/v1/core")
 @Validated
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "core.ejecucion.modo", havingValue = "bloqueante", matchIfMissing = true)
 @Tag(name = "Core Transaccional", description = "API para el procesamiento de transacciones con el core bancario")
 public class ProcesarCoreController {
     
@@ -35,6 +50,8 @@ public class ProcesarCoreController {
     
     private final ProcesarCoreService procesarCoreService;
     
+    private final PlanificadorGateways planificadorGateways;
+    
     @PostMapping("/procesar-cores")
     @Operation(
         summary = "Procesa una transacción completa en el core bancario", 
@@ -48,14 +65,19 @@ public class ProcesarCoreController {
         ),
         @ApiResponse(responseCode = "400", description = "Datos de la solicitud inválidos"),
         @ApiResponse(responseCode = "422", description = "Error en el procesamiento de la transacción"),
-        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+        @ApiResponse(responseCode = "429", description = "Cola del gateway llena, reintentar más tarde"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor"),
+        @ApiResponse(responseCode = "503", description = "Límite de transacciones en curso alcanzado, reintentar más tarde")
     })
-    public ResponseEntity<TransaccionCoreResponseDTO> procesarTransaccion(@Valid @RequestBody TransaccionCoreDTO transaccion) {
-        log.info("Recibida solicitud para procesar transacción: {}", transaccion.getCodigoUnico());
-        
-        TransaccionCoreResponseDTO respuesta = procesarCoreService.procesarTransaccion(transaccion);
+    public ResponseEntity<TransaccionCoreResponseDTO> procesarTransaccion(@Valid @RequestBody TransaccionCoreDTO transaccion,
+            @Parameter(description = "Milisegundos que el cliente espera la respuesta, como máximo core.timeout")
+            @RequestHeader(name = Plazo.CABECERA, required = false) @Positive Long plazoMs) {
+        log.debug("Recibida solicitud para procesar transacción: {}", transaccion.getCodigoUnico());
         
-        log.info("Transacción procesada - Estado: {}, Mensaje: {}", respuesta.getEstado(), respuesta.getMensaje());
+        // El plazo corre desde la recepción, así que incluye la espera en la cola del gateway
+        Plazo plazo = procesarCoreService.iniciarPlazo(plazoMs);
+        TransaccionCoreResponseDTO respuesta = planificadorGateways.ejecutar(transaccion, plazo,
+                () -> procesarCoreService.procesarTransaccion(transaccion, plazo));
         
         if ("APROBADO".equals(respuesta.getEstado())) {
             return ResponseEntity.ok(respuesta);
@@ -63,4 +85,35 @@ public class ProcesarCoreController {
             return ResponseEntity.unprocessableEntity().body(respuesta);
         }
     }
+
+    @ExceptionHandler({ CarrilLlenoException.class })
+    public ResponseEntity<Void> carrilLleno(CarrilLlenoException e) {
+        log.debug("Transacción rechazada: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
+
+    /**
+     * Errores fuera del servicio, como el plazo vencido esperando turno en el planificador; el servicio
+     * convierte los suyos en una respuesta rechazada.
+     */
+    @ExceptionHandler({ CoreProcessingException.class })
+    public ResponseEntity<TransaccionCoreResponseDTO> rechazada(CoreProcessingException e) {
+        log.debug("Transacción rechazada: {}", e.getMessage());
+        return ResponseEntity.unprocessableEntity().body(TransaccionCoreResponseDTO.builder()
+                .fechaProceso(LocalDateTime.now())
+                .estado("RECHAZADO")
+                .mensaje(e.getMessage())
+                .codigoRespuesta(e.getErrorCode())
+                .build());
+    }
+
+    @ExceptionHandler({ LimiteConcurrenciaException.class })
+    public ResponseEntity<Void> limiteAlcanzado(LimiteConcurrenciaException e) {
+        log.debug("Transacción rechazada: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreResponseDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.Plazo;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.ProcesarCoreService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controlador alternativo para {@code core.ejecucion.modo=reactivo}. Expone el mismo endpoint que
+ * {@link ProcesarCoreController}, pero libera el hilo del servidor mientras se espera al core.
+ */
+@RestController
+@RequestMapping("/api/v1/core")
+@Validated
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "core.ejecucion.modo", havingValue = "reactivo")
+@Tag(name = "Core Transaccional", description = "API para el procesamiento de transacciones con el core bancario")
+public class ProcesarCoreReactivoController {
+
+    private static final Logger log = LoggerFactory.getLogger(ProcesarCoreReactivoController.class);
+
+    private final ProcesarCoreService procesarCoreService;
+
+    @PostMapping("/procesar-cores")
+    @Operation(
+        summary = "Procesa una transacción completa en el core bancario",
+        description = "Realiza el débito a la tarjeta y el crédito al comercio como una sola operación transaccional, "
+                + "sin bloquear hilos mientras se espera la respuesta del core"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Transacción procesada correctamente",
+            content = @Content(schema = @Schema(implementation = TransaccionCoreResponseDTO.class))
+        ),
+        @ApiResponse(responseCode = "400", description = "Datos de la solicitud inválidos"),
+        @ApiResponse(responseCode = "422", description = "Error en el procesamiento de la transacción"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Mono<ResponseEntity<TransaccionCoreResponseDTO>> procesarTransaccion(
+            @Valid @RequestBody TransaccionCoreDTO transaccion,
+            @Parameter(description = "Milisegundos que el cliente espera la respuesta, como máximo core.timeout")
+            @RequestHeader(name = Plazo.CABECERA, required = false) @Positive Long plazoMs) {
+        log.debug("Recibida solicitud para procesar transacción: {}", transaccion.getCodigoUnico());
+
+        Plazo plazo = procesarCoreService.iniciarPlazo(plazoMs);
+        return procesarCoreService.procesarTransaccionReactiva(transaccion, plazo)
+                .map(respuesta -> {
+                    if ("APROBADO".equals(respuesta.getEstado())) {
+                        return ResponseEntity.ok(respuesta);
+                    }
+                    return ResponseEntity.unprocessableEntity().body(respuesta);
+                });
+    }
+}
@@ -0,0 +1,67 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.controller;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreResponseDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.exception.LoteInvalidoException;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.ProcesarLoteService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/api/v1/core")
+@RequiredArgsConstructor
+@Tag(name = "Core Transaccional", description = "API para el procesamiento de transacciones con el core bancario")
+public class ProcesarLoteController {
+
+    private static final Logger log = LoggerFactory.getLogger(ProcesarLoteController.class);
+
+    private final ProcesarLoteService procesarLoteService;
+
+    @PostMapping(value = "/procesar-cores/lote",
+            produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    @Operation(
+        summary = "Procesa un lote de transacciones en el core bancario",
+        description = "Procesa cada transacción del lote con concurrencia limitada y devuelve un resultado por transacción "
+                + "en el mismo orden del lote. Con Accept application/x-ndjson los resultados se envían a medida que están listos"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lote procesado, cada elemento indica el estado de su transacción",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = TransaccionCoreResponseDTO.class)))
+        ),
+        @ApiResponse(responseCode = "400", description = "Lote vacío, demasiado grande o con datos inválidos"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Flux<TransaccionCoreResponseDTO> procesarLote(@RequestBody List<TransaccionCoreDTO> transacciones) {
+        // Sin @Valid: ProcesarLoteService valida cada transacción y rechaza solo las inválidas, no el lote
+        log.info("Recibida solicitud para procesar lote de {} transacciones", transacciones.size());
+        return procesarLoteService.procesarLote(transacciones);
+    }
+
+    @ExceptionHandler({ LoteInvalidoException.class })
+    public ResponseEntity<Void> loteInvalido(LoteInvalidoException e) {
+        log.warn("Lote rechazado: {}", e.getMessage());
+        return ResponseEntity.badRequest().build();
+    }
+}
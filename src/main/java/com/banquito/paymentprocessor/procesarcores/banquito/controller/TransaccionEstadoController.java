@@ -0,0 +1,47 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreResponseDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.ProcesarAsincronoService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/v1/core")
+@RequiredArgsConstructor
+@Tag(name = "Core Transaccional", description = "API para el procesamiento de transacciones con el core bancario")
+public class TransaccionEstadoController {
+
+    private final ProcesarAsincronoService procesarAsincronoService;
+
+    @GetMapping("/transacciones/{codigoUnico}")
+    @Operation(
+        summary = "Consulta el estado de una transacción",
+        description = "Devuelve PENDIENTE o EN_PROCESO mientras la transacción está en curso y APROBADO o RECHAZADO "
+                + "cuando terminó. Los resultados se conservan durante core.idempotencia.ttl"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Estado actual de la transacción",
+            content = @Content(schema = @Schema(implementation = TransaccionCoreResponseDTO.class))
+        ),
+        @ApiResponse(responseCode = "404", description = "Transacción desconocida o expirada")
+    })
+    public ResponseEntity<TransaccionCoreResponseDTO> consultarEstado(@PathVariable String codigoUnico) {
+        return procesarAsincronoService.consultar(codigoUnico)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
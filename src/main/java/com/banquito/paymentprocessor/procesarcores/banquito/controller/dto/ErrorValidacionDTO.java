@@ -0,0 +1,28 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.controller.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErrorValidacionDTO {
+
+    private String codigoUnico;
+    private String mensaje;
+    private List<Campo> errores;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Campo {
+
+        private String campo;
+        private String mensaje;
+    }
+}
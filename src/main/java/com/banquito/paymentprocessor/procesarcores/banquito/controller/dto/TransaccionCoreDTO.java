@@ -2,18 +2,22 @@ package com.banquito.paymentprocessor.procesarcores.banquito.controller.dto;
 
 import java.math.BigDecimal;
 
+import com.banquito.paymentprocessor.procesarcores.banquito.util.EnmascaradorPan;
+import com.banquito.paymentprocessor.procesarcores.banquito.validacion.CaducidadVigente;
+import com.banquito.paymentprocessor.procesarcores.banquito.validacion.Iban;
+import com.banquito.paymentprocessor.procesarcores.banquito.validacion.Luhn;
+
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Digits;
-import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
-import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Data
 @Builder
@@ -22,6 +26,8 @@ import lombok.NoArgsConstructor;
 @Schema(description = "DTO para la transferencia de datos de transacción al core bancario")
 public class TransaccionCoreDTO {
     
+    private static final String FORMATO_SWIFT = "[A-Z]{6}[A-Z0-9]{2}([A-Z0-9]{3})?";
+    
     @Schema(description = "Código único de la transacción", example = "TRX1234567", required = true)
     private String codTransaccion;
     
@@ -32,15 +38,26 @@ public class TransaccionCoreDTO {
     private String codigoGtw;
     
     @Schema(description = "Número de la tarjeta", example = "4532123456789012", required = true)
+    @NotBlank(message = "el número de tarjeta es obligatorio")
+    @Luhn
+    @ToString.Exclude
     private String numeroTarjeta;
     
     @Schema(description = "Código de seguridad de la tarjeta", example = "123", required = true)
+    @Pattern(regexp = "\\d{3,4}", message = "el CVV debe tener 3 o 4 dígitos")
+    @ToString.Exclude
     private String cvv;
     
-    @Schema(description = "Fecha de caducidad de la tarjeta", example = "12/25", required = true)
+    @Schema(description = "Fecha de caducidad de la tarjeta", example = "12/30", required = true)
+    @NotBlank(message = "la fecha de caducidad es obligatoria")
+    @CaducidadVigente
+    @ToString.Exclude
     private String fechaCaducidad;
     
     @Schema(description = "Monto de la transacción", example = "100.50", required = true)
+    @NotNull(message = "el monto es obligatorio")
+    @DecimalMin(value = "0", inclusive = false, message = "el monto debe ser mayor que cero")
+    @Digits(integer = 15, fraction = 2, message = "el monto admite hasta 15 enteros y 2 decimales")
     private BigDecimal monto;
     
     @Schema(description = "Código de moneda", example = "USD", required = false)
@@ -61,13 +78,16 @@ public class TransaccionCoreDTO {
     @Schema(description = "Tipo de transacción", example = "COM", required = true)
     private String tipo;
     
-    @Schema(description = "Código SWIFT del banco del comercio", example = "BANKECXXXX", required = false)
+    @Schema(description = "Código SWIFT del banco del comercio", example = "BANKECXXXXX", required = false)
+    @Pattern(regexp = FORMATO_SWIFT, message = "código SWIFT inválido")
     private String swiftBancoComercio;
     
-    @Schema(description = "Cuenta IBAN del comercio", example = "EC1234567890123456789012", required = false)
+    @Schema(description = "Cuenta IBAN del comercio", example = "ES9121000418450200051332", required = false)
+    @Iban
     private String cuentaIbanComercio;
     
     @Schema(description = "Código SWIFT del banco emisor de la tarjeta", example = "BANKUS33XXX", required = false)
+    @Pattern(regexp = FORMATO_SWIFT, message = "código SWIFT inválido")
     private String swiftBancoTarjeta;
     
     @Schema(description = "Datos encriptados de la transacción", required = false)
@@ -78,4 +98,12 @@ public class TransaccionCoreDTO {
     
     @Schema(description = "Número de cuotas para el diferido", example = "3", required = false)
     private Integer cuotas;
-} 
\ No newline at end of file
+
+    /**
+     * El número de tarjeta se muestra enmascarado; el CVV y la fecha de caducidad nunca se incluyen.
+     */
+    @ToString.Include(name = "numeroTarjeta")
+    private String numeroTarjetaEnmascarado() {
+        return EnmascaradorPan.enmascarar(numeroTarjeta);
+    }
+}
@@ -2,6 +2,8 @@ package com.banquito.paymentprocessor.procesarcores.banquito.controller.dto;
 
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,4 +21,11 @@ public class TransaccionCoreResponseDTO {
     private String mensaje;
     private String codigoRespuesta;
     private String swiftBanco;
+
+    /**
+     * Indica que algún paso llegó a aplicarse en el core antes del rechazo, aunque ya se haya encolado su
+     * reverso. No se envía al cliente; {@code IdempotenciaService} lo usa para no permitir el reintento.
+     */
+    @JsonIgnore
+    private boolean pasosAplicados;
 } 
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.exception;
+
+/**
+ * Excepción lanzada cuando la cola de espera de un gateway alcanzó su capacidad. Solo afecta a las
+ * transacciones de ese gateway; el cliente debe reintentar más tarde.
+ */
+public class CarrilLlenoException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String carril;
+    private final int capacidad;
+
+    public CarrilLlenoException(String carril, int capacidad) {
+        super();
+        this.carril = carril;
+        this.capacidad = capacidad;
+    }
+
+    @Override
+    public String getMessage() {
+        return "La cola del carril " + this.carril + " alcanzó su capacidad máxima de " + this.capacidad
+                + " transacciones";
+    }
+}
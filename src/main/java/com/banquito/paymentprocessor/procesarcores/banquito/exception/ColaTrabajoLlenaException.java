@@ -0,0 +1,22 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.exception;
+
+/**
+ * Excepción lanzada cuando la cola de trabajo del modo asíncrono alcanzó su capacidad y la
+ * transacción no puede aceptarse. El cliente debe reintentar más tarde.
+ */
+public class ColaTrabajoLlenaException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int capacidad;
+
+    public ColaTrabajoLlenaException(int capacidad) {
+        super();
+        this.capacidad = capacidad;
+    }
+
+    @Override
+    public String getMessage() {
+        return "La cola de trabajo alcanzó su capacidad máxima de " + this.capacidad + " transacciones";
+    }
+}
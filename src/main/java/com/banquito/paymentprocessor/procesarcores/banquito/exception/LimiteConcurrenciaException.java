@@ -0,0 +1,22 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.exception;
+
+/**
+ * Excepción lanzada cuando el límite adaptativo de transacciones en curso hacia el core está agotado
+ * y la espera de todos los gateways alcanzó su capacidad. El cliente debe reintentar más tarde.
+ */
+public class LimiteConcurrenciaException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int capacidad;
+
+    public LimiteConcurrenciaException(int capacidad) {
+        super();
+        this.capacidad = capacidad;
+    }
+
+    @Override
+    public String getMessage() {
+        return "El core está saturado y hay " + this.capacidad + " transacciones en espera";
+    }
+}
@@ -0,0 +1,24 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.exception;
+
+/**
+ * Excepción lanzada cuando un lote de transacciones no puede ser procesado,
+ * por ejemplo cuando está vacío o excede el tamaño máximo permitido.
+ */
+public class LoteInvalidoException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int tamano;
+    private final int tamanoMaximo;
+
+    public LoteInvalidoException(int tamano, int tamanoMaximo) {
+        super();
+        this.tamano = tamano;
+        this.tamanoMaximo = tamanoMaximo;
+    }
+
+    @Override
+    public String getMessage() {
+        return "El lote debe contener entre 1 y " + this.tamanoMaximo + " transacciones, se recibieron: " + this.tamano;
+    }
+}
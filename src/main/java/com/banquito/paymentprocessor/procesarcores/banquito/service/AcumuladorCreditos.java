@@ -0,0 +1,443 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.ComercioRequestDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Modo opcional de crédito diferido: los créditos a cuenta de comercio se acumulan por IBAN y se
+ * liquidan como un solo {@link ComercioRequestDTO} con el monto neto cuando se cumple la ventana de
+ * tiempo, el número de transacciones o el monto acumulado. Cada liquidación se encola en la
+ * {@link ColaCompensaciones} con el manifiesto de los {@code codigoUnico} que contiene, así que es
+ * durable y se reintenta hasta que el core la aprueba.
+ * <p>
+ * Los créditos pendientes se anotan en una bitácora en disco antes de responder y se recuperan al
+ * iniciar. Una liquidación se anota en la bitácora antes de encolarse, con un id que es también el
+ * {@code codigoUnico} enviado al core: si la aplicación se detiene entre ambos pasos la liquidación
+ * se vuelve a encolar con el mismo id. Cuando la cola confirma que el core aplicó una liquidación, se
+ * anota en la bitácora que está aplicada, y al recuperar no se reenvía aunque ya no esté en la cola.
+ */
+public class AcumuladorCreditos implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AcumuladorCreditos.class);
+
+    private static final String BITACORA = "creditos.log";
+    private static final String PREFIJO_LIQUIDACION = "LIQ-";
+
+    private final boolean habilitado;
+    private final Set<String> comercios;
+    private final int maxTransacciones;
+    private final BigDecimal montoMaximo;
+    private final long ventana;
+    private final long tamanoMaximoBitacora;
+    private final Path directorio;
+    private final ObjectMapper objectMapper;
+    private final ColaCompensaciones colaCompensaciones;
+    private final ScheduledExecutorService programador;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Lote> lotes = new LinkedHashMap<>();
+    // Liquidaciones anotadas que la cola rechazó; se reintentan en cada revisión de la ventana
+    private final List<Compensacion> porEncolar = new ArrayList<>();
+    // Liquidaciones confirmadas por la cola; solo se consulta al recuperar la bitácora en iniciar()
+    private Set<String> aplicadas = new HashSet<>();
+    private FileChannel bitacora;
+    private volatile int pendientes;
+    private DistributionSummary transaccionesPorLiquidacion;
+
+    public AcumuladorCreditos(boolean habilitado, Set<String> comercios, int maxTransacciones, BigDecimal montoMaximo,
+            long ventana, long tamanoMaximoBitacora, Path directorio, ObjectMapper objectMapper,
+            ColaCompensaciones colaCompensaciones, MeterRegistry meterRegistry) {
+        this.habilitado = habilitado;
+        this.comercios = comercios;
+        this.maxTransacciones = maxTransacciones;
+        this.montoMaximo = montoMaximo;
+        this.ventana = ventana;
+        this.tamanoMaximoBitacora = tamanoMaximoBitacora;
+        this.directorio = directorio;
+        this.objectMapper = objectMapper;
+        this.colaCompensaciones = colaCompensaciones;
+        if (!habilitado) {
+            this.programador = null;
+            return;
+        }
+        this.programador = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("credito-diferido")
+                .daemon(true)
+                .factory());
+        this.transaccionesPorLiquidacion = DistributionSummary.builder("core.credito.diferido.liquidacion")
+                .description("Transacciones incluidas en cada liquidación de crédito a un comercio")
+                .register(meterRegistry);
+        Gauge.builder("core.credito.diferido.pendientes", this, acumulador -> acumulador.pendientes)
+                .description("Créditos a comercios aún no liquidados")
+                .register(meterRegistry);
+    }
+
+    public static AcumuladorCreditos deshabilitado() {
+        return new AcumuladorCreditos(false, Set.of(), 0, null, 0, 0, null, null, null, null);
+    }
+
+    public boolean aplica(TransaccionCoreDTO transaccion) {
+        return habilitado && (comercios.isEmpty() || comercios.contains(transaccion.getCuentaIbanComercio()));
+    }
+
+    /**
+     * Recupera los créditos y liquidaciones anotados antes del último reinicio y arranca la liquidación
+     * por ventana de tiempo.
+     */
+    public void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+        lock.lock();
+        try {
+            Files.createDirectories(directorio);
+            Map<String, ComercioRequestDTO> recuperados = new LinkedHashMap<>();
+            List<Compensacion> liquidaciones = new ArrayList<>();
+            leerBitacora(recuperados, liquidaciones);
+
+            // Las confirmaciones de la cola se anotan desde aquí; las que llegaron antes de registrar el
+            // oyente se entregan ahora, y las siguientes esperan el lock con el archivo aún en la cola
+            bitacora = FileChannel.open(directorio.resolve(BITACORA), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            colaCompensaciones.alCompletar(this::confirmar);
+            Set<String> encoladas = Stream.concat(colaCompensaciones.pendientes().stream(),
+                            colaCompensaciones.fallidas().stream())
+                    .map(Compensacion::getId)
+                    .collect(Collectors.toSet());
+            for (Compensacion liquidacion : vigentes(liquidaciones)) {
+                liquidacion.getManifiesto().forEach(recuperados::remove);
+                if (encoladas.contains(liquidacion.getId())) {
+                    continue;
+                }
+                if (aplicadas.contains(liquidacion.getId())) {
+                    log.info("Liquidación {} ya aplicada por el core, no se reenvía", liquidacion.getId());
+                    continue;
+                }
+                colaCompensaciones.encolar(liquidacion);
+            }
+            aplicadas = null;
+            long ahora = System.currentTimeMillis();
+            recuperados.values().forEach(credito -> acumular(credito, ahora));
+            if (!recuperados.isEmpty() || !liquidaciones.isEmpty()) {
+                log.warn("Se recuperaron {} créditos pendientes y {} liquidaciones de la bitácora",
+                        recuperados.size(), liquidaciones.size());
+            }
+            compactar();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo recuperar la bitácora de créditos " + directorio, e);
+        } finally {
+            lock.unlock();
+        }
+        long intervalo = Math.max(1, ventana / 4);
+        programador.scheduleWithFixedDelay(this::liquidarVencidos, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Anota el crédito en la bitácora y lo acumula en el lote de su IBAN. Cuando este método retorna
+     * el crédito se liquidará aunque la aplicación se reinicie; la sincronización con el disco se
+     * agrupa en cada revisión de la ventana, como en el diario de transacciones. Solo falla si no se
+     * pudo anotar el crédito: una vez anotado, una falla al liquidar el lote no debe reversar el débito.
+     */
+    public void agregar(ComercioRequestDTO credito) {
+        lock.lock();
+        try {
+            anotar(new Registro(credito, null, null));
+            Lote lote = acumular(credito, System.currentTimeMillis());
+            if (lote.creditos.size() >= maxTransacciones
+                    || (montoMaximo != null && lote.monto.compareTo(montoMaximo) >= 0)) {
+                try {
+                    liquidar(credito.getIban(), lote);
+                } catch (RuntimeException e) {
+                    // El lote sigue pendiente y se liquida en la próxima revisión de la ventana
+                    log.error("No se pudo liquidar el lote del IBAN {}: {}", credito.getIban(), e.getMessage());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Anota que el core aplicó la liquidación; la cola lo invoca antes de borrar su archivo.
+     */
+    void confirmar(Compensacion compensacion) {
+        if (compensacion.getOperacion() != OperacionCore.CREDITO_AGREGADO) {
+            return;
+        }
+        lock.lock();
+        try {
+            anotar(new Registro(null, null, compensacion.getId()));
+            forzar();
+            if (aplicadas != null) {
+                aplicadas.add(compensacion.getId());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!habilitado) {
+            return;
+        }
+        // Los créditos no liquidados quedan en la bitácora y se retoman en el próximo inicio
+        programador.shutdownNow();
+        lock.lock();
+        try {
+            if (bitacora != null) {
+                // Sin las liquidaciones ya encoladas, para no reenviarlas al core en el próximo inicio
+                compactar();
+                bitacora.close();
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("No se pudo cerrar la bitácora de créditos: {}", e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void liquidarVencidos() {
+        long limite = System.currentTimeMillis() - ventana;
+        lock.lock();
+        try {
+            reencolar();
+            List<Map.Entry<String, Lote>> vencidos = lotes.entrySet().stream()
+                    .filter(entrada -> entrada.getValue().inicio <= limite)
+                    .toList();
+            for (Map.Entry<String, Lote> entrada : vencidos) {
+                liquidar(entrada.getKey(), entrada.getValue());
+            }
+            if (bitacora != null) {
+                bitacora.force(false);
+            }
+        } catch (RuntimeException | IOException e) {
+            log.error("No se pudieron liquidar los créditos vencidos: {}", e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Una liquidación que falló antes de encolarse deja el lote pendiente, y el siguiente intento anota
+     * otra con las mismas transacciones. De esas solo vale la última.
+     */
+    private List<Compensacion> vigentes(List<Compensacion> liquidaciones) {
+        Set<String> posteriores = new HashSet<>();
+        List<Compensacion> vigentes = new ArrayList<>();
+        for (int i = liquidaciones.size() - 1; i >= 0; i--) {
+            Compensacion liquidacion = liquidaciones.get(i);
+            if (liquidacion.getManifiesto().stream().noneMatch(posteriores::contains)) {
+                vigentes.add(0, liquidacion);
+            }
+            posteriores.addAll(liquidacion.getManifiesto());
+        }
+        return vigentes;
+    }
+
+    /**
+     * Debe invocarse con el lock tomado.
+     */
+    private void reencolar() {
+        while (!porEncolar.isEmpty()) {
+            colaCompensaciones.encolar(porEncolar.get(0));
+            porEncolar.remove(0);
+        }
+    }
+
+    /**
+     * Debe invocarse con el lock tomado. Si falla la anotación el lote queda pendiente; si falla la
+     * cola, la liquidación ya anotada queda para {@link #reencolar()}.
+     */
+    private void liquidar(String iban, Lote lote) {
+        String id = PREFIJO_LIQUIDACION + UUID.randomUUID();
+        ComercioRequestDTO primero = lote.creditos.get(0);
+        List<String> manifiesto = lote.creditos.stream().map(ComercioRequestDTO::getCodigoUnico).toList();
+        Compensacion liquidacion = Compensacion.builder()
+                .id(id)
+                .codigoUnico(id)
+                .operacion(OperacionCore.CREDITO_AGREGADO)
+                .credito(ComercioRequestDTO.builder()
+                        .iban(iban)
+                        .swift(primero.getSwift())
+                        .tipo(primero.getTipo())
+                        .codigoUnico(id)
+                        .monto(lote.monto)
+                        .referencia("Liquidación de " + manifiesto.size() + " transacciones")
+                        .build())
+                .manifiesto(manifiesto)
+                .fechaRegistro(LocalDateTime.now())
+                .build();
+
+        anotar(new Registro(null, liquidacion, null));
+        forzar();
+        lotes.remove(iban);
+        pendientes -= manifiesto.size();
+        transaccionesPorLiquidacion.record(manifiesto.size());
+        try {
+            colaCompensaciones.encolar(liquidacion);
+            log.debug("Liquidación {} encolada para el IBAN {} con {} transacciones", id, iban, manifiesto.size());
+        } catch (RuntimeException e) {
+            porEncolar.add(liquidacion);
+            log.error("No se pudo encolar la liquidación {}, se reintenta en la próxima revisión: {}", id,
+                    e.getMessage());
+        }
+
+        if (tamanoBitacora() > tamanoMaximoBitacora) {
+            compactar();
+        }
+    }
+
+    private Lote acumular(ComercioRequestDTO credito, long ahora) {
+        Lote lote = lotes.computeIfAbsent(credito.getIban(), iban -> new Lote(ahora));
+        lote.creditos.add(credito);
+        lote.monto = lote.monto.add(credito.getMonto() != null ? credito.getMonto() : BigDecimal.ZERO);
+        pendientes++;
+        return lote;
+    }
+
+    /**
+     * Reescribe la bitácora solo con los créditos pendientes y las liquidaciones que aún no llegaron a
+     * la cola de compensaciones. Debe invocarse con el lock tomado.
+     */
+    private void compactar() {
+        Path archivo = directorio.resolve(BITACORA);
+        Path temporal = directorio.resolve(BITACORA + ".tmp");
+        try {
+            if (bitacora != null) {
+                bitacora.close();
+            }
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (Lote lote : lotes.values()) {
+                    for (ComercioRequestDTO credito : lote.creditos) {
+                        escribir(canal, new Registro(credito, null, null));
+                    }
+                }
+                for (Compensacion liquidacion : porEncolar) {
+                    escribir(canal, new Registro(null, liquidacion, null));
+                }
+                canal.force(true);
+            }
+            Files.move(temporal, archivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            bitacora = FileChannel.open(archivo, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo compactar la bitácora de créditos", e);
+        }
+    }
+
+    private void leerBitacora(Map<String, ComercioRequestDTO> creditos, List<Compensacion> liquidaciones)
+            throws IOException {
+        Path archivo = directorio.resolve(BITACORA);
+        if (!Files.exists(archivo)) {
+            return;
+        }
+        try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                if (linea.isBlank()) {
+                    continue;
+                }
+                Registro registro;
+                try {
+                    registro = objectMapper.readValue(linea, Registro.class);
+                } catch (IOException e) {
+                    // Una línea truncada solo puede ser la última, escrita durante la caída
+                    log.warn("Se descarta una línea incompleta de la bitácora de créditos");
+                    continue;
+                }
+                if (registro.credito() != null) {
+                    creditos.put(registro.credito().getCodigoUnico(), registro.credito());
+                } else if (registro.liquidacion() != null) {
+                    liquidaciones.add(registro.liquidacion());
+                } else if (registro.aplicada() != null) {
+                    aplicadas.add(registro.aplicada());
+                }
+            }
+        }
+    }
+
+    private void anotar(Registro registro) {
+        try {
+            escribir(bitacora, registro);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo anotar en la bitácora de créditos", e);
+        }
+    }
+
+    private void forzar() {
+        try {
+            bitacora.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo sincronizar la bitácora de créditos", e);
+        }
+    }
+
+    private long tamanoBitacora() {
+        try {
+            return bitacora.size();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private void escribir(FileChannel canal, Registro registro) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(registro);
+        ByteBuffer buffer = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+    }
+
+    /**
+     * Línea de la bitácora: un crédito pendiente, una liquidación a punto de encolarse o el id de una
+     * liquidación que el core ya aplicó.
+     */
+    record Registro(ComercioRequestDTO credito, Compensacion liquidacion, String aplicada) {
+    }
+
+    private static final class Lote {
+
+        private final long inicio;
+        private final List<ComercioRequestDTO> creditos = new ArrayList<>();
+        private BigDecimal monto = BigDecimal.ZERO;
+
+        private Lote(long inicio) {
+            this.inicio = inicio;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import java.util.Optional;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreResponseDTO;
+
+/**
+ * Almacén de resultados finales de transacciones indexados por {@code codigoUnico}. La implementación
+ * por defecto es en memoria; un almacén compartido (por ejemplo Redis) puede reemplazarla declarando
+ * otro bean de este tipo.
+ */
+public interface AlmacenIdempotencia {
+
+    Optional<TransaccionCoreResponseDTO> obtener(String codigoUnico);
+
+    void guardar(String codigoUnico, TransaccionCoreResponseDTO resultado);
+}
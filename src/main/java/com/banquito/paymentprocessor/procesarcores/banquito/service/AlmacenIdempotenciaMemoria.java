@@ -0,0 +1,33 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Almacén de idempotencia local con tamaño máximo y expiración por tiempo desde la escritura.
+ */
+public class AlmacenIdempotenciaMemoria implements AlmacenIdempotencia {
+
+    private final Cache<String, TransaccionCoreResponseDTO> resultados;
+
+    public AlmacenIdempotenciaMemoria(long maxEntradas, Duration ttl) {
+        this.resultados = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public Optional<TransaccionCoreResponseDTO> obtener(String codigoUnico) {
+        return Optional.ofNullable(resultados.getIfPresent(codigoUnico));
+    }
+
+    @Override
+    public void guardar(String codigoUnico, TransaccionCoreResponseDTO resultado) {
+        resultados.put(codigoUnico, resultado);
+    }
+}
@@ -0,0 +1,182 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Solicitudes de cobertura (hedging) para el débito a tarjeta. Si la llamada no respondió dentro del
+ * percentil configurado de las latencias recientes, se envía una segunda llamada con el mismo
+ * {@code codigoUnicoTransaccion} y se usa la primera respuesta exitosa. El core debe deduplicar por
+ * ese código; de lo contrario la cobertura duplicaría el débito.
+ * <p>
+ * Las coberturas se limitan a un porcentaje del tráfico: cada llamada acumula esa fracción de crédito
+ * y cada cobertura consume uno, así que la carga adicional sobre el core queda acotada aun cuando
+ * todas las llamadas se vuelven lentas.
+ */
+public class CoberturaDebito implements AutoCloseable {
+
+    private static final int VENTANA = 1024;
+    private static final int MUESTRAS_MINIMAS = 100;
+    private static final int RECALCULO = 100;
+    private static final double CREDITO_MAXIMO = 10d;
+
+    private final boolean habilitada;
+    private final double percentil;
+    private final long retardoMinimoNanos;
+    private final double fraccionMaxima;
+    private final ExecutorService executor;
+
+    // La ventana y el crédito se protegen con el monitor de la instancia
+    private final long[] latencias = new long[VENTANA];
+    private long muestras;
+    private volatile long retardoNanos = -1;
+    private double credito;
+
+    private final Counter enviadas;
+    private final Counter ganadas;
+
+    public CoberturaDebito(boolean habilitada, double percentil, long retardoMinimoMs, double porcentajeMaximo,
+            ExecutorService executor, MeterRegistry meterRegistry) {
+        this.habilitada = habilitada;
+        this.percentil = percentil;
+        this.retardoMinimoNanos = TimeUnit.MILLISECONDS.toNanos(retardoMinimoMs);
+        this.fraccionMaxima = porcentajeMaximo / 100d;
+        this.executor = executor;
+
+        this.enviadas = Counter.builder("core.cobertura.enviadas")
+                .description("Llamadas de cobertura enviadas al core para el débito a tarjeta")
+                .register(meterRegistry);
+        this.ganadas = Counter.builder("core.cobertura.ganadas")
+                .description("Llamadas de cobertura que respondieron antes que la original")
+                .register(meterRegistry);
+        Gauge.builder("core.cobertura.retardo", this, cobertura -> Math.max(0, cobertura.retardoNanos) / 1e6)
+                .description("Espera en ms antes de enviar una cobertura")
+                .register(meterRegistry);
+    }
+
+    public static CoberturaDebito deshabilitada(MeterRegistry meterRegistry) {
+        return new CoberturaDebito(false, 0d, 0, 0d, null, meterRegistry);
+    }
+
+    public <T> T ejecutar(Supplier<T> llamada) {
+        if (!habilitada) {
+            return llamada.get();
+        }
+        acumularCredito();
+
+        long retardo = retardoNanos;
+        if (retardo < 0) {
+            // Sin muestras suficientes todavía no hay percentil: la llamada va sin cobertura
+            long inicio = System.nanoTime();
+            T respuesta = llamada.get();
+            registrarLatencia(System.nanoTime() - inicio);
+            return respuesta;
+        }
+
+        CompletableFuture<T> resultado = new CompletableFuture<>();
+        AtomicInteger pendientes = new AtomicInteger(1);
+        enviar(llamada, resultado, pendientes, false);
+        try {
+            return resultado.get(retardo, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Si la original ya falló el contador quedó en cero y el resultado ya está completo
+            if (consumirCredito() && pendientes.incrementAndGet() > 1) {
+                enviadas.increment();
+                enviar(llamada, resultado, pendientes, true);
+            }
+            return esperar(resultado);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando el débito a tarjeta", e);
+        } catch (ExecutionException e) {
+            return esperar(resultado);
+        }
+    }
+
+    /**
+     * Completa el resultado con la primera respuesta exitosa; si todas las llamadas fallan, con la
+     * última falla, aunque sea un {@link Error}, para que quien espera no quede bloqueado. La llamada
+     * que pierde no se cancela porque Feign no admite interrumpirla.
+     */
+    private <T> void enviar(Supplier<T> llamada, CompletableFuture<T> resultado, AtomicInteger pendientes,
+            boolean cobertura) {
+        CompletableFuture.runAsync(() -> {
+            long inicio = System.nanoTime();
+            try {
+                T respuesta = llamada.get();
+                registrarLatencia(System.nanoTime() - inicio);
+                if (resultado.complete(respuesta) && cobertura) {
+                    ganadas.increment();
+                }
+            } catch (Throwable e) {
+                if (pendientes.decrementAndGet() == 0) {
+                    resultado.completeExceptionally(e);
+                }
+            }
+        }, executor);
+    }
+
+    private <T> T esperar(CompletableFuture<T> resultado) {
+        try {
+            return resultado.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * La copia de la ventana se toma con el lock; el ordenamiento se hace fuera para no bloquear a los
+     * demás hilos que registran latencias.
+     */
+    private void registrarLatencia(long nanos) {
+        long[] ventana = null;
+        synchronized (this) {
+            latencias[(int) (muestras % VENTANA)] = nanos;
+            muestras++;
+            if (muestras >= MUESTRAS_MINIMAS && muestras % RECALCULO == 0) {
+                ventana = Arrays.copyOf(latencias, (int) Math.min(muestras, VENTANA));
+            }
+        }
+        if (ventana != null) {
+            Arrays.sort(ventana);
+            int indice = Math.min(ventana.length - 1, (int) Math.ceil(percentil * ventana.length) - 1);
+            retardoNanos = Math.max(retardoMinimoNanos, ventana[Math.max(0, indice)]);
+        }
+    }
+
+    private synchronized void acumularCredito() {
+        credito = Math.min(CREDITO_MAXIMO, credito + fraccionMaxima);
+    }
+
+    private synchronized boolean consumirCredito() {
+        if (credito < 1d) {
+            return false;
+        }
+        credito -= 1d;
+        return true;
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.close();
+        }
+    }
+}
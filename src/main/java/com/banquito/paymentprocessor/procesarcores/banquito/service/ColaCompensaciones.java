@@ -0,0 +1,318 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.ReversoRequestDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.util.CifradorPan;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Cola local y durable de compensaciones. Cada compensación se guarda como un archivo JSON antes de
+ * programarse, de modo que sobrevive a un reinicio; {@link #iniciar()} vuelve a programar las que
+ * quedaron pendientes. Los reversos se ejecutan en hilos propios con backoff exponencial y, al agotar
+ * los intentos, el archivo se mueve a {@code fallidas} para revisión manual.
+ *
+ * <p>Los reversos llevan el número de tarjeta, así que el directorio queda en el alcance de PCI DSS.
+ * Con un {@link CifradorPan} el número se guarda cifrado; en cualquier caso el directorio y los
+ * archivos solo son accesibles para el usuario del proceso cuando el sistema de archivos es POSIX.
+ */
+public class ColaCompensaciones implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ColaCompensaciones.class);
+
+    private static final String EXTENSION = ".json";
+    private static final Set<PosixFilePermission> PERMISOS_DIRECTORIO = PosixFilePermissions.fromString("rwx------");
+    private static final Set<PosixFilePermission> PERMISOS_ARCHIVO = PosixFilePermissions.fromString("rw-------");
+
+    private final Path directorio;
+    private final Path fallidas;
+    private final int maxIntentos;
+    private final long backoff;
+    private final long backoffMaximo;
+    private final ObjectMapper objectMapper;
+    private final Consumer<Compensacion> reverso;
+    private final CifradorPan cifradorPan;
+    private final boolean posix;
+    private final ScheduledExecutorService despachador;
+
+    private Consumer<Compensacion> oyente;
+    // Liquidaciones aplicadas antes de registrar el oyente, como las recuperadas en iniciar()
+    private final List<Compensacion> completadasSinOyente = new ArrayList<>();
+
+    public ColaCompensaciones(Path directorio, int hilos, int maxIntentos, long backoff, long backoffMaximo,
+            ObjectMapper objectMapper, Consumer<Compensacion> reverso) {
+        this(directorio, hilos, maxIntentos, backoff, backoffMaximo, objectMapper, reverso, null);
+    }
+
+    /**
+     * @param cifradorPan cifra el número de tarjeta de los reversos en disco; {@code null} lo guarda en claro
+     */
+    public ColaCompensaciones(Path directorio, int hilos, int maxIntentos, long backoff, long backoffMaximo,
+            ObjectMapper objectMapper, Consumer<Compensacion> reverso, CifradorPan cifradorPan) {
+        this.directorio = directorio;
+        this.fallidas = directorio.resolve("fallidas");
+        this.maxIntentos = maxIntentos;
+        this.backoff = backoff;
+        this.backoffMaximo = backoffMaximo;
+        this.objectMapper = objectMapper;
+        this.reverso = reverso;
+        this.cifradorPan = cifradorPan;
+        this.despachador = Executors.newScheduledThreadPool(hilos, Thread.ofPlatform()
+                .name("compensacion-", 0)
+                .daemon(true)
+                .factory());
+        try {
+            Files.createDirectories(fallidas);
+            this.posix = Files.getFileStore(directorio).supportsFileAttributeView(PosixFileAttributeView.class);
+            if (posix) {
+                Files.setPosixFilePermissions(directorio, PERMISOS_DIRECTORIO);
+                Files.setPosixFilePermissions(fallidas, PERMISOS_DIRECTORIO);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear el directorio de compensaciones " + directorio, e);
+        }
+        if (cifradorPan == null) {
+            log.warn("Los reversos en {} guardan el número de tarjeta sin cifrar", directorio);
+        }
+    }
+
+    /**
+     * Programa las compensaciones que quedaron registradas antes del último reinicio.
+     */
+    public void iniciar() {
+        List<Compensacion> recuperadas = listar(directorio);
+        if (!recuperadas.isEmpty()) {
+            log.warn("Se recuperaron {} compensaciones pendientes", recuperadas.size());
+        }
+        recuperadas.forEach(compensacion -> programar(compensacion, 0));
+    }
+
+    /**
+     * Registra la compensación en disco y la programa. Cuando este método retorna, el reverso se
+     * ejecutará aunque la aplicación se reinicie.
+     */
+    public void encolar(Compensacion compensacion) {
+        escribir(directorio, compensacion);
+        log.info("Compensación {} registrada para la transacción {}", compensacion.getId(),
+                compensacion.getCodigoUnico());
+        programar(compensacion, 0);
+    }
+
+    /**
+     * Registra el oyente que recibe cada compensación aplicada por el core, antes de borrar su archivo.
+     * Las liquidaciones con manifiesto que se aplicaron antes de registrarlo se le entregan en este
+     * momento, en el hilo que lo registra.
+     */
+    public void alCompletar(Consumer<Compensacion> oyente) {
+        List<Compensacion> previas;
+        synchronized (this) {
+            this.oyente = oyente;
+            previas = List.copyOf(completadasSinOyente);
+            completadasSinOyente.clear();
+        }
+        previas.forEach(oyente);
+    }
+
+    public List<Compensacion> pendientes() {
+        return listar(directorio);
+    }
+
+    public List<Compensacion> fallidas() {
+        return listar(fallidas);
+    }
+
+    @Override
+    public void close() {
+        // Lo que no alcance a ejecutarse sigue en disco y se retoma en el próximo inicio
+        despachador.shutdownNow();
+    }
+
+    long calcularEspera(int intentos) {
+        int exponente = Math.min(Math.max(intentos - 1, 0), 20);
+        return Math.min(backoffMaximo, backoff << exponente);
+    }
+
+    private void programar(Compensacion compensacion, long espera) {
+        try {
+            despachador.schedule(() -> despachar(compensacion), espera, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.warn("Cola de compensaciones detenida, {} queda pendiente en disco", compensacion.getId());
+        }
+    }
+
+    private void despachar(Compensacion compensacion) {
+        try {
+            reverso.accept(compensacion);
+            notificar(compensacion);
+            Files.deleteIfExists(archivo(directorio, compensacion));
+            log.info("{} completado para la transacción {}", compensacion.getOperacion().getDescripcion(),
+                    compensacion.getCodigoUnico());
+        } catch (Exception e) {
+            compensacion.setIntentos(compensacion.getIntentos() + 1);
+            compensacion.setUltimoError(e.getMessage());
+            try {
+                if (compensacion.getIntentos() >= maxIntentos) {
+                    escribir(fallidas, compensacion);
+                    Files.deleteIfExists(archivo(directorio, compensacion));
+                    log.error("Reverso de la transacción {} fallido tras {} intentos, requiere revisión manual: {}",
+                            compensacion.getCodigoUnico(), compensacion.getIntentos(), e.getMessage());
+                } else {
+                    escribir(directorio, compensacion);
+                    long espera = calcularEspera(compensacion.getIntentos());
+                    log.warn("Reverso de la transacción {} fallido (intento {}), se reintenta en {} ms: {}",
+                            compensacion.getCodigoUnico(), compensacion.getIntentos(), espera, e.getMessage());
+                    programar(compensacion, espera);
+                }
+            } catch (IOException | UncheckedIOException io) {
+                log.error("No se pudo actualizar la compensación {}: {}", compensacion.getId(), io.getMessage());
+                programar(compensacion, calcularEspera(compensacion.getIntentos()));
+            }
+        }
+    }
+
+    /**
+     * El oyente se invoca fuera del monitor de la cola, para que pueda tomar sus propios locks mientras
+     * otro hilo lo registra. Una falla del oyente no vuelve a aplicar la compensación.
+     */
+    private void notificar(Compensacion compensacion) {
+        Consumer<Compensacion> actual;
+        synchronized (this) {
+            actual = oyente;
+            if (actual == null) {
+                if (compensacion.getManifiesto() != null) {
+                    completadasSinOyente.add(compensacion);
+                }
+                return;
+            }
+        }
+        try {
+            actual.accept(compensacion);
+        } catch (RuntimeException e) {
+            log.error("No se pudo notificar la compensación completada {}: {}", compensacion.getId(), e.getMessage());
+        }
+    }
+
+    private void escribir(Path destino, Compensacion compensacion) {
+        Path archivo = archivo(destino, compensacion);
+        Path temporal = destino.resolve(compensacion.getId() + ".tmp");
+        try {
+            byte[] contenido = objectMapper.writeValueAsBytes(protegida(compensacion));
+            Set<StandardOpenOption> opciones = Set.of(StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            FileAttribute<?>[] atributos = posix
+                    ? new FileAttribute<?>[] { PosixFilePermissions.asFileAttribute(PERMISOS_ARCHIVO) }
+                    : new FileAttribute<?>[0];
+            try (FileChannel canal = FileChannel.open(temporal, opciones, atributos)) {
+                ByteBuffer buffer = ByteBuffer.wrap(contenido);
+                while (buffer.hasRemaining()) {
+                    canal.write(buffer);
+                }
+                canal.force(true);
+            }
+            Files.move(temporal, archivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo registrar la compensación " + compensacion.getId(), e);
+        }
+    }
+
+    /**
+     * Copia de la compensación con el número de tarjeta cifrado; la original sigue en memoria en claro
+     * para el reverso.
+     */
+    private Compensacion protegida(Compensacion compensacion) {
+        ReversoRequestDTO reverso = compensacion.getReverso();
+        if (cifradorPan == null || reverso == null) {
+            return compensacion;
+        }
+        return compensacion.toBuilder()
+                .reverso(reverso.toBuilder().numeroTarjeta(cifradorPan.cifrar(reverso.getNumeroTarjeta())).build())
+                .build();
+    }
+
+    private List<Compensacion> listar(Path origen) {
+        List<Path> archivos;
+        try (Stream<Path> listado = Files.list(origen)) {
+            archivos = listado
+                    .filter(archivo -> archivo.getFileName().toString().endsWith(EXTENSION))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el directorio de compensaciones " + origen, e);
+        }
+        List<Compensacion> compensaciones = new ArrayList<>();
+        for (Path archivo : archivos) {
+            try {
+                compensaciones.add(leer(archivo));
+            } catch (RuntimeException e) {
+                apartar(origen, archivo, e);
+            }
+        }
+        return compensaciones;
+    }
+
+    /**
+     * Un archivo ilegible o que no se puede descifrar (JSON truncado, clave rotada) no debe impedir el
+     * inicio ni ocultar las demás compensaciones: se mueve a {@code fallidas} para revisión manual.
+     */
+    private void apartar(Path origen, Path archivo, RuntimeException error) {
+        if (!Files.exists(archivo)) {
+            // Se completó y borró mientras se listaba
+            return;
+        }
+        if (origen.equals(fallidas)) {
+            log.error("Compensación fallida ilegible {}: {}", archivo, error.getMessage());
+            return;
+        }
+        log.error("Compensación ilegible {}, se mueve a fallidas para revisión manual: {}", archivo,
+                error.getMessage());
+        try {
+            Files.move(archivo, fallidas.resolve(archivo.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.error("No se pudo mover la compensación ilegible {}: {}", archivo, e.getMessage());
+        }
+    }
+
+    private Compensacion leer(Path archivo) {
+        try {
+            Compensacion compensacion = objectMapper.readValue(archivo.toFile(), Compensacion.class);
+            ReversoRequestDTO reverso = compensacion.getReverso();
+            if (reverso != null && CifradorPan.esCifrado(reverso.getNumeroTarjeta())) {
+                if (cifradorPan == null) {
+                    throw new IllegalStateException("La compensación " + archivo
+                            + " tiene el número de tarjeta cifrado y no hay clave configurada");
+                }
+                reverso.setNumeroTarjeta(cifradorPan.descifrar(reverso.getNumeroTarjeta()));
+            }
+            return compensacion;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Compensación ilegible: " + archivo, e);
+        }
+    }
+
+    private Path archivo(Path destino, Compensacion compensacion) {
+        return destino.resolve(compensacion.getId() + EXTENSION);
+    }
+}
@@ -0,0 +1,40 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.ComercioRequestDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.RetencionRequestDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.ReversoRequestDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Operación pendiente en el core posterior a la respuesta: el reverso de un débito, la confirmación o
+ * anulación de un crédito retenido, o la liquidación de créditos diferidos a un comercio. Según la
+ * operación se usa {@code reverso}, {@code retencion} o {@code credito}; una liquidación lleva además
+ * en {@code manifiesto} los {@code codigoUnico} de las transacciones que incluye, y un reverso en
+ * {@code emisor} el core que aplicó el débito. Se persiste tal cual
+ * en la cola de compensaciones, por lo que debe poder serializarse a JSON.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class Compensacion {
+
+    private String id;
+    private String codigoUnico;
+    private OperacionCore operacion;
+    private ReversoRequestDTO reverso;
+    private DestinoEmisor emisor;
+    private RetencionRequestDTO retencion;
+    private ComercioRequestDTO credito;
+    private List<String> manifiesto;
+    private int intentos;
+    private String ultimoError;
+    private LocalDateTime fechaRegistro;
+}
@@ -0,0 +1,34 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import java.net.URI;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.config.OpcionesLlamada;
+
+import feign.Request;
+
+/**
+ * Core al que se envió un débito, guardado con su reverso para que este vaya al mismo core aunque la
+ * tabla de BIN cambie antes de ejecutarlo. Sin {@code core} el débito fue al core por defecto; los
+ * timeouts solo se guardan si el emisor los fija, si no se usan los ajustes vigentes.
+ */
+public record DestinoEmisor(String nombre, URI core, Integer timeoutConexion, Integer timeoutLectura) {
+
+    public static final DestinoEmisor PREDETERMINADO = new DestinoEmisor(null, null, null, null);
+
+    public static DestinoEmisor de(PerfilEmisor emisor) {
+        if (emisor == null) {
+            return PREDETERMINADO;
+        }
+        return emisor.opciones() instanceof OpcionesLlamada propias
+                ? new DestinoEmisor(emisor.nombre(), emisor.core(), propias.getTimeoutConexion(),
+                        propias.getTimeoutLectura())
+                : new DestinoEmisor(emisor.nombre(), emisor.core(), null, null);
+    }
+
+    public Request.Options opciones() {
+        // Unas opciones que no son OpcionesLlamada se reemplazan por los ajustes vigentes del core
+        return timeoutConexion != null || timeoutLectura != null
+                ? new OpcionesLlamada(timeoutConexion, timeoutLectura)
+                : new Request.Options();
+    }
+}
@@ -0,0 +1,299 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Diario de escritura anticipada con los cambios de estado de cada transacción. Los registros se
+ * escriben en un segmento mapeado en memoria, por lo que sobreviven a la caída del proceso en cuanto
+ * se copian; un hilo sincroniza el segmento con el disco cada {@code intervaloSincronizacion} ms
+ * agrupando todas las escrituras de ese intervalo.
+ *
+ * <p>Al llenarse un segmento se abre uno nuevo, se copian en él las transacciones que siguen en curso
+ * y se eliminan los anteriores, así el diario nunca ocupa más de un segmento. Al iniciar se leen los
+ * segmentos existentes y se informan las transacciones que quedaron a medias.
+ *
+ * <p>Formato de cada registro: longitud (int), CRC32C (int), fecha en ms (long), estado (byte),
+ * longitud del código (short) y el código en UTF-8. La longitud se escribe al final, de modo que un
+ * registro incompleto se lee como fin del segmento.
+ */
+public class DiarioTransacciones implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DiarioTransacciones.class);
+
+    private static final String PREFIJO = "diario-";
+    private static final String EXTENSION = ".log";
+    private static final int CABECERA = Integer.BYTES + Integer.BYTES + Long.BYTES + Byte.BYTES + Short.BYTES;
+
+    private final Path directorio;
+    private final int tamanoSegmento;
+    private final long intervaloSincronizacion;
+    private final Duration retencion;
+    private final ReentrantLock escritura = new ReentrantLock();
+    private final Map<String, Entrada> enCurso = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService sincronizador;
+    private Path archivoActual;
+    private volatile MappedByteBuffer segmento;
+    private volatile boolean pendienteSincronizar;
+    private long secuencia;
+
+    public DiarioTransacciones(Path directorio, int tamanoSegmento, long intervaloSincronizacion, Duration retencion) {
+        this.directorio = directorio;
+        this.tamanoSegmento = tamanoSegmento;
+        this.intervaloSincronizacion = intervaloSincronizacion;
+        this.retencion = retencion;
+    }
+
+    /**
+     * Reproduce los segmentos existentes, abre un segmento nuevo y arranca la sincronización periódica.
+     *
+     * @return transacciones que quedaron sin estado final antes del reinicio
+     */
+    public Collection<Entrada> iniciar() {
+        try {
+            Files.createDirectories(directorio);
+            List<Path> anteriores = listarSegmentos();
+            Map<String, Entrada> ultimos = new LinkedHashMap<>();
+            for (Path archivo : anteriores) {
+                leerSegmento(archivo, ultimos);
+            }
+            ultimos.values().removeIf(entrada -> entrada.estado().esFinal());
+            enCurso.putAll(ultimos);
+
+            secuencia = anteriores.isEmpty() ? 0 : numeroSegmento(anteriores.get(anteriores.size() - 1)) + 1;
+            escritura.lock();
+            try {
+                abrirSegmento();
+            } finally {
+                escritura.unlock();
+            }
+
+            List<Entrada> recuperadas = List.copyOf(enCurso.values());
+            recuperadas.forEach(entrada -> log.warn("Transacción {} quedó en estado {} desde {}",
+                    entrada.codigoUnico(), entrada.estado(), Instant.ofEpochMilli(entrada.fecha())));
+            if (!recuperadas.isEmpty()) {
+                log.warn("El diario registra {} transacciones sin estado final", recuperadas.size());
+            }
+
+            sincronizador = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                    .name("diario-transacciones")
+                    .daemon(true)
+                    .factory());
+            sincronizador.scheduleWithFixedDelay(this::sincronizar, intervaloSincronizacion, intervaloSincronizacion,
+                    TimeUnit.MILLISECONDS);
+            return recuperadas;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo iniciar el diario de transacciones en " + directorio, e);
+        }
+    }
+
+    /**
+     * Registra un cambio de estado. No espera la sincronización con el disco.
+     */
+    public void registrar(String codigoUnico, EstadoDiario estado) {
+        if (codigoUnico == null) {
+            return;
+        }
+        byte[] codigo = codigoUnico.getBytes(StandardCharsets.UTF_8);
+        if (codigo.length > Short.MAX_VALUE || CABECERA + codigo.length > tamanoSegmento) {
+            log.warn("Código único demasiado largo para el diario: {}", codigoUnico);
+            return;
+        }
+        Entrada entrada = new Entrada(codigoUnico, estado, System.currentTimeMillis());
+
+        escritura.lock();
+        try {
+            if (segmento == null) {
+                log.warn("Diario cerrado, no se registra {} para {}", estado, codigoUnico);
+                return;
+            }
+            if (segmento.remaining() < CABECERA + codigo.length) {
+                rotar();
+            }
+            escribir(entrada, codigo);
+            if (estado.esFinal()) {
+                enCurso.remove(codigoUnico);
+            } else {
+                enCurso.put(codigoUnico, entrada);
+            }
+        } catch (IOException | RuntimeException e) {
+            // El diario no debe interrumpir el procesamiento de la transacción
+            log.error("No se pudo registrar {} para {} en el diario: {}", estado, codigoUnico, e.getMessage());
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    /**
+     * Transacciones que aún no tienen estado final, incluidas las recuperadas al iniciar.
+     */
+    public Collection<Entrada> enCurso() {
+        return List.copyOf(enCurso.values());
+    }
+
+    public void sincronizar() {
+        MappedByteBuffer actual = segmento;
+        if (actual != null && pendienteSincronizar) {
+            pendienteSincronizar = false;
+            actual.force();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (sincronizador != null) {
+            sincronizador.shutdownNow();
+        }
+        escritura.lock();
+        try {
+            if (segmento != null) {
+                segmento.force();
+                segmento = null;
+            }
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    private void escribir(Entrada entrada, byte[] codigo) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer datos = ByteBuffer.allocate(Long.BYTES + Byte.BYTES + Short.BYTES + codigo.length)
+                .putLong(entrada.fecha())
+                .put(entrada.estado().getCodigo())
+                .putShort((short) codigo.length)
+                .put(codigo)
+                .flip();
+        crc.update(datos.duplicate());
+
+        int inicio = segmento.position();
+        segmento.position(inicio + Integer.BYTES);
+        segmento.putInt((int) crc.getValue());
+        segmento.put(datos);
+        // La longitud al final marca el registro como completo
+        segmento.putInt(inicio, CABECERA + codigo.length);
+        pendienteSincronizar = true;
+    }
+
+    /**
+     * Abre el siguiente segmento, copia en él las transacciones en curso y elimina los anteriores.
+     * Debe llamarse con el bloqueo de escritura tomado.
+     */
+    private void rotar() throws IOException {
+        segmento.force();
+        secuencia++;
+        abrirSegmento();
+    }
+
+    private void abrirSegmento() throws IOException {
+        Path archivo = directorio.resolve(String.format("%s%020d%s", PREFIJO, secuencia, EXTENSION));
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            segmento = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanoSegmento);
+        }
+        archivoActual = archivo;
+
+        long limite = System.currentTimeMillis() - retencion.toMillis();
+        List<Entrada> vigentes = new ArrayList<>();
+        for (Entrada entrada : enCurso.values()) {
+            if (entrada.fecha() < limite) {
+                log.warn("Transacción {} en estado {} supera la retención del diario y se descarta",
+                        entrada.codigoUnico(), entrada.estado());
+                enCurso.remove(entrada.codigoUnico(), entrada);
+            } else {
+                vigentes.add(entrada);
+            }
+        }
+        for (Entrada entrada : vigentes) {
+            byte[] codigo = entrada.codigoUnico().getBytes(StandardCharsets.UTF_8);
+            if (segmento.remaining() < CABECERA + codigo.length) {
+                log.error("El segmento del diario no alcanza para las transacciones en curso");
+                break;
+            }
+            escribir(entrada, codigo);
+        }
+        segmento.force();
+        pendienteSincronizar = false;
+
+        for (Path anterior : listarSegmentos()) {
+            if (!anterior.equals(archivoActual)) {
+                Files.deleteIfExists(anterior);
+            }
+        }
+    }
+
+    private void leerSegmento(Path archivo, Map<String, Entrada> ultimos) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(archivo));
+        while (buffer.remaining() >= CABECERA) {
+            int inicio = buffer.position();
+            int longitud = buffer.getInt();
+            if (longitud == 0) {
+                break;
+            }
+            if (longitud < CABECERA || inicio + longitud > buffer.limit()) {
+                log.warn("Registro inválido en {} posición {}, se ignora el resto del segmento", archivo, inicio);
+                break;
+            }
+            int crcEsperado = buffer.getInt();
+            ByteBuffer datos = buffer.slice(buffer.position(), longitud - 2 * Integer.BYTES);
+            CRC32C crc = new CRC32C();
+            crc.update(datos.duplicate());
+            if ((int) crc.getValue() != crcEsperado) {
+                log.warn("Registro corrupto en {} posición {}, se ignora el resto del segmento", archivo, inicio);
+                break;
+            }
+            long fecha = datos.getLong();
+            EstadoDiario estado = EstadoDiario.deCodigo(datos.get());
+            byte[] codigo = new byte[datos.getShort()];
+            datos.get(codigo);
+            String codigoUnico = new String(codigo, StandardCharsets.UTF_8);
+            ultimos.remove(codigoUnico);
+            ultimos.put(codigoUnico, new Entrada(codigoUnico, estado, fecha));
+            buffer.position(inicio + longitud);
+        }
+    }
+
+    private List<Path> listarSegmentos() throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos
+                    .filter(archivo -> {
+                        String nombre = archivo.getFileName().toString();
+                        return nombre.startsWith(PREFIJO) && nombre.endsWith(EXTENSION);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private long numeroSegmento(Path archivo) {
+        String nombre = archivo.getFileName().toString();
+        return Long.parseLong(nombre.substring(PREFIJO.length(), nombre.length() - EXTENSION.length()));
+    }
+
+    public record Entrada(String codigoUnico, EstadoDiario estado, long fecha) {
+    }
+}
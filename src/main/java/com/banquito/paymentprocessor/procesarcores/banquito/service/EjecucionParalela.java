@@ -0,0 +1,56 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreDTO;
+
+/**
+ * Modo opcional en el que el crédito al comercio se solicita como retención en paralelo con el débito
+ * a tarjeta, de modo que la latencia total es la del core más lento y no la suma de ambos. Aplica a
+ * los comercios confiables (por IBAN) y a las transacciones con monto hasta {@code montoMaximo}.
+ */
+public class EjecucionParalela implements AutoCloseable {
+
+    private final boolean habilitada;
+    private final BigDecimal montoMaximo;
+    private final Set<String> comerciosConfiables;
+    private final ExecutorService executor;
+
+    public EjecucionParalela(boolean habilitada, BigDecimal montoMaximo, Set<String> comerciosConfiables,
+            ExecutorService executor) {
+        this.habilitada = habilitada;
+        this.montoMaximo = montoMaximo;
+        this.comerciosConfiables = comerciosConfiables;
+        this.executor = executor;
+    }
+
+    public static EjecucionParalela deshabilitada() {
+        return new EjecucionParalela(false, null, Set.of(), null);
+    }
+
+    public boolean aplica(TransaccionCoreDTO transaccion) {
+        if (!habilitada) {
+            return false;
+        }
+        if (comerciosConfiables.contains(transaccion.getCuentaIbanComercio())) {
+            return true;
+        }
+        return montoMaximo != null && transaccion.getMonto() != null
+                && transaccion.getMonto().compareTo(montoMaximo) <= 0;
+    }
+
+    public <T> CompletableFuture<T> iniciar(Supplier<T> paso) {
+        return CompletableFuture.supplyAsync(paso, executor);
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.close();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.exception.CoreProcessingException;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Ejecuta las llamadas al core bancario protegidas por un bulkhead de semáforo y un circuit breaker
+ * por operación. Cuando el circuito está abierto o el bulkhead está lleno la llamada falla de
+ * inmediato con un {@link CoreProcessingException} en lugar de esperar el timeout del core.
+ * <p>
+ * Cada llamada se registra como una observación {@code core.bancario.llamada}, que en las trazas es el
+ * span padre de los intentos HTTP de Feign y de los eventos de reintento.
+ */
+@Component
+public class EjecutorCoreBancario {
+
+    public static final String ERROR_CIRCUITO_ABIERTO = "CORE-CIRCUITO-ABIERTO";
+    public static final String ERROR_BULKHEAD_LLENO = "CORE-BULKHEAD-LLENO";
+    public static final String OBSERVACION_LLAMADA = "core.bancario.llamada";
+
+    private static final Logger log = LoggerFactory.getLogger(EjecutorCoreBancario.class);
+
+    private final Map<OperacionCore, CircuitBreaker> circuitBreakers = new EnumMap<>(OperacionCore.class);
+    private final Map<OperacionCore, Bulkhead> bulkheads = new EnumMap<>(OperacionCore.class);
+    private final Map<OperacionCore, Counter> rechazosCircuito = new EnumMap<>(OperacionCore.class);
+    private final Map<OperacionCore, Counter> rechazosBulkhead = new EnumMap<>(OperacionCore.class);
+    private final ObservationRegistry observationRegistry;
+
+    public EjecutorCoreBancario(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry,
+            MeterRegistry meterRegistry, ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+        for (OperacionCore operacion : OperacionCore.values()) {
+            CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(operacion.getInstancia());
+            Bulkhead bulkhead = bulkheadRegistry.bulkhead(operacion.getInstancia());
+
+            rechazosCircuito.put(operacion, Counter.builder("core.resiliencia.rechazos")
+                    .tag("operacion", operacion.name())
+                    .tag("motivo", "circuito-abierto")
+                    .description("Llamadas al core rechazadas sin ser enviadas")
+                    .register(meterRegistry));
+            rechazosBulkhead.put(operacion, Counter.builder("core.resiliencia.rechazos")
+                    .tag("operacion", operacion.name())
+                    .tag("motivo", "bulkhead-lleno")
+                    .description("Llamadas al core rechazadas sin ser enviadas")
+                    .register(meterRegistry));
+
+            if (!circuitBreakers.containsValue(circuitBreaker)) {
+                // Las operaciones que comparten instancia comparten también el circuit breaker
+                circuitBreaker.getEventPublisher()
+                        .onStateTransition(evento -> log.warn("Circuit breaker {}: {}", operacion.getInstancia(),
+                                evento.getStateTransition()));
+            }
+
+            circuitBreakers.put(operacion, circuitBreaker);
+            bulkheads.put(operacion, bulkhead);
+        }
+    }
+
+    public <T> T ejecutar(OperacionCore operacion, Supplier<T> llamada) {
+        Supplier<T> protegida = Bulkhead.decorateSupplier(bulkheads.get(operacion),
+                CircuitBreaker.decorateSupplier(circuitBreakers.get(operacion), llamada));
+        Observation observacion = Observation.createNotStarted(OBSERVACION_LLAMADA, observationRegistry)
+                .contextualName("core " + operacion.getInstancia())
+                .lowCardinalityKeyValue("operacion", operacion.name());
+        try {
+            return observacion.observe(protegida);
+        } catch (CallNotPermittedException e) {
+            rechazosCircuito.get(operacion).increment();
+            throw new CoreProcessingException("Circuito abierto para el " + operacion.getDescripcion()
+                    + ", el core no está disponible", ERROR_CIRCUITO_ABIERTO);
+        } catch (BulkheadFullException e) {
+            rechazosBulkhead.get(operacion).increment();
+            throw new CoreProcessingException("Máximo de llamadas concurrentes alcanzado para el "
+                    + operacion.getDescripcion(), ERROR_BULKHEAD_LLENO);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+/**
+ * Estados de una transacción registrados en el {@link DiarioTransacciones}. El código se persiste
+ * en disco, por lo que no debe cambiar aunque se reordenen los valores.
+ */
+public enum EstadoDiario {
+
+    RECIBIDA((byte) 1, false),
+    DEBITADA((byte) 2, false),
+    ACREDITADA((byte) 3, true),
+    RECHAZADA((byte) 4, true),
+    CREDITO_DIFERIDO((byte) 5, false);
+
+    private final byte codigo;
+    private final boolean fin;
+
+    EstadoDiario(byte codigo, boolean fin) {
+        this.codigo = codigo;
+        this.fin = fin;
+    }
+
+    public byte getCodigo() {
+        return codigo;
+    }
+
+    public boolean esFinal() {
+        return fin;
+    }
+
+    public static EstadoDiario deCodigo(byte codigo) {
+        for (EstadoDiario estado : values()) {
+            if (estado.codigo == codigo) {
+                return estado;
+            }
+        }
+        throw new IllegalArgumentException("Estado de diario desconocido: " + codigo);
+    }
+}
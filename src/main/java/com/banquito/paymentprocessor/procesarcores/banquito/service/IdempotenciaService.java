@@ -0,0 +1,129 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreResponseDTO;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Evita procesar dos veces una transacción reenviada con el mismo {@code codigoUnico}. Si ya existe un
+ * resultado final se devuelve sin llamar al core; si el primer intento aún está en curso el duplicado
+ * espera y recibe ese mismo resultado.
+ */
+@Service
+@RequiredArgsConstructor
+public class IdempotenciaService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotenciaService.class);
+
+    private final AlmacenIdempotencia almacenIdempotencia;
+
+    private final ConcurrentHashMap<String, CompletableFuture<TransaccionCoreResponseDTO>> enCurso =
+            new ConcurrentHashMap<>();
+
+    public TransaccionCoreResponseDTO ejecutar(String codigoUnico, Supplier<TransaccionCoreResponseDTO> proceso) {
+        if (codigoUnico == null) {
+            return proceso.get();
+        }
+
+        Optional<TransaccionCoreResponseDTO> previo = almacenIdempotencia.obtener(codigoUnico);
+        if (previo.isPresent()) {
+            log.info("Transacción duplicada {}, se devuelve el resultado registrado", codigoUnico);
+            return previo.get();
+        }
+
+        CompletableFuture<TransaccionCoreResponseDTO> intento = new CompletableFuture<>();
+        CompletableFuture<TransaccionCoreResponseDTO> existente = enCurso.putIfAbsent(codigoUnico, intento);
+        if (existente != null) {
+            log.info("Transacción duplicada {} en curso, se espera el resultado del primer intento", codigoUnico);
+            return esperar(existente);
+        }
+
+        try {
+            // Otro intento pudo terminar entre la consulta al almacén y el registro en curso
+            TransaccionCoreResponseDTO resultado = almacenIdempotencia.obtener(codigoUnico).orElseGet(proceso);
+            registrar(codigoUnico, resultado);
+            intento.complete(resultado);
+            return resultado;
+        } catch (RuntimeException e) {
+            intento.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(codigoUnico, intento);
+        }
+    }
+
+    public Mono<TransaccionCoreResponseDTO> ejecutarReactivo(String codigoUnico,
+            Supplier<Mono<TransaccionCoreResponseDTO>> proceso) {
+        if (codigoUnico == null) {
+            return Mono.defer(proceso);
+        }
+
+        return Mono.defer(() -> {
+            Optional<TransaccionCoreResponseDTO> previo = almacenIdempotencia.obtener(codigoUnico);
+            if (previo.isPresent()) {
+                log.info("Transacción duplicada {}, se devuelve el resultado registrado", codigoUnico);
+                return Mono.just(previo.get());
+            }
+
+            CompletableFuture<TransaccionCoreResponseDTO> intento = new CompletableFuture<>();
+            CompletableFuture<TransaccionCoreResponseDTO> existente = enCurso.putIfAbsent(codigoUnico, intento);
+            if (existente != null) {
+                log.info("Transacción duplicada {} en curso, se espera el resultado del primer intento", codigoUnico);
+                return Mono.fromFuture(existente, true);
+            }
+
+            return proceso.get()
+                    .doOnNext(resultado -> {
+                        registrar(codigoUnico, resultado);
+                        intento.complete(resultado);
+                    })
+                    .doOnError(intento::completeExceptionally)
+                    .doOnCancel(() -> intento.completeExceptionally(
+                            new CancellationException("Intento cancelado: " + codigoUnico)))
+                    .doFinally(senal -> enCurso.remove(codigoUnico, intento));
+        });
+    }
+
+    private void registrar(String codigoUnico, TransaccionCoreResponseDTO resultado) {
+        if (esFinal(resultado)) {
+            almacenIdempotencia.guardar(codigoUnico, resultado);
+        }
+    }
+
+    /**
+     * Los rechazos por circuito abierto, bulkhead lleno o plazo vencido no llegaron al core en el paso
+     * que falló. Solo si ningún paso anterior se aplicó la transacción queda sin efecto y el cliente
+     * puede reintentarla; si el débito ya se aplicó, su reverso está pendiente y un reintento con el
+     * mismo código lo volvería a debitar, así que el rechazo es final.
+     */
+    private boolean esFinal(TransaccionCoreResponseDTO resultado) {
+        String codigo = resultado.getCodigoRespuesta();
+        boolean sinLlegarAlCore = EjecutorCoreBancario.ERROR_CIRCUITO_ABIERTO.equals(codigo)
+                || EjecutorCoreBancario.ERROR_BULKHEAD_LLENO.equals(codigo)
+                || Plazo.ERROR_PLAZO_VENCIDO.equals(codigo);
+        return !sinLlegarAlCore || resultado.isPasosAplicados();
+    }
+
+    private TransaccionCoreResponseDTO esperar(CompletableFuture<TransaccionCoreResponseDTO> intento) {
+        try {
+            return intento.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Límite adaptativo de transacciones en curso hacia el core, con el algoritmo de gradiente. Cada
+ * latencia de una llamada al core se compara con su promedio de largo plazo: mientras se mantiene
+ * igual el límite crece, y cuando sube porque el core empieza a encolar el límite baja en la misma
+ * proporción. Una llamada que falla por timeout o error del servidor reduce el límite de inmediato.
+ * <p>
+ * El {@link PlanificadorGateways} reparte los lugares entre los gateways; las transacciones que no
+ * obtienen lugar esperan en colas acotadas en vez de acumularse sin límite mientras el core responde
+ * cada vez más lento.
+ */
+public class LimitadorConcurrencia {
+
+    private static final double SUAVIZADO = 0.2;
+    private static final double PESO_RTT_LARGO = 0.01;
+    private static final double GRADIENTE_MINIMO = 0.5;
+    private static final double FACTOR_SOBRECARGA = 0.9;
+
+    private final boolean habilitado;
+    private final int limiteMinimo;
+    private final int limiteMaximo;
+    private final AtomicInteger enCurso = new AtomicInteger();
+
+    private volatile int limite;
+    private double limiteEstimado;
+    private double rttLargo;
+
+    public LimitadorConcurrencia(boolean habilitado, int limiteInicial, int limiteMinimo, int limiteMaximo,
+            MeterRegistry meterRegistry) {
+        this.habilitado = habilitado;
+        this.limiteMinimo = limiteMinimo;
+        this.limiteMaximo = limiteMaximo;
+        this.limiteEstimado = limiteInicial;
+        this.limite = limiteInicial;
+
+        Gauge.builder("core.concurrencia.limite", this, LimitadorConcurrencia::getLimite)
+                .description("Transacciones que pueden estar en curso hacia el core")
+                .register(meterRegistry);
+        Gauge.builder("core.concurrencia.en.curso", enCurso, AtomicInteger::get)
+                .description("Transacciones en curso hacia el core")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserva un lugar para una transacción. Cada reserva exitosa debe liberarse con {@link #liberar()}.
+     *
+     * @return false si no queda lugar dentro del límite actual
+     */
+    public boolean adquirir() {
+        while (true) {
+            int actual = enCurso.get();
+            if (habilitado && actual >= limite) {
+                return false;
+            }
+            if (enCurso.compareAndSet(actual, actual + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void liberar() {
+        enCurso.decrementAndGet();
+    }
+
+    /**
+     * Registra la latencia de una llamada al core que recibió respuesta.
+     */
+    public synchronized void registrarLatencia(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        rttLargo = rttLargo == 0 ? nanos : rttLargo * (1 - PESO_RTT_LARGO) + nanos * PESO_RTT_LARGO;
+        if (rttLargo > 2d * nanos) {
+            // La carga bajó: el promedio largo se acerca más rápido a la latencia actual
+            rttLargo *= 0.95;
+        }
+
+        // Con pocas transacciones en curso la latencia no dice nada sobre la capacidad del core
+        if (enCurso.get() < limiteEstimado / 2) {
+            return;
+        }
+
+        double gradiente = Math.max(GRADIENTE_MINIMO, Math.min(1d, rttLargo / nanos));
+        double nuevo = limiteEstimado * gradiente + Math.sqrt(limiteEstimado);
+        actualizar(limiteEstimado * (1 - SUAVIZADO) + nuevo * SUAVIZADO);
+    }
+
+    /**
+     * Registra una llamada al core que terminó en timeout o error del servidor.
+     */
+    public synchronized void registrarSobrecarga() {
+        actualizar(limiteEstimado * FACTOR_SOBRECARGA);
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    public int getEnCurso() {
+        return enCurso.get();
+    }
+
+    private void actualizar(double estimado) {
+        limiteEstimado = Math.max(limiteMinimo, Math.min(limiteMaximo, estimado));
+        limite = (int) limiteEstimado;
+    }
+}
@@ -0,0 +1,131 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreResponseDTO;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+/**
+ * Métricas de cada etapa de {@link ProcesarCoreService}. Las etiquetas solo toman valores acotados
+ * (etapa, modo, estado y código de error); nunca se etiqueta por {@code codigoUnico}.
+ * <p>
+ * Los timers de etapa se registran al construir el componente para que medir una etapa no asigne
+ * memoria; la misma medición alimenta el {@link ResumenTransaccion} que se publica al finalizar.
+ */
+@Component
+public class MetricasTransaccion {
+
+    /**
+     * {@code RESPUESTA} mide la revisión de la respuesta del core en cada paso; la validación de la
+     * solicitud ocurre en el controlador, antes de llegar al servicio.
+     */
+    public enum Etapa {
+        RESPUESTA, DEBITO, CREDITO;
+
+        String etiqueta() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final String SIN_CODIGO = "SIN-CODIGO";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Etapa, Timer> etapasExitosas = new EnumMap<>(Etapa.class);
+    private final Map<Etapa, Timer> etapasFallidas = new EnumMap<>(Etapa.class);
+    private final Map<String, Timer> aprobadas = new ConcurrentHashMap<>();
+    private final Map<String, Timer> rechazadas = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rechazos = new ConcurrentHashMap<>();
+
+    public MetricasTransaccion(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (Etapa etapa : Etapa.values()) {
+            etapasExitosas.put(etapa, timerEtapa(etapa, "exito"));
+            etapasFallidas.put(etapa, timerEtapa(etapa, "error"));
+        }
+    }
+
+    public ResumenTransaccion iniciar(String codigoUnico, String modo) {
+        return new ResumenTransaccion(codigoUnico, modo);
+    }
+
+    public <T> T medir(ResumenTransaccion resumen, Etapa etapa, Supplier<T> paso) {
+        long inicio = System.nanoTime();
+        boolean exito = false;
+        try {
+            T resultado = paso.get();
+            exito = true;
+            return resultado;
+        } finally {
+            registrar(resumen, etapa, exito, System.nanoTime() - inicio);
+        }
+    }
+
+    public void medir(ResumenTransaccion resumen, Etapa etapa, Runnable paso) {
+        medir(resumen, etapa, () -> {
+            paso.run();
+            return null;
+        });
+    }
+
+    public <T> Mono<T> medir(ResumenTransaccion resumen, Etapa etapa, Mono<T> paso) {
+        return Mono.defer(() -> {
+            long inicio = System.nanoTime();
+            return paso
+                    .doOnSuccess(resultado -> registrar(resumen, etapa, true, System.nanoTime() - inicio))
+                    .doOnError(e -> registrar(resumen, etapa, false, System.nanoTime() - inicio));
+        });
+    }
+
+    /**
+     * Registra la duración total de la transacción, el código del rechazo si lo hubo y publica el
+     * resumen de la transacción.
+     */
+    public void finalizar(ResumenTransaccion resumen, TransaccionCoreResponseDTO resultado) {
+        boolean aprobada = "APROBADO".equals(resultado.getEstado());
+        String estado = aprobada ? "APROBADO" : "RECHAZADO";
+        long total = resumen.publicar(estado, resultado);
+        timerTransaccion(resumen.getModo(), aprobada).record(total, TimeUnit.NANOSECONDS);
+
+        if (!aprobada) {
+            String codigo = resultado.getCodigoRespuesta() != null ? resultado.getCodigoRespuesta() : SIN_CODIGO;
+            rechazos.computeIfAbsent(codigo, clave -> Counter.builder("core.transaccion.rechazos")
+                    .description("Transacciones rechazadas por código de error")
+                    .tag("codigo", clave)
+                    .register(meterRegistry))
+                    .increment();
+        }
+    }
+
+    private void registrar(ResumenTransaccion resumen, Etapa etapa, boolean exito, long nanos) {
+        (exito ? etapasExitosas : etapasFallidas).get(etapa).record(nanos, TimeUnit.NANOSECONDS);
+        resumen.registrar(etapa, nanos);
+    }
+
+    private Timer timerTransaccion(String modo, boolean aprobada) {
+        Map<String, Timer> timers = aprobada ? aprobadas : rechazadas;
+        return timers.computeIfAbsent(modo, clave -> Timer.builder("core.transaccion")
+                .description("Duración total del procesamiento de una transacción")
+                .tag("modo", modo)
+                .tag("estado", aprobada ? "APROBADO" : "RECHAZADO")
+                .register(meterRegistry));
+    }
+
+    private Timer timerEtapa(Etapa etapa, String resultado) {
+        return Timer.builder("core.transaccion.etapa")
+                .description("Duración de cada etapa del procesamiento de una transacción")
+                .tag("etapa", etapa.etiqueta())
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+}
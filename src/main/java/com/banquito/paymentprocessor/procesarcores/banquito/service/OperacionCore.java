@@ -0,0 +1,33 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+/**
+ * Operaciones que se invocan en el core bancario. Cada instancia tiene su propio circuit breaker y
+ * bulkhead para que la lentitud de un core no afecte las llamadas al otro; las operaciones que van al
+ * mismo core comparten instancia.
+ */
+public enum OperacionCore {
+
+    TARJETA("coreTarjeta", "débito a tarjeta"),
+    COMERCIO("coreComercio", "crédito a cuenta de comercio"),
+    REVERSO_TARJETA("coreReverso", "reverso de débito a tarjeta"),
+    RETENCION_COMERCIO("coreComercio", "retención de crédito a cuenta de comercio"),
+    CONFIRMACION_RETENCION("coreRetencion", "confirmación de crédito retenido"),
+    ANULACION_RETENCION("coreRetencion", "anulación de crédito retenido"),
+    CREDITO_AGREGADO("coreComercio", "liquidación de créditos a cuenta de comercio");
+
+    private final String instancia;
+    private final String descripcion;
+
+    OperacionCore(String instancia, String descripcion) {
+        this.instancia = instancia;
+        this.descripcion = descripcion;
+    }
+
+    public String getInstancia() {
+        return instancia;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+}
@@ -0,0 +1,12 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import java.net.URI;
+
+import feign.Request;
+
+/**
+ * Emisor de tarjetas al que se enruta un rango de BIN: su código SWIFT, la URL base de su core y los
+ * timeouts con que se le llama.
+ */
+public record PerfilEmisor(String nombre, String swift, URI core, Request.Options opciones) {
+}
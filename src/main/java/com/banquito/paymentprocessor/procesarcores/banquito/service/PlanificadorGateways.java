@@ -0,0 +1,248 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.exception.CarrilLlenoException;
+import com.banquito.paymentprocessor.procesarcores.banquito.exception.CoreProcessingException;
+import com.banquito.paymentprocessor.procesarcores.banquito.exception.LimiteConcurrenciaException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Reparte entre los gateways ({@code codigoGtw}) los lugares que concede el
+ * {@link LimitadorConcurrencia}. Mientras hay lugar las transacciones pasan directo; cuando se agota,
+ * esperan en una cola por gateway y cada lugar que se libera se asigna con deficit round robin según
+ * el peso del gateway, de modo que un gateway con un pico solo alarga su propia cola.
+ * <p>
+ * Solo los gateways configurados en los pesos tienen carril propio; los demás comparten el carril
+ * {@value #CARRIL_OTROS}, así que un {@code codigoGtw} arbitrario no crea colas ni métricas nuevas.
+ * Las transacciones de los tipos prioritarios (por ejemplo devoluciones) tienen un carril propio que
+ * se atiende antes que los gateways. Una cola llena rechaza solo a su gateway; si se llena la espera
+ * total se rechaza cualquier transacción nueva. Una transacción cuyo plazo vence esperando turno sale
+ * de la cola sin llegar al core.
+ */
+public class PlanificadorGateways {
+
+    public static final String CARRIL_PRIORITARIO = "prioritario";
+
+    public static final String CARRIL_OTROS = "otros";
+
+    private final LimitadorConcurrencia limitadorConcurrencia;
+    private final Set<String> tiposPrioritarios;
+    private final int capacidadCarril;
+    private final int capacidadTotal;
+    private final MeterRegistry meterRegistry;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Carril> carriles = new HashMap<>();
+    private final ArrayDeque<Carril> activos = new ArrayDeque<>();
+    private final Carril prioritario;
+    private final Carril otros;
+    private final Counter rechazosTotal;
+    private final Counter rechazosPlazo;
+    private int enEspera;
+
+    public PlanificadorGateways(LimitadorConcurrencia limitadorConcurrencia, Map<String, Integer> pesos,
+            Set<String> tiposPrioritarios, int capacidadCarril, int capacidadTotal, MeterRegistry meterRegistry) {
+        this.limitadorConcurrencia = limitadorConcurrencia;
+        this.tiposPrioritarios = tiposPrioritarios;
+        this.capacidadCarril = capacidadCarril;
+        this.capacidadTotal = capacidadTotal;
+        this.meterRegistry = meterRegistry;
+        this.prioritario = new Carril(CARRIL_PRIORITARIO, 1);
+        this.otros = new Carril(CARRIL_OTROS, 1);
+        pesos.forEach((gateway, peso) -> carriles.put(gateway, new Carril(gateway, peso)));
+        this.rechazosTotal = Counter.builder("core.planificador.rechazos")
+                .tag("carril", "todos")
+                .tag("motivo", "espera-llena")
+                .description("Transacciones rechazadas sin llegar al core")
+                .register(meterRegistry);
+        this.rechazosPlazo = Counter.builder("core.planificador.rechazos")
+                .tag("carril", "todos")
+                .tag("motivo", "plazo-vencido")
+                .description("Transacciones rechazadas sin llegar al core")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta el proceso cuando la transacción obtiene un lugar, esperando su turno como máximo lo que
+     * queda del plazo.
+     *
+     * @throws CarrilLlenoException si la cola del gateway de la transacción está llena
+     * @throws LimiteConcurrenciaException si la espera total alcanzó su capacidad
+     * @throws CoreProcessingException con {@link Plazo#ERROR_PLAZO_VENCIDO} si el plazo vence esperando turno
+     */
+    public <T> T ejecutar(TransaccionCoreDTO transaccion, Plazo plazo, Supplier<T> proceso) {
+        Carril carril = carril(transaccion);
+        Pendiente pendiente = encolar(carril);
+        if (pendiente != null) {
+            esperar(carril, pendiente, plazo);
+        }
+        try {
+            return proceso.get();
+        } finally {
+            limitadorConcurrencia.liberar();
+            despachar();
+        }
+    }
+
+    /**
+     * @return null si la transacción obtuvo lugar de inmediato
+     */
+    private Pendiente encolar(Carril carril) {
+        lock.lock();
+        try {
+            if (enEspera == 0 && limitadorConcurrencia.adquirir()) {
+                carril.espera.record(0, TimeUnit.NANOSECONDS);
+                return null;
+            }
+            if (carril.pendientes.size() >= capacidadCarril) {
+                carril.rechazos.increment();
+                throw new CarrilLlenoException(carril.nombre, capacidadCarril);
+            }
+            if (enEspera >= capacidadTotal) {
+                rechazosTotal.increment();
+                throw new LimiteConcurrenciaException(capacidadTotal);
+            }
+            Pendiente pendiente = new Pendiente(System.nanoTime());
+            if (carril.pendientes.isEmpty() && carril != prioritario) {
+                activos.addLast(carril);
+            }
+            carril.pendientes.addLast(pendiente);
+            carril.profundidad = carril.pendientes.size();
+            enEspera++;
+            return pendiente;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void esperar(Carril carril, Pendiente pendiente, Plazo plazo) {
+        try {
+            pendiente.turno.get(plazo.restanteMs(), TimeUnit.MILLISECONDS);
+            return;
+        } catch (TimeoutException | ExecutionException e) {
+            // El turno solo se completa sin excepción; se retira de la cola abajo
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            if (pendiente.turno.isDone()) {
+                // El lugar se concedió al mismo tiempo que vencía la espera
+                return;
+            }
+            carril.pendientes.remove(pendiente);
+            carril.profundidad = carril.pendientes.size();
+            enEspera--;
+            if (carril.pendientes.isEmpty() && carril != prioritario) {
+                activos.remove(carril);
+                carril.deficit = 0;
+            }
+            rechazosPlazo.increment();
+        } finally {
+            lock.unlock();
+        }
+        throw new CoreProcessingException("Plazo de la transacción vencido esperando turno hacia el core",
+                Plazo.ERROR_PLAZO_VENCIDO);
+    }
+
+    private void despachar() {
+        lock.lock();
+        try {
+            while (enEspera > 0 && limitadorConcurrencia.adquirir()) {
+                Carril carril = siguiente();
+                Pendiente pendiente = carril.pendientes.pollFirst();
+                carril.profundidad = carril.pendientes.size();
+                enEspera--;
+                carril.espera.record(System.nanoTime() - pendiente.encolada, TimeUnit.NANOSECONDS);
+                pendiente.turno.complete(null);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deficit round robin: el carril al frente recibe su peso en créditos al llegar su turno y cede el
+     * frente cuando los agota o se vacía. Debe invocarse con el lock tomado y al menos un pendiente.
+     */
+    private Carril siguiente() {
+        if (!prioritario.pendientes.isEmpty()) {
+            return prioritario;
+        }
+        Carril carril = activos.pollFirst();
+        if (carril.deficit < 1) {
+            carril.deficit += carril.peso;
+        }
+        carril.deficit--;
+        if (carril.pendientes.size() == 1) {
+            carril.deficit = 0;
+        } else if (carril.deficit >= 1) {
+            activos.addFirst(carril);
+        } else {
+            activos.addLast(carril);
+        }
+        return carril;
+    }
+
+    private Carril carril(TransaccionCoreDTO transaccion) {
+        if (transaccion.getTipo() != null && tiposPrioritarios.contains(transaccion.getTipo())) {
+            return prioritario;
+        }
+        Carril carril = transaccion.getCodigoGtw() != null ? carriles.get(transaccion.getCodigoGtw()) : null;
+        return carril != null ? carril : otros;
+    }
+
+    private static final class Pendiente {
+
+        private final long encolada;
+        private final CompletableFuture<Void> turno = new CompletableFuture<>();
+
+        private Pendiente(long encolada) {
+            this.encolada = encolada;
+        }
+    }
+
+    private final class Carril {
+
+        private final String nombre;
+        private final int peso;
+        private final ArrayDeque<Pendiente> pendientes = new ArrayDeque<>();
+        private final Timer espera;
+        private final Counter rechazos;
+        private volatile int profundidad;
+        private int deficit;
+
+        private Carril(String nombre, int peso) {
+            this.nombre = nombre;
+            this.peso = Math.max(1, peso);
+            this.espera = Timer.builder("core.planificador.espera")
+                    .tag("carril", nombre)
+                    .description("Espera de una transacción hasta obtener lugar hacia el core")
+                    .register(meterRegistry);
+            this.rechazos = Counter.builder("core.planificador.rechazos")
+                    .tag("carril", nombre)
+                    .tag("motivo", "carril-lleno")
+                    .description("Transacciones rechazadas sin llegar al core")
+                    .register(meterRegistry);
+            Gauge.builder("core.planificador.profundidad", this, carril -> carril.profundidad)
+                    .tag("carril", nombre)
+                    .description("Transacciones en espera en el carril")
+                    .register(meterRegistry);
+        }
+    }
+}
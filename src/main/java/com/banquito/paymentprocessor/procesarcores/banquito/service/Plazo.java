@@ -0,0 +1,89 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.exception.CoreProcessingException;
+
+import io.micrometer.context.ContextRegistry;
+
+/**
+ * Tiempo límite de una transacción, medido desde que se recibió. Se verifica antes de cada paso y de cada
+ * reintento, y acota el timeout de cada llamada al core a lo que queda, de modo que no se sigue trabajando
+ * para un cliente que ya dejó de esperar.
+ * <p>
+ * Mientras se procesa la transacción el plazo está disponible en {@link #actual()} para el cliente Feign y
+ * su retryer. Se registra en el {@link ContextRegistry}, así que los executors envueltos con
+ * {@code ContextExecutorService} (modo paralelo y cobertura del débito) lo propagan a sus hilos.
+ */
+public final class Plazo {
+
+    /** Cabecera con los milisegundos que el cliente está dispuesto a esperar; también se envía al core. */
+    public static final String CABECERA = "X-Plazo-Ms";
+
+    /** Se lanza siempre antes de enviar la solicitud, así que la operación no llegó al core. */
+    public static final String ERROR_PLAZO_VENCIDO = "CORE-PLAZO-VENCIDO";
+
+    private static final ThreadLocal<Plazo> ACTUAL = new ThreadLocal<>();
+
+    static {
+        ContextRegistry.getInstance().registerThreadLocalAccessor("core.plazo", ACTUAL::get, ACTUAL::set,
+                ACTUAL::remove);
+    }
+
+    private final long limiteNanos;
+
+    private Plazo(long limiteNanos) {
+        this.limiteNanos = limiteNanos;
+    }
+
+    public static Plazo de(Duration presupuesto) {
+        return new Plazo(System.nanoTime() + presupuesto.toNanos());
+    }
+
+    /**
+     * Plazo de la transacción que se procesa en este hilo, o null fuera de una transacción.
+     */
+    public static Plazo actual() {
+        return ACTUAL.get();
+    }
+
+    public long restanteMs() {
+        return Math.max(0L, TimeUnit.NANOSECONDS.toMillis(limiteNanos - System.nanoTime()));
+    }
+
+    public boolean vencido() {
+        return restanteMs() == 0L;
+    }
+
+    /**
+     * @return los milisegundos restantes, siempre al menos uno
+     * @throws CoreProcessingException con {@link #ERROR_PLAZO_VENCIDO} si el plazo ya venció
+     */
+    public long verificar(String paso) {
+        long restante = restanteMs();
+        if (restante == 0L) {
+            throw new CoreProcessingException("Plazo de la transacción vencido antes de " + paso,
+                    ERROR_PLAZO_VENCIDO);
+        }
+        return restante;
+    }
+
+    /**
+     * Ejecuta el proceso con este plazo como {@link #actual()} y restaura el anterior al terminar.
+     */
+    public <T> T aplicar(Supplier<T> proceso) {
+        Plazo anterior = ACTUAL.get();
+        ACTUAL.set(this);
+        try {
+            return proceso.get();
+        } finally {
+            if (anterior != null) {
+                ACTUAL.set(anterior);
+            } else {
+                ACTUAL.remove();
+            }
+        }
+    }
+}
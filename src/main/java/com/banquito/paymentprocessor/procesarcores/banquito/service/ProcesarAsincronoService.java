@@ -0,0 +1,109 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreResponseDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.exception.ColaTrabajoLlenaException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Acepta transacciones para procesarlas en segundo plano y registra su estado para que el cliente
+ * lo consulte. La cola de trabajo es acotada; cuando está llena la transacción se rechaza con
+ * {@link ColaTrabajoLlenaException} en lugar de acumular memoria.
+ */
+@Service
+public class ProcesarAsincronoService {
+
+    public static final String ESTADO_PENDIENTE = "PENDIENTE";
+    public static final String ESTADO_EN_PROCESO = "EN_PROCESO";
+
+    private static final Logger log = LoggerFactory.getLogger(ProcesarAsincronoService.class);
+
+    private final ProcesarCoreService procesarCoreService;
+    private final AlmacenIdempotencia almacenIdempotencia;
+    private final ThreadPoolExecutor asincronoExecutor;
+    private final Cache<String, TransaccionCoreResponseDTO> estados;
+
+    public ProcesarAsincronoService(ProcesarCoreService procesarCoreService, AlmacenIdempotencia almacenIdempotencia,
+            ThreadPoolExecutor asincronoExecutor,
+            @Value("${core.idempotencia.max-entradas:100000}") long maxEntradas,
+            @Value("${core.idempotencia.ttl:600000}") long ttl) {
+        this.procesarCoreService = procesarCoreService;
+        this.almacenIdempotencia = almacenIdempotencia;
+        this.asincronoExecutor = asincronoExecutor;
+        this.estados = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .build();
+    }
+
+    /**
+     * Encola la transacción y devuelve su estado inicial. Si la transacción ya fue aceptada o
+     * procesada se devuelve su estado actual sin volver a encolarla.
+     */
+    public TransaccionCoreResponseDTO aceptar(TransaccionCoreDTO transaccion) {
+        String codigoUnico = transaccion.getCodigoUnico();
+        Optional<TransaccionCoreResponseDTO> previo = consultar(codigoUnico);
+        if (previo.isPresent()) {
+            log.info("Transacción {} ya aceptada, estado actual: {}", codigoUnico, previo.get().getEstado());
+            return previo.get();
+        }
+
+        TransaccionCoreResponseDTO pendiente = estado(codigoUnico, ESTADO_PENDIENTE, "Transacción en cola de procesamiento");
+        TransaccionCoreResponseDTO existente = estados.asMap().putIfAbsent(codigoUnico, pendiente);
+        if (existente != null) {
+            return existente;
+        }
+
+        try {
+            asincronoExecutor.execute(() -> procesar(transaccion));
+        } catch (RejectedExecutionException e) {
+            estados.asMap().remove(codigoUnico, pendiente);
+            log.warn("Cola de trabajo llena, transacción {} rechazada", codigoUnico);
+            throw new ColaTrabajoLlenaException(asincronoExecutor.getQueue().size()
+                    + asincronoExecutor.getQueue().remainingCapacity());
+        }
+
+        log.info("Transacción {} aceptada para procesamiento asíncrono", codigoUnico);
+        return pendiente;
+    }
+
+    public Optional<TransaccionCoreResponseDTO> consultar(String codigoUnico) {
+        TransaccionCoreResponseDTO estado = estados.getIfPresent(codigoUnico);
+        if (estado != null) {
+            return Optional.of(estado);
+        }
+        return almacenIdempotencia.obtener(codigoUnico);
+    }
+
+    private void procesar(TransaccionCoreDTO transaccion) {
+        String codigoUnico = transaccion.getCodigoUnico();
+        estados.put(codigoUnico, estado(codigoUnico, ESTADO_EN_PROCESO, "Transacción en procesamiento"));
+        try {
+            estados.put(codigoUnico, procesarCoreService.procesarTransaccion(transaccion));
+        } catch (Exception e) {
+            log.error("Error al procesar transacción asíncrona {}: {}", codigoUnico, e.getMessage(), e);
+            estados.put(codigoUnico, estado(codigoUnico, "RECHAZADO", "Error en procesamiento: " + e.getMessage()));
+        }
+    }
+
+    private TransaccionCoreResponseDTO estado(String codigoUnico, String estado, String mensaje) {
+        return TransaccionCoreResponseDTO.builder()
+                .codigoUnico(codigoUnico)
+                .fechaProceso(LocalDateTime.now())
+                .estado(estado)
+                .mensaje(mensaje)
+                .build();
+    }
+}
@@ -1,12 +1,16 @@
 package com.banquito.paymentprocessor.procesarcores.banquito.service;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -14,12 +18,18 @@ import org.springframework.web.reactive.function.client.WebClient;
 import com.banquito.paymentprocessor.procesarcores.banquito.client.CoreBancarioClient;
 import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.ComercioRequestDTO;
 import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.CoreResponseDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.RetencionRequestDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.ReversoRequestDTO;
 import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.TarjetaRequestDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.config.AjustesDinamicos;
 import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreDTO;
 import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreResponseDTO;
 import com.banquito.paymentprocessor.procesarcores.banquito.exception.CoreProcessingException;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.MetricasTransaccion.Etapa;
 
 import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 @Service
 @RequiredArgsConstructor
@@ -29,33 +39,108 @@ public class ProcesarCoreService {
     
     private final CoreBancarioClient coreBancarioClient;
     
+    private final EjecutorCoreBancario ejecutorCoreBancario;
+    
+    private final IdempotenciaService idempotenciaService;
+    
+    private final SagaService sagaService;
+    
+    private final DiarioTransacciones diarioTransacciones;
+    
+    private final MetricasTransaccion metricasTransaccion;
+    
+    private final EjecucionParalela ejecucionParalela;
+    
+    private final CoberturaDebito coberturaDebito;
+    
+    private final AcumuladorCreditos acumuladorCreditos;
+    
+    private final RuteadorBin ruteadorBin;
+    
+    private final AjustesDinamicos ajustesDinamicos;
+    
     @Autowired
     private WebClient webClient;
     
-    @Value("${core.timeout:30}")
-    private int coreTimeout;
-    
     @Value("${core.debit.url}")
     private String debitUrl;
     
     @Value("${core.credit.url}")
     private String creditUrl;
     
+    /**
+     * Plazo de una transacción que se empieza a contar ahora: el solicitado por el cliente en
+     * {@link Plazo#CABECERA}, sin superar {@code core.timeout}, o {@code core.timeout} si no lo indicó.
+     */
+    public Plazo iniciarPlazo(Long solicitadoMs) {
+        long maximoMs = ajustesDinamicos.actual().getTimeoutTransaccion().toMillis();
+        return Plazo.de(Duration.ofMillis(solicitadoMs != null ? Math.min(solicitadoMs, maximoMs) : maximoMs));
+    }
+    
     public TransaccionCoreResponseDTO procesarTransaccion(TransaccionCoreDTO transaccion) {
-        log.info("Procesando transacción completa: {}", transaccion.getCodigoUnico());
+        return procesarTransaccion(transaccion, iniciarPlazo(null));
+    }
+    
+    public TransaccionCoreResponseDTO procesarTransaccion(TransaccionCoreDTO transaccion, Plazo plazo) {
+        return idempotenciaService.ejecutar(transaccion.getCodigoUnico(), () -> plazo.aplicar(() -> {
+            boolean paralelo = ejecucionParalela.aplica(transaccion);
+            ResumenTransaccion resumen = metricasTransaccion.iniciar(transaccion.getCodigoUnico(),
+                    paralelo ? "paralelo" : "bloqueante");
+            TransaccionCoreResponseDTO resultado;
+            if (plazo.vencido()) {
+                // Vencido mientras esperaba su turno: el cliente ya no espera la respuesta
+                resultado = rechazoPorPlazo(transaccion);
+            } else if (paralelo) {
+                resultado = procesarEnParalelo(transaccion, resumen);
+            } else {
+                resultado = procesar(transaccion, resumen, plazo);
+            }
+            metricasTransaccion.finalizar(resumen, resultado);
+            return resultado;
+        }));
+    }
+    
+    private TransaccionCoreResponseDTO procesar(TransaccionCoreDTO transaccion, ResumenTransaccion resumen,
+            Plazo plazo) {
+        log.debug("Procesando transacción completa: {}", transaccion.getCodigoUnico());
+        SagaTransaccion saga = sagaService.iniciar(transaccion.getCodigoUnico());
+        diarioTransacciones.registrar(transaccion.getCodigoUnico(), EstadoDiario.RECIBIDA);
         
         try {
             // Paso 1: Procesar transacción tarjeta (primer requisito)
-            ResponseEntity<CoreResponseDTO> respuestaTarjeta = procesarTransaccionTarjeta(transaccion);
-            validarRespuestaCore(respuestaTarjeta, "tarjeta");
+            PerfilEmisor emisor = ruteadorBin.resolver(transaccion.getNumeroTarjeta());
+            ResponseEntity<CoreResponseDTO> respuestaTarjeta = metricasTransaccion.medir(resumen, Etapa.DEBITO,
+                    () -> procesarTransaccionTarjeta(transaccion, emisor));
+            metricasTransaccion.medir(resumen, Etapa.RESPUESTA, () -> validarRespuestaCore(respuestaTarjeta, "tarjeta"));
             
-            log.info("Transacción a tarjeta completada correctamente: {}", transaccion.getCodigoUnico());
+            log.debug("Transacción a tarjeta completada correctamente: {}", transaccion.getCodigoUnico());
+            diarioTransacciones.registrar(transaccion.getCodigoUnico(), EstadoDiario.DEBITADA);
+            saga.pasoCompletado(OperacionCore.REVERSO_TARJETA, convertirAReversoRequest(transaccion, emisor),
+                    DestinoEmisor.de(emisor));
             
-            // Paso 2: Procesar transacción cuenta comercio (segundo requisito)
-            ResponseEntity<CoreResponseDTO> respuestaCuenta = procesarTransaccionCuenta(transaccion);
-            validarRespuestaCore(respuestaCuenta, "cuenta");
+            if (acumuladorCreditos.aplica(transaccion)) {
+                // El crédito se liquida junto con los demás del mismo comercio; si no se puede anotar
+                // la excepción reversa el débito como cualquier otro fallo del paso 2. El estado se anota
+                // antes porque una liquidación por umbral puede aplicarse y marcarla ACREDITADA enseguida
+                diarioTransacciones.registrar(transaccion.getCodigoUnico(), EstadoDiario.CREDITO_DIFERIDO);
+                acumuladorCreditos.agregar(convertirAComercioRequest(transaccion));
+                return TransaccionCoreResponseDTO.builder()
+                        .codigoUnico(transaccion.getCodigoUnico())
+                        .fechaProceso(LocalDateTime.now())
+                        .estado("APROBADO")
+                        .mensaje("Transacción procesada correctamente, crédito al comercio en liquidación")
+                        .build();
+            }
             
-            log.info("Transacción a cuenta de comercio completada correctamente: {}", transaccion.getCodigoUnico());
+            // Paso 2: Procesar transacción cuenta comercio (segundo requisito). Con el plazo vencido
+            // no se llama al core y el débito se reversa
+            plazo.verificar("el crédito a la cuenta del comercio");
+            ResponseEntity<CoreResponseDTO> respuestaCuenta = metricasTransaccion.medir(resumen, Etapa.CREDITO,
+                    () -> procesarTransaccionCuenta(transaccion));
+            metricasTransaccion.medir(resumen, Etapa.RESPUESTA, () -> validarRespuestaCore(respuestaCuenta, "cuenta"));
+            
+            log.debug("Transacción a cuenta de comercio completada correctamente: {}", transaccion.getCodigoUnico());
+            diarioTransacciones.registrar(transaccion.getCodigoUnico(), EstadoDiario.ACREDITADA);
             
             // Si ambos pasos fueron exitosos, retornar respuesta exitosa
             return TransaccionCoreResponseDTO.builder()
@@ -66,50 +151,308 @@ public class ProcesarCoreService {
                     .build();
             
         } catch (Exception e) {
-            log.error("Error al procesar transacción: {}", e.getMessage(), e);
+            registrarError(transaccion, e);
+            // Si el débito ya se aplicó, su reverso se encola y se ejecuta fuera de esta respuesta
+            int pasos = saga.getPasosCompletados();
+            int reversos = saga.compensar(e.getMessage());
+            diarioTransacciones.registrar(transaccion.getCodigoUnico(), EstadoDiario.RECHAZADA);
             return TransaccionCoreResponseDTO.builder()
                     .codigoUnico(transaccion.getCodigoUnico())
                     .fechaProceso(LocalDateTime.now())
                     .estado("RECHAZADO")
-                    .mensaje("Error en procesamiento: " + e.getMessage())
+                    .mensaje(mensajeRechazo(e, reversos > 0))
+                    .codigoRespuesta(e instanceof CoreProcessingException cpe ? cpe.getErrorCode() : null)
+                    .pasosAplicados(pasos > 0)
                     .build();
         }
     }
     
-    private ResponseEntity<CoreResponseDTO> procesarTransaccionTarjeta(TransaccionCoreDTO transaccion) {
-        log.info("Iniciando procesamiento de débito a tarjeta: {}", transaccion.getCodigoUnico());
+    /**
+     * Flujo del modo paralelo: la retención del crédito al comercio se solicita en otro hilo mientras
+     * se aplica el débito a tarjeta. Siempre se espera el resultado de ambos pasos; con el débito
+     * aprobado la retención se confirma fuera de la respuesta y, si algo falla, se reversa el débito
+     * y se anula la retención.
+     */
+    private TransaccionCoreResponseDTO procesarEnParalelo(TransaccionCoreDTO transaccion,
+            ResumenTransaccion resumen) {
+        log.debug("Procesando transacción en modo paralelo: {}", transaccion.getCodigoUnico());
+        SagaTransaccion saga = sagaService.iniciar(transaccion.getCodigoUnico());
+        diarioTransacciones.registrar(transaccion.getCodigoUnico(), EstadoDiario.RECIBIDA);
+        RetencionRequestDTO retencion = convertirARetencionRequest(transaccion);
+
+        CompletableFuture<ResponseEntity<CoreResponseDTO>> pasoRetencion = ejecucionParalela.iniciar(
+                () -> metricasTransaccion.medir(resumen, Etapa.CREDITO, () -> retenerCreditoCuenta(transaccion)));
+
+        Exception falla = null;
+        boolean debitado = false;
+        try {
+            PerfilEmisor emisor = ruteadorBin.resolver(transaccion.getNumeroTarjeta());
+            ResponseEntity<CoreResponseDTO> respuestaTarjeta = metricasTransaccion.medir(resumen, Etapa.DEBITO,
+                    () -> procesarTransaccionTarjeta(transaccion, emisor));
+            metricasTransaccion.medir(resumen, Etapa.RESPUESTA, () -> validarRespuestaCore(respuestaTarjeta, "tarjeta"));
+            debitado = true;
+            diarioTransacciones.registrar(transaccion.getCodigoUnico(), EstadoDiario.DEBITADA);
+            saga.pasoCompletado(OperacionCore.REVERSO_TARJETA, convertirAReversoRequest(transaccion, emisor),
+                    DestinoEmisor.de(emisor));
+        } catch (Exception e) {
+            falla = e;
+        }
+
+        try {
+            ResponseEntity<CoreResponseDTO> respuestaCuenta = esperar(pasoRetencion, saga, retencion);
+            // Solo una retención aprobada existe en el core; una rechazada no se anula
+            metricasTransaccion.medir(resumen, Etapa.RESPUESTA, () -> validarRespuestaCore(respuestaCuenta, "cuenta"));
+            saga.retencionCreada(retencion);
+        } catch (Exception e) {
+            falla = falla != null ? falla : e;
+        }
+
+        if (falla == null) {
+            try {
+                saga.confirmarRetencion(retencion);
+                diarioTransacciones.registrar(transaccion.getCodigoUnico(), EstadoDiario.ACREDITADA);
+                return TransaccionCoreResponseDTO.builder()
+                        .codigoUnico(transaccion.getCodigoUnico())
+                        .fechaProceso(LocalDateTime.now())
+                        .estado("APROBADO")
+                        .mensaje("Transacción procesada correctamente")
+                        .build();
+            } catch (RuntimeException e) {
+                falla = e;
+            }
+        }
+
+        registrarError(transaccion, falla);
+        int pasos = saga.getPasosCompletados();
+        int reversos = saga.compensar(falla.getMessage());
+        diarioTransacciones.registrar(transaccion.getCodigoUnico(), EstadoDiario.RECHAZADA);
+        return TransaccionCoreResponseDTO.builder()
+                .codigoUnico(transaccion.getCodigoUnico())
+                .fechaProceso(LocalDateTime.now())
+                .estado("RECHAZADO")
+                .mensaje(mensajeRechazo(falla, debitado && reversos > 0))
+                .codigoRespuesta(falla instanceof CoreProcessingException cpe ? cpe.getErrorCode() : null)
+                .pasosAplicados(pasos > 0)
+                .build();
+    }
+
+    /**
+     * Espera la respuesta de la retención. Si la llamada falló sin una respuesta definitiva del core la
+     * retención pudo haberse creado, así que se registra para anularla.
+     */
+    private ResponseEntity<CoreResponseDTO> esperar(CompletableFuture<ResponseEntity<CoreResponseDTO>> pasoRetencion,
+            SagaTransaccion saga, RetencionRequestDTO retencion) {
+        try {
+            return pasoRetencion.join();
+        } catch (CompletionException e) {
+            RuntimeException causa = e.getCause() instanceof RuntimeException re ? re : e;
+            if (!retencionNoCreada(causa)) {
+                saga.retencionCreada(retencion);
+            }
+            throw causa;
+        }
+    }
+
+    /**
+     * La retención no existe si el core la rechazó con un 4xx o si la llamada no llegó a enviarse por
+     * el circuit breaker, el bulkhead o el plazo vencido. Ante un timeout o un 5xx el resultado es incierto.
+     */
+    private boolean retencionNoCreada(RuntimeException e) {
+        if (!(e instanceof CoreProcessingException cpe) || cpe.getErrorCode() == null) {
+            return false;
+        }
+        String codigo = cpe.getErrorCode();
+        return EjecutorCoreBancario.ERROR_CIRCUITO_ABIERTO.equals(codigo)
+                || EjecutorCoreBancario.ERROR_BULKHEAD_LLENO.equals(codigo)
+                || Plazo.ERROR_PLAZO_VENCIDO.equals(codigo)
+                || codigo.startsWith("ERROR-4");
+    }
+
+    /**
+     * Variante no bloqueante del flujo débito-crédito sobre {@link WebClient}. Ningún hilo
+     * queda retenido mientras se espera la respuesta del core, por lo que pocos hilos pueden
+     * mantener miles de llamadas en curso.
+     */
+    public Mono<TransaccionCoreResponseDTO> procesarTransaccionReactiva(TransaccionCoreDTO transaccion) {
+        return Mono.defer(() -> procesarTransaccionReactiva(transaccion, iniciarPlazo(null)));
+    }
+
+    public Mono<TransaccionCoreResponseDTO> procesarTransaccionReactiva(TransaccionCoreDTO transaccion, Plazo plazo) {
+        return idempotenciaService.ejecutarReactivo(transaccion.getCodigoUnico(), () -> Mono.defer(() -> {
+            ResumenTransaccion resumen = metricasTransaccion.iniciar(transaccion.getCodigoUnico(), "reactivo");
+            Mono<TransaccionCoreResponseDTO> resultado = plazo.vencido()
+                    ? Mono.just(rechazoPorPlazo(transaccion))
+                    : procesarReactivo(transaccion, resumen, plazo);
+            return resultado.doOnNext(respuesta -> metricasTransaccion.finalizar(resumen, respuesta));
+        }));
+    }
+
+    private Mono<TransaccionCoreResponseDTO> procesarReactivo(TransaccionCoreDTO transaccion,
+            ResumenTransaccion resumen, Plazo plazo) {
+        log.debug("Procesando transacción completa en modo reactivo: {}", transaccion.getCodigoUnico());
+        SagaTransaccion saga = sagaService.iniciar(transaccion.getCodigoUnico());
+        diarioTransacciones.registrar(transaccion.getCodigoUnico(), EstadoDiario.RECIBIDA);
+
+        return metricasTransaccion.medir(resumen, Etapa.DEBITO, Mono.defer(
+                        () -> invocarCore(debitUrl, convertirATarjetaRequest(transaccion), "tarjeta", plazo)))
+                .doOnNext(respuesta -> metricasTransaccion.medir(resumen, Etapa.RESPUESTA,
+                        () -> validarRespuestaCore(respuesta, "tarjeta")))
+                .doOnNext(respuesta -> {
+                    log.debug("Transacción a tarjeta completada correctamente: {}", transaccion.getCodigoUnico());
+                    diarioTransacciones.registrar(transaccion.getCodigoUnico(), EstadoDiario.DEBITADA);
+                    // El modo reactivo no enruta por BIN: el débito y su reverso van al core por defecto
+                    saga.pasoCompletado(OperacionCore.REVERSO_TARJETA, convertirAReversoRequest(transaccion, null),
+                            DestinoEmisor.PREDETERMINADO);
+                })
+                .then(metricasTransaccion.medir(resumen, Etapa.CREDITO, Mono.defer(
+                        () -> invocarCore(creditUrl, convertirAComercioRequest(transaccion), "cuenta", plazo))))
+                .doOnNext(respuesta -> metricasTransaccion.medir(resumen, Etapa.RESPUESTA,
+                        () -> validarRespuestaCore(respuesta, "cuenta")))
+                .doOnNext(respuesta -> {
+                    log.debug("Transacción a cuenta de comercio completada correctamente: {}",
+                            transaccion.getCodigoUnico());
+                    diarioTransacciones.registrar(transaccion.getCodigoUnico(), EstadoDiario.ACREDITADA);
+                })
+                .map(respuesta -> TransaccionCoreResponseDTO.builder()
+                        .codigoUnico(transaccion.getCodigoUnico())
+                        .fechaProceso(LocalDateTime.now())
+                        .estado("APROBADO")
+                        .mensaje("Transacción procesada correctamente")
+                        .build())
+                .onErrorResume(e -> {
+                    registrarError(transaccion, e);
+                    // El registro del reverso escribe en disco, fuera del event loop
+                    diarioTransacciones.registrar(transaccion.getCodigoUnico(), EstadoDiario.RECHAZADA);
+                    int pasos = saga.getPasosCompletados();
+                    return Mono.fromCallable(() -> saga.compensar(e.getMessage()))
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .map(reversos -> TransaccionCoreResponseDTO.builder()
+                                    .codigoUnico(transaccion.getCodigoUnico())
+                                    .fechaProceso(LocalDateTime.now())
+                                    .estado("RECHAZADO")
+                                    .mensaje(mensajeRechazo(e, reversos > 0))
+                                    .codigoRespuesta(e instanceof CoreProcessingException cpe ? cpe.getErrorCode() : null)
+                                    .pasosAplicados(pasos > 0)
+                                    .build());
+                });
+    }
+
+    /**
+     * Un rechazo del core o una falla ya clasificada queda en el resumen de la transacción; solo las
+     * fallas inesperadas se registran con su stack trace.
+     */
+    private void registrarError(TransaccionCoreDTO transaccion, Throwable e) {
+        if (e instanceof CoreProcessingException) {
+            log.warn("Transacción {} rechazada: {}", transaccion.getCodigoUnico(), e.getMessage());
+        } else {
+            log.error("Error inesperado al procesar la transacción {}", transaccion.getCodigoUnico(), e);
+        }
+    }
+
+    private String mensajeRechazo(Throwable e, boolean debitoReversado) {
+        String mensaje = "Error en procesamiento: " + e.getMessage();
+        return debitoReversado ? mensaje + ". El débito a tarjeta será reversado" : mensaje;
+    }
+
+    private TransaccionCoreResponseDTO rechazoPorPlazo(TransaccionCoreDTO transaccion) {
+        log.warn("Transacción {} descartada sin llamar al core: su plazo venció", transaccion.getCodigoUnico());
+        return TransaccionCoreResponseDTO.builder()
+                .codigoUnico(transaccion.getCodigoUnico())
+                .fechaProceso(LocalDateTime.now())
+                .estado("RECHAZADO")
+                .mensaje("Plazo de la transacción vencido antes de procesarla")
+                .codigoRespuesta(Plazo.ERROR_PLAZO_VENCIDO)
+                .build();
+    }
+
+    /**
+     * Se invoca dentro de {@code Mono.defer}, así que un plazo vencido se emite como error del paso.
+     */
+    private Mono<ResponseEntity<CoreResponseDTO>> invocarCore(String url, Object request, String tipo, Plazo plazo) {
+        String operacion = "tarjeta".equals(tipo) ? "débito a tarjeta" : "crédito a cuenta de comercio";
+        log.debug("Request reactivo para {}: {}", operacion, request);
+        long restante = plazo.verificar("el " + operacion);
+
+        return webClient.post()
+                .uri(url)
+                .header(Plazo.CABECERA, Long.toString(restante))
+                .bodyValue(request)
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, respuesta -> Mono.error(new CoreProcessingException(
+                        "Error en la llamada al core bancario: " + respuesta.statusCode(),
+                        "ERROR-" + respuesta.statusCode().value())))
+                .toEntity(CoreResponseDTO.class)
+                .timeout(Duration.ofMillis(Math.min(ajustesDinamicos.actual().getTimeoutLectura(), restante)))
+                .doOnNext(respuesta -> log.debug("Respuesta del core para {}: {}", operacion, respuesta.getStatusCode()))
+                .onErrorMap(e -> !(e instanceof CoreProcessingException),
+                        e -> new CoreProcessingException("Error al procesar " + operacion + ": " + e.getMessage(), e))
+                .switchIfEmpty(Mono.error(() -> new CoreProcessingException(
+                        "No se recibió respuesta del core bancario para " + tipo)));
+    }
+
+    private ResponseEntity<CoreResponseDTO> procesarTransaccionTarjeta(TransaccionCoreDTO transaccion,
+            PerfilEmisor emisor) {
+        log.debug("Iniciando procesamiento de débito a tarjeta: {}", transaccion.getCodigoUnico());
         
         try {
-            TarjetaRequestDTO request = convertirATarjetaRequest(transaccion);
+            TarjetaRequestDTO request = convertirATarjetaRequest(transaccion, emisor);
             log.debug("Request para débito a tarjeta: {}", request);
             
-            ResponseEntity<CoreResponseDTO> respuesta = coreBancarioClient.procesarTransaccionTarjeta(request);
-            log.info("Respuesta del core para débito a tarjeta: {}", respuesta.getStatusCode());
+            // Cada llamada de cobertura pasa por su propio bulkhead y circuit breaker
+            ResponseEntity<CoreResponseDTO> respuesta = coberturaDebito.ejecutar(
+                    () -> ejecutorCoreBancario.ejecutar(OperacionCore.TARJETA, () -> emisor == null
+                            ? coreBancarioClient.procesarTransaccionTarjeta(request)
+                            : coreBancarioClient.procesarTransaccionTarjeta(emisor.core(), request, emisor.opciones())));
+            log.debug("Respuesta del core para débito a tarjeta: {}", respuesta.getStatusCode());
             
             return respuesta;
+        } catch (CoreProcessingException e) {
+            log.debug("Error al procesar débito a tarjeta: {}", e.getMessage());
+            throw new CoreProcessingException("Error al procesar débito a tarjeta: " + e.getMessage(), e.getErrorCode());
         } catch (Exception e) {
-            log.error("Error al procesar débito a tarjeta: {}", e.getMessage());
+            log.debug("Error al procesar débito a tarjeta: {}", e.getMessage());
             throw new CoreProcessingException("Error al procesar débito a tarjeta: " + e.getMessage());
         }
     }
     
     private ResponseEntity<CoreResponseDTO> procesarTransaccionCuenta(TransaccionCoreDTO transaccion) {
-        log.info("Iniciando procesamiento de crédito a cuenta de comercio: {}", transaccion.getCodigoUnico());
+        log.debug("Iniciando procesamiento de crédito a cuenta de comercio: {}", transaccion.getCodigoUnico());
         
         try {
             ComercioRequestDTO request = convertirAComercioRequest(transaccion);
             log.debug("Request para crédito a cuenta de comercio: {}", request);
             
-            ResponseEntity<CoreResponseDTO> respuesta = coreBancarioClient.procesarTransaccionCuenta(request);
-            log.info("Respuesta del core para crédito a cuenta de comercio: {}", respuesta.getStatusCode());
+            ResponseEntity<CoreResponseDTO> respuesta = ejecutorCoreBancario.ejecutar(OperacionCore.COMERCIO,
+                    () -> coreBancarioClient.procesarTransaccionCuenta(request));
+            log.debug("Respuesta del core para crédito a cuenta de comercio: {}", respuesta.getStatusCode());
             
             return respuesta;
+        } catch (CoreProcessingException e) {
+            log.debug("Error al procesar crédito a cuenta de comercio: {}", e.getMessage());
+            throw new CoreProcessingException("Error al procesar crédito a cuenta de comercio: " + e.getMessage(), e.getErrorCode());
         } catch (Exception e) {
-            log.error("Error al procesar crédito a cuenta de comercio: {}", e.getMessage());
+            log.debug("Error al procesar crédito a cuenta de comercio: {}", e.getMessage());
             throw new CoreProcessingException("Error al procesar crédito a cuenta de comercio: " + e.getMessage());
         }
     }
     
+    private ResponseEntity<CoreResponseDTO> retenerCreditoCuenta(TransaccionCoreDTO transaccion) {
+        log.debug("Iniciando retención de crédito a cuenta de comercio: {}", transaccion.getCodigoUnico());
+        
+        try {
+            ComercioRequestDTO request = convertirAComercioRequest(transaccion);
+            ResponseEntity<CoreResponseDTO> respuesta = ejecutorCoreBancario.ejecutar(OperacionCore.RETENCION_COMERCIO,
+                    () -> coreBancarioClient.retenerCreditoCuenta(request));
+            log.debug("Respuesta del core para retención de crédito: {}", respuesta.getStatusCode());
+            
+            return respuesta;
+        } catch (CoreProcessingException e) {
+            throw new CoreProcessingException("Error al retener crédito a cuenta de comercio: " + e.getMessage(), e.getErrorCode());
+        } catch (Exception e) {
+            throw new CoreProcessingException("Error al retener crédito a cuenta de comercio: " + e.getMessage());
+        }
+    }
+    
     private void validarRespuestaCore(ResponseEntity<CoreResponseDTO> respuesta, String tipo) {
         if (respuesta == null || respuesta.getBody() == null) {
             throw new CoreProcessingException("No se recibió respuesta del core bancario para " + tipo);
@@ -123,7 +466,11 @@ public class ProcesarCoreService {
         }
     }
     
-    private TarjetaRequestDTO convertirATarjetaRequest(TransaccionCoreDTO transaccion) {
+    TarjetaRequestDTO convertirATarjetaRequest(TransaccionCoreDTO transaccion) {
+        return convertirATarjetaRequest(transaccion, null);
+    }
+    
+    private TarjetaRequestDTO convertirATarjetaRequest(TransaccionCoreDTO transaccion, PerfilEmisor emisor) {
         log.debug("Convirtiendo transacción a TarjetaRequestDTO: {}", transaccion.getCodigoUnico());
         
         // Asignar valores por defecto para campos obligatorios si es necesario
@@ -136,7 +483,7 @@ public class ProcesarCoreService {
                 .monto(transaccion.getMonto())
                 .moneda(moneda)
                 .pais(pais)
-                .swift(transaccion.getSwiftBancoTarjeta())
+                .swift(swiftTarjeta(transaccion, emisor))
                 .numeroTarjeta(transaccion.getNumeroTarjeta())
                 .codigoUnicoTransaccion(transaccion.getCodigoUnico())
                 .referencia(transaccion.getReferencia())
@@ -146,7 +493,36 @@ public class ProcesarCoreService {
                 .build();
     }
     
-    private ComercioRequestDTO convertirAComercioRequest(TransaccionCoreDTO transaccion) {
+    private ReversoRequestDTO convertirAReversoRequest(TransaccionCoreDTO transaccion, PerfilEmisor emisor) {
+        return ReversoRequestDTO.builder()
+                .codigoUnicoTransaccion(transaccion.getCodigoUnico())
+                .numeroTarjeta(transaccion.getNumeroTarjeta())
+                .monto(transaccion.getMonto())
+                .moneda((transaccion.getCodigoMoneda() != null) ? transaccion.getCodigoMoneda() : "USD")
+                .swift(swiftTarjeta(transaccion, emisor))
+                .referencia(transaccion.getReferencia())
+                .build();
+    }
+    
+    /**
+     * Si la transacción no trae el SWIFT del banco emisor se toma del emisor resuelto por BIN, igual en
+     * el débito y en su reverso.
+     */
+    private String swiftTarjeta(TransaccionCoreDTO transaccion, PerfilEmisor emisor) {
+        return transaccion.getSwiftBancoTarjeta() == null && emisor != null
+                ? emisor.swift()
+                : transaccion.getSwiftBancoTarjeta();
+    }
+    
+    private RetencionRequestDTO convertirARetencionRequest(TransaccionCoreDTO transaccion) {
+        return RetencionRequestDTO.builder()
+                .codigoUnico(transaccion.getCodigoUnico())
+                .iban(transaccion.getCuentaIbanComercio())
+                .monto(transaccion.getMonto())
+                .build();
+    }
+    
+    ComercioRequestDTO convertirAComercioRequest(TransaccionCoreDTO transaccion) {
         log.debug("Convirtiendo transacción a ComercioRequestDTO: {}", transaccion.getCodigoUnico());
         
         // Asignar valores por defecto para campos obligatorios si es necesario
@@ -0,0 +1,92 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreResponseDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.exception.LoteInvalidoException;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+@Service
+@RequiredArgsConstructor
+public class ProcesarLoteService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProcesarLoteService.class);
+
+    public static final String CODIGO_DATOS_INVALIDOS = "DATOS_INVALIDOS";
+
+    private final ProcesarCoreService procesarCoreService;
+
+    private final Scheduler loteScheduler;
+
+    private final Validator validator;
+
+    @Value("${core.lote.concurrencia:16}")
+    private int concurrencia;
+
+    @Value("${core.lote.tamano-maximo:500}")
+    private int tamanoMaximo;
+
+    /**
+     * Procesa un lote de transacciones con un máximo de {@code core.lote.concurrencia}
+     * transacciones en curso a la vez. Los resultados se emiten en el mismo orden del lote
+     * a medida que van estando disponibles. Las transacciones con datos inválidos se rechazan
+     * sin llamar al core y no detienen el resto del lote.
+     */
+    public Flux<TransaccionCoreResponseDTO> procesarLote(List<TransaccionCoreDTO> transacciones) {
+        if (transacciones == null || transacciones.isEmpty() || transacciones.size() > tamanoMaximo) {
+            throw new LoteInvalidoException(transacciones == null ? 0 : transacciones.size(), tamanoMaximo);
+        }
+
+        log.info("Procesando lote de {} transacciones con concurrencia {}", transacciones.size(), concurrencia);
+
+        return Flux.fromIterable(transacciones)
+                .flatMapSequential(transaccion -> Mono
+                        .fromCallable(() -> procesarValida(transaccion))
+                        .subscribeOn(loteScheduler)
+                        .onErrorResume(e -> Mono.just(rechazar(transaccion, e))), concurrencia);
+    }
+
+    private TransaccionCoreResponseDTO procesarValida(TransaccionCoreDTO transaccion) {
+        Set<ConstraintViolation<TransaccionCoreDTO>> errores = validator.validate(transaccion);
+        if (errores.isEmpty()) {
+            return procesarCoreService.procesarTransaccion(transaccion);
+        }
+        String detalle = errores.stream()
+                .map(error -> error.getPropertyPath() + ": " + error.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+        log.debug("Transacción {} del lote rechazada por validación: {}", transaccion.getCodigoUnico(), detalle);
+        return TransaccionCoreResponseDTO.builder()
+                .codigoUnico(transaccion.getCodigoUnico())
+                .fechaProceso(LocalDateTime.now())
+                .estado("RECHAZADO")
+                .mensaje("Datos de la transacción inválidos: " + detalle)
+                .codigoRespuesta(CODIGO_DATOS_INVALIDOS)
+                .build();
+    }
+
+    private TransaccionCoreResponseDTO rechazar(TransaccionCoreDTO transaccion, Throwable e) {
+        log.error("Error al procesar transacción {} del lote: {}", transaccion.getCodigoUnico(), e.getMessage());
+        return TransaccionCoreResponseDTO.builder()
+                .codigoUnico(transaccion.getCodigoUnico())
+                .fechaProceso(LocalDateTime.now())
+                .estado("RECHAZADO")
+                .mensaje("Error en procesamiento: " + e.getMessage())
+                .build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreResponseDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.MetricasTransaccion.Etapa;
+
+/**
+ * Acumula las etapas de una transacción para emitir un único evento de log al finalizarla, con el
+ * {@code codigoUnico}, el modo, la duración de cada etapa ejecutada y el resultado. Cada transacción
+ * tiene su propia instancia y sus etapas se ejecutan en secuencia, por lo que no requiere sincronización.
+ * <p>
+ * El evento se escribe con el logger de esta clase en nivel INFO; los campos van como pares clave-valor
+ * para que el layout los emita como datos estructurados.
+ */
+public final class ResumenTransaccion {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumenTransaccion.class);
+
+    private static final Etapa[] ETAPAS = Etapa.values();
+
+    private final String codigoUnico;
+    private final String modo;
+    private final long inicio;
+    private final long[] duraciones = new long[ETAPAS.length];
+    private final boolean[] ejecutadas = new boolean[ETAPAS.length];
+
+    ResumenTransaccion(String codigoUnico, String modo) {
+        this.codigoUnico = codigoUnico;
+        this.modo = modo;
+        this.inicio = System.nanoTime();
+    }
+
+    String getModo() {
+        return modo;
+    }
+
+    void registrar(Etapa etapa, long nanos) {
+        duraciones[etapa.ordinal()] += nanos;
+        ejecutadas[etapa.ordinal()] = true;
+    }
+
+    /**
+     * Cierra el resumen y devuelve la duración total en nanosegundos.
+     */
+    long publicar(String estado, TransaccionCoreResponseDTO resultado) {
+        long total = System.nanoTime() - inicio;
+        if (!log.isInfoEnabled()) {
+            return total;
+        }
+
+        LoggingEventBuilder evento = log.atInfo()
+                .addKeyValue("codigoUnico", codigoUnico)
+                .addKeyValue("modo", modo)
+                .addKeyValue("estado", estado)
+                .addKeyValue("totalMs", milisegundos(total));
+        for (Etapa etapa : ETAPAS) {
+            if (ejecutadas[etapa.ordinal()]) {
+                evento.addKeyValue(etapa.etiqueta() + "Ms", milisegundos(duraciones[etapa.ordinal()]));
+            }
+        }
+        if (resultado.getCodigoRespuesta() != null) {
+            evento.addKeyValue("codigoRespuesta", resultado.getCodigoRespuesta());
+        }
+        evento.log("Transacción finalizada");
+        return total;
+    }
+
+    private static double milisegundos(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos) / 1000.0;
+    }
+}
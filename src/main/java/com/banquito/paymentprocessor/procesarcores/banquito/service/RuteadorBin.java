@@ -0,0 +1,162 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.config.OpcionesLlamada;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import feign.Request;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Enruta el débito a tarjeta al core del emisor según el BIN del número de tarjeta. La tabla se lee
+ * de un archivo JSON local con los emisores y sus rangos de BIN:
+ * <pre>
+ * {"emisores": [{"nombre": "BANCO_A", "swift": "BANQECAA", "core": "http://core-a:8080",
+ *                "timeoutConexion": 1000, "timeoutLectura": 3000}],
+ *  "rangos": [{"desde": "411111", "hasta": "411199", "emisor": "BANCO_A"}]}
+ * </pre>
+ * Cuando el archivo cambia la tabla se reconstruye en otro hilo y se publica reemplazando la referencia,
+ * así que las búsquedas nunca toman un lock. Si el archivo nuevo es inválido se conserva la tabla anterior.
+ * Las tarjetas sin rango se procesan en el core por defecto.
+ */
+public class RuteadorBin implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RuteadorBin.class);
+
+    private final Path archivo;
+    private final long intervalo;
+    private final ObjectMapper objectMapper;
+    private final ScheduledExecutorService programador;
+
+    private volatile TablaBin tabla = TablaBin.VACIA;
+    private FileTime ultimaModificacion;
+    private Counter recargasFallidas;
+
+    public RuteadorBin(Path archivo, long intervalo, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.archivo = archivo;
+        this.intervalo = intervalo;
+        this.objectMapper = objectMapper;
+        if (archivo == null) {
+            this.programador = null;
+            return;
+        }
+        this.programador = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("ruteo-bin")
+                .daemon(true)
+                .factory());
+        this.recargasFallidas = Counter.builder("core.ruteo.recargas.fallidas")
+                .description("Recargas de la tabla de BIN descartadas por un archivo inválido")
+                .register(meterRegistry);
+        Gauge.builder("core.ruteo.rangos", this, ruteador -> ruteador.tabla.tamano())
+                .description("Rangos de BIN cargados")
+                .register(meterRegistry);
+    }
+
+    public static RuteadorBin deshabilitado() {
+        return new RuteadorBin(null, 0, null, null);
+    }
+
+    /**
+     * Carga la tabla y programa la revisión periódica del archivo. Un archivo inválido al iniciar
+     * detiene el arranque, en lugar de enviar todo el tráfico al core por defecto sin aviso.
+     */
+    public void iniciar() {
+        if (archivo == null) {
+            return;
+        }
+        try {
+            cargar();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer la tabla de BIN " + archivo, e);
+        }
+        programador.scheduleWithFixedDelay(this::revisar, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Emisor al que corresponde el número de tarjeta, o {@code null} para usar el core por defecto.
+     */
+    public PerfilEmisor resolver(String numeroTarjeta) {
+        return tabla.buscar(numeroTarjeta);
+    }
+
+    @Override
+    public void close() {
+        if (programador != null) {
+            programador.shutdownNow();
+        }
+    }
+
+    private void revisar() {
+        try {
+            if (!Files.getLastModifiedTime(archivo).equals(ultimaModificacion)) {
+                cargar();
+            }
+        } catch (IOException | RuntimeException e) {
+            recargasFallidas.increment();
+            log.error("Se conserva la tabla de BIN anterior, no se pudo recargar {}: {}", archivo, e.getMessage());
+        }
+    }
+
+    private void cargar() throws IOException {
+        FileTime modificacion = Files.getLastModifiedTime(archivo);
+        ArchivoRuteo contenido = objectMapper.readValue(archivo.toFile(), ArchivoRuteo.class);
+        TablaBin nueva = construir(contenido);
+        tabla = nueva;
+        ultimaModificacion = modificacion;
+        log.info("Tabla de BIN cargada desde {}: {} emisores, {} rangos", archivo,
+                contenido.emisores().size(), nueva.tamano());
+    }
+
+    private TablaBin construir(ArchivoRuteo contenido) {
+        if (contenido.emisores() == null || contenido.rangos() == null) {
+            throw new IllegalArgumentException("La tabla de BIN debe declarar emisores y rangos");
+        }
+        Map<String, PerfilEmisor> perfiles = new HashMap<>();
+        for (Emisor emisor : contenido.emisores()) {
+            // Los timeouts propios del emisor se respetan; los que no fija se toman de los ajustes vigentes
+            // del core en cada llamada, igual que unas opciones que no son OpcionesLlamada
+            Request.Options opciones = emisor.timeoutConexion() != null || emisor.timeoutLectura() != null
+                    ? new OpcionesLlamada(emisor.timeoutConexion(), emisor.timeoutLectura())
+                    : new Request.Options();
+            perfiles.put(emisor.nombre(), new PerfilEmisor(emisor.nombre(), emisor.swift(), URI.create(emisor.core()),
+                    opciones));
+        }
+        List<TablaBin.Rango> rangos = new ArrayList<>(contenido.rangos().size());
+        for (Rango rango : contenido.rangos()) {
+            PerfilEmisor perfil = perfiles.get(rango.emisor());
+            if (perfil == null) {
+                throw new IllegalArgumentException("Emisor no declarado en la tabla de BIN: " + rango.emisor());
+            }
+            String hasta = rango.hasta() != null ? rango.hasta() : rango.desde();
+            rangos.add(new TablaBin.Rango(TablaBin.limite(rango.desde(), '0'), TablaBin.limite(hasta, '9'), perfil));
+        }
+        return TablaBin.de(rangos);
+    }
+
+    record ArchivoRuteo(List<Emisor> emisores, List<Rango> rangos) {
+    }
+
+    record Emisor(String nombre, String swift, String core, Integer timeoutConexion, Integer timeoutLectura) {
+    }
+
+    record Rango(String desde, String hasta, String emisor) {
+    }
+}
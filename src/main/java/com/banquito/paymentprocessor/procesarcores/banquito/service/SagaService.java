@@ -0,0 +1,16 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class SagaService {
+
+    private final ColaCompensaciones colaCompensaciones;
+
+    public SagaTransaccion iniciar(String codigoUnico) {
+        return new SagaTransaccion(codigoUnico, colaCompensaciones);
+    }
+}
@@ -0,0 +1,90 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.RetencionRequestDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.ReversoRequestDTO;
+
+/**
+ * Pasos ya completados de una transacción junto con el reverso de cada uno. Si un paso posterior
+ * falla, {@link #compensar(String)} encola los reversos en orden inverso; la llamada al core ocurre
+ * fuera de la respuesta al cliente.
+ */
+public class SagaTransaccion {
+
+    private static final Logger log = LoggerFactory.getLogger(SagaTransaccion.class);
+
+    private final String codigoUnico;
+    private final ColaCompensaciones colaCompensaciones;
+    private final Deque<Compensacion> completados = new ArrayDeque<>();
+
+    public SagaTransaccion(String codigoUnico, ColaCompensaciones colaCompensaciones) {
+        this.codigoUnico = codigoUnico;
+        this.colaCompensaciones = colaCompensaciones;
+    }
+
+    /**
+     * Registra un paso completado con la operación del core que lo revierte y el core que lo aplicó.
+     */
+    public void pasoCompletado(OperacionCore compensacion, ReversoRequestDTO reverso, DestinoEmisor emisor) {
+        completados.push(nueva(compensacion).reverso(reverso).emisor(emisor).build());
+    }
+
+    /**
+     * Registra un crédito retenido (o cuyo resultado se desconoce) para anularlo si la transacción falla.
+     */
+    public void retencionCreada(RetencionRequestDTO retencion) {
+        completados.push(nueva(OperacionCore.ANULACION_RETENCION).retencion(retencion).build());
+    }
+
+    /**
+     * Encola la confirmación de un crédito retenido. Se confirma fuera de la respuesta al cliente: la
+     * retención ya garantiza los fondos del comercio.
+     */
+    public void confirmarRetencion(RetencionRequestDTO retencion) {
+        colaCompensaciones.encolar(nueva(OperacionCore.CONFIRMACION_RETENCION).retencion(retencion).build());
+    }
+
+    /**
+     * Encola el reverso de cada paso completado, empezando por el último.
+     *
+     * @return número de reversos encolados
+     */
+    public int compensar(String motivo) {
+        int encolados = 0;
+        Compensacion compensacion;
+        while ((compensacion = completados.poll()) != null) {
+            if (compensacion.getReverso() != null) {
+                compensacion.getReverso().setMotivo(motivo);
+            } else {
+                compensacion.getRetencion().setMotivo(motivo);
+            }
+            try {
+                colaCompensaciones.encolar(compensacion);
+                encolados++;
+            } catch (RuntimeException e) {
+                log.error("No se pudo encolar la operación '{}' de la transacción {}, requiere intervención manual: {}",
+                        compensacion.getOperacion().getDescripcion(), codigoUnico, compensacion, e);
+            }
+        }
+        return encolados;
+    }
+
+    public int getPasosCompletados() {
+        return completados.size();
+    }
+
+    private Compensacion.CompensacionBuilder nueva(OperacionCore operacion) {
+        return Compensacion.builder()
+                .id(UUID.randomUUID().toString())
+                .codigoUnico(codigoUnico)
+                .operacion(operacion)
+                .fechaRegistro(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,107 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Índice inmutable de rangos de BIN. Cada rango se normaliza a {@value #DIGITOS} dígitos (el inicio se
+ * completa con ceros y el fin con nueves) y se guarda en arreglos ordenados, así que una búsqueda es una
+ * búsqueda binaria sobre {@code long} sin crear objetos. Los rangos no pueden solaparse.
+ */
+final class TablaBin {
+
+    static final int DIGITOS = 10;
+
+    static final TablaBin VACIA = new TablaBin(new long[0], new long[0], new PerfilEmisor[0]);
+
+    private final long[] inicios;
+    private final long[] fines;
+    private final PerfilEmisor[] perfiles;
+
+    private TablaBin(long[] inicios, long[] fines, PerfilEmisor[] perfiles) {
+        this.inicios = inicios;
+        this.fines = fines;
+        this.perfiles = perfiles;
+    }
+
+    static TablaBin de(List<Rango> rangos) {
+        Rango[] ordenados = rangos.toArray(Rango[]::new);
+        Arrays.sort(ordenados, Comparator.comparingLong(Rango::inicio));
+        long[] inicios = new long[ordenados.length];
+        long[] fines = new long[ordenados.length];
+        PerfilEmisor[] perfiles = new PerfilEmisor[ordenados.length];
+        for (int i = 0; i < ordenados.length; i++) {
+            Rango rango = ordenados[i];
+            if (rango.fin() < rango.inicio()) {
+                throw new IllegalArgumentException("Rango de BIN invertido para el emisor " + rango.perfil().nombre());
+            }
+            if (i > 0 && rango.inicio() <= fines[i - 1]) {
+                throw new IllegalArgumentException("Rangos de BIN solapados entre los emisores "
+                        + perfiles[i - 1].nombre() + " y " + rango.perfil().nombre());
+            }
+            inicios[i] = rango.inicio();
+            fines[i] = rango.fin();
+            perfiles[i] = rango.perfil();
+        }
+        return new TablaBin(inicios, fines, perfiles);
+    }
+
+    /**
+     * Devuelve el emisor del rango que contiene el número de tarjeta, o {@code null} si ninguno lo contiene.
+     */
+    PerfilEmisor buscar(String numeroTarjeta) {
+        long clave = clave(numeroTarjeta);
+        if (clave < 0) {
+            return null;
+        }
+        int posicion = Arrays.binarySearch(inicios, clave);
+        if (posicion < 0) {
+            posicion = -posicion - 2;
+        }
+        return posicion >= 0 && clave <= fines[posicion] ? perfiles[posicion] : null;
+    }
+
+    int tamano() {
+        return inicios.length;
+    }
+
+    /**
+     * Primeros {@value #DIGITOS} dígitos del número de tarjeta, o -1 si es más corto o tiene otros caracteres.
+     */
+    static long clave(String numeroTarjeta) {
+        if (numeroTarjeta == null || numeroTarjeta.length() < DIGITOS) {
+            return -1;
+        }
+        long clave = 0;
+        for (int i = 0; i < DIGITOS; i++) {
+            int digito = numeroTarjeta.charAt(i) - '0';
+            if (digito < 0 || digito > 9) {
+                return -1;
+            }
+            clave = clave * 10 + digito;
+        }
+        return clave;
+    }
+
+    /**
+     * Completa un prefijo de BIN hasta {@value #DIGITOS} dígitos con el dígito de relleno.
+     */
+    static long limite(String bin, char relleno) {
+        if (bin == null || bin.isEmpty() || bin.length() > DIGITOS) {
+            throw new IllegalArgumentException("BIN inválido: " + bin);
+        }
+        long limite = 0;
+        for (int i = 0; i < DIGITOS; i++) {
+            char caracter = i < bin.length() ? bin.charAt(i) : relleno;
+            if (caracter < '0' || caracter > '9') {
+                throw new IllegalArgumentException("BIN inválido: " + bin);
+            }
+            limite = limite * 10 + (caracter - '0');
+        }
+        return limite;
+    }
+
+    record Rango(long inicio, long fin, PerfilEmisor perfil) {
+    }
+}
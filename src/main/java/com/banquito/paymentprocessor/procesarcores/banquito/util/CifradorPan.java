@@ -0,0 +1,78 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Cifra números de tarjeta que deben guardarse en disco, como los reversos de la cola de
+ * compensaciones. Usa AES-GCM con un IV aleatorio por valor; el resultado lleva el prefijo
+ * {@value #PREFIJO} seguido del IV y el texto cifrado en Base64, así que un valor sin el prefijo se
+ * reconoce como escrito antes de configurar la clave.
+ */
+public final class CifradorPan {
+
+    public static final String PREFIJO = "pan:v1:";
+
+    private static final String ALGORITMO = "AES/GCM/NoPadding";
+    private static final int LONGITUD_IV = 12;
+    private static final int LONGITUD_TAG = 128;
+
+    private final SecretKeySpec clave;
+    private final SecureRandom aleatorio = new SecureRandom();
+
+    /**
+     * @param claveBase64 clave AES de 16, 24 o 32 bytes codificada en Base64
+     */
+    public CifradorPan(String claveBase64) {
+        byte[] bytes = Base64.getDecoder().decode(claveBase64);
+        if (bytes.length != 16 && bytes.length != 24 && bytes.length != 32) {
+            throw new IllegalArgumentException("La clave de cifrado de PAN debe tener 16, 24 o 32 bytes");
+        }
+        this.clave = new SecretKeySpec(bytes, "AES");
+    }
+
+    public static boolean esCifrado(String valor) {
+        return valor != null && valor.startsWith(PREFIJO);
+    }
+
+    public String cifrar(String pan) {
+        if (pan == null || esCifrado(pan)) {
+            return pan;
+        }
+        byte[] iv = new byte[LONGITUD_IV];
+        aleatorio.nextBytes(iv);
+        try {
+            Cipher cifrador = Cipher.getInstance(ALGORITMO);
+            cifrador.init(Cipher.ENCRYPT_MODE, clave, new GCMParameterSpec(LONGITUD_TAG, iv));
+            byte[] cifrado = cifrador.doFinal(pan.getBytes(StandardCharsets.US_ASCII));
+            return PREFIJO + Base64.getEncoder().encodeToString(ByteBuffer.allocate(iv.length + cifrado.length)
+                    .put(iv)
+                    .put(cifrado)
+                    .array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo cifrar el número de tarjeta", e);
+        }
+    }
+
+    public String descifrar(String valor) {
+        if (!esCifrado(valor)) {
+            return valor;
+        }
+        byte[] contenido = Base64.getDecoder().decode(valor.substring(PREFIJO.length()));
+        try {
+            Cipher cifrador = Cipher.getInstance(ALGORITMO);
+            cifrador.init(Cipher.DECRYPT_MODE, clave, new GCMParameterSpec(LONGITUD_TAG, contenido, 0, LONGITUD_IV));
+            byte[] pan = cifrador.doFinal(contenido, LONGITUD_IV, contenido.length - LONGITUD_IV);
+            return new String(pan, StandardCharsets.US_ASCII);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo descifrar el número de tarjeta, ¿cambió la clave?", e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.util;
+
+/**
+ * Enmascara números de tarjeta para logs y {@code toString()}. Deja visibles los 6 primeros dígitos
+ * (BIN) y los 4 últimos cuando el número tiene al menos 13 dígitos, y solo los 4 últimos en números
+ * más cortos. Recorre los caracteres sin expresiones regulares; los separadores se conservan.
+ */
+public final class EnmascaradorPan {
+
+    private static final int LONGITUD_MINIMA_BIN = 13;
+    private static final int VISIBLES_INICIO = 6;
+    private static final int VISIBLES_FIN = 4;
+
+    private EnmascaradorPan() {
+    }
+
+    public static String enmascarar(String pan) {
+        if (pan == null) {
+            return null;
+        }
+        char[] caracteres = pan.toCharArray();
+        int digitos = 0;
+        for (char caracter : caracteres) {
+            if (esDigito(caracter)) {
+                digitos++;
+            }
+        }
+        int inicio = digitos >= LONGITUD_MINIMA_BIN ? VISIBLES_INICIO : 0;
+        int fin = digitos - VISIBLES_FIN;
+
+        int posicion = 0;
+        for (int i = 0; i < caracteres.length; i++) {
+            if (esDigito(caracteres[i])) {
+                if (posicion >= inicio && posicion < fin) {
+                    caracteres[i] = '*';
+                }
+                posicion++;
+            }
+        }
+        return new String(caracteres);
+    }
+
+    private static boolean esDigito(char caracter) {
+        return caracter >= '0' && caracter <= '9';
+    }
+}
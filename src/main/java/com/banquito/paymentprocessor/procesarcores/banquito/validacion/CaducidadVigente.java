@@ -0,0 +1,61 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.validacion;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.time.YearMonth;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.Payload;
+
+/**
+ * Fecha de caducidad de tarjeta en formato {@code MM/AA} que no ha vencido: la tarjeta es válida hasta
+ * el último día del mes indicado. Un valor nulo se considera válido.
+ */
+@Documented
+@Constraint(validatedBy = CaducidadVigente.Validador.class)
+@Target(FIELD)
+@Retention(RUNTIME)
+public @interface CaducidadVigente {
+
+    String message() default "fecha de caducidad inválida o vencida";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+    class Validador implements ConstraintValidator<CaducidadVigente, String> {
+
+        @Override
+        public boolean isValid(String fecha, ConstraintValidatorContext contexto) {
+            if (fecha == null) {
+                return true;
+            }
+            if (fecha.length() != 5 || fecha.charAt(2) != '/') {
+                return false;
+            }
+            int mes = dosDigitos(fecha, 0);
+            int anio = dosDigitos(fecha, 3);
+            if (mes < 1 || mes > 12 || anio < 0) {
+                return false;
+            }
+            YearMonth actual = YearMonth.now();
+            int caducidad = (actual.getYear() / 100 * 100 + anio) * 12 + mes;
+            return caducidad >= actual.getYear() * 12 + actual.getMonthValue();
+        }
+
+        private static int dosDigitos(String fecha, int inicio) {
+            int decenas = fecha.charAt(inicio) - '0';
+            int unidades = fecha.charAt(inicio + 1) - '0';
+            if (decenas < 0 || decenas > 9 || unidades < 0 || unidades > 9) {
+                return -1;
+            }
+            return decenas * 10 + unidades;
+        }
+    }
+}
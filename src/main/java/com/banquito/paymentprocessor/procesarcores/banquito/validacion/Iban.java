@@ -0,0 +1,70 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.validacion;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.Payload;
+
+/**
+ * IBAN sin espacios: código de país, dígitos de control y cuenta alfanumérica de hasta 34 caracteres
+ * en total, con el resto módulo 97 igual a 1 (ISO 13616). Un valor nulo se considera válido.
+ */
+@Documented
+@Constraint(validatedBy = Iban.Validador.class)
+@Target(FIELD)
+@Retention(RUNTIME)
+public @interface Iban {
+
+    String message() default "IBAN inválido";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+    class Validador implements ConstraintValidator<Iban, String> {
+
+        private static final int LONGITUD_MINIMA = 15;
+        private static final int LONGITUD_MAXIMA = 34;
+
+        @Override
+        public boolean isValid(String iban, ConstraintValidatorContext contexto) {
+            if (iban == null) {
+                return true;
+            }
+            int longitud = iban.length();
+            if (longitud < LONGITUD_MINIMA || longitud > LONGITUD_MAXIMA
+                    || !esLetra(iban.charAt(0)) || !esLetra(iban.charAt(1))
+                    || !esDigito(iban.charAt(2)) || !esDigito(iban.charAt(3))) {
+                return false;
+            }
+            // Los cuatro primeros caracteres van al final; el resto se acumula sin construir el número
+            int resto = 0;
+            for (int i = 0; i < longitud; i++) {
+                char caracter = iban.charAt((i + 4) % longitud);
+                if (esDigito(caracter)) {
+                    resto = (resto * 10 + (caracter - '0')) % 97;
+                } else if (esLetra(caracter)) {
+                    resto = (resto * 100 + (caracter - 'A' + 10)) % 97;
+                } else {
+                    return false;
+                }
+            }
+            return resto == 1;
+        }
+
+        private static boolean esDigito(char caracter) {
+            return caracter >= '0' && caracter <= '9';
+        }
+
+        private static boolean esLetra(char caracter) {
+            return caracter >= 'A' && caracter <= 'Z';
+        }
+    }
+}
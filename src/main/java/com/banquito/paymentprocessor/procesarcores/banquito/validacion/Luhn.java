@@ -0,0 +1,64 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.validacion;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.Payload;
+
+/**
+ * Número de tarjeta de 12 a 19 dígitos con dígito verificador Luhn correcto. Un valor nulo se
+ * considera válido; la obligatoriedad se declara con {@code @NotBlank}.
+ */
+@Documented
+@Constraint(validatedBy = Luhn.Validador.class)
+@Target(FIELD)
+@Retention(RUNTIME)
+public @interface Luhn {
+
+    String message() default "número de tarjeta inválido";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+    class Validador implements ConstraintValidator<Luhn, String> {
+
+        private static final int LONGITUD_MINIMA = 12;
+        private static final int LONGITUD_MAXIMA = 19;
+
+        @Override
+        public boolean isValid(String numero, ConstraintValidatorContext contexto) {
+            if (numero == null) {
+                return true;
+            }
+            int longitud = numero.length();
+            if (longitud < LONGITUD_MINIMA || longitud > LONGITUD_MAXIMA) {
+                return false;
+            }
+            int suma = 0;
+            boolean duplicar = false;
+            for (int i = longitud - 1; i >= 0; i--) {
+                int digito = numero.charAt(i) - '0';
+                if (digito < 0 || digito > 9) {
+                    return false;
+                }
+                if (duplicar) {
+                    digito *= 2;
+                    if (digito > 9) {
+                        digito -= 9;
+                    }
+                }
+                suma += digito;
+                duplicar = !duplicar;
+            }
+            return suma % 10 == 0;
+        }
+    }
+}
@@ -88,7 +88,7 @@ public class IntegracionCoreBancarioTest {
         transaccionDTO.setCodigoGtw("PAYPAL");
         transaccionDTO.setNumeroTarjeta("4111111111111111");
         transaccionDTO.setCvv("123");
-        transaccionDTO.setFechaCaducidad("12/25");
+        transaccionDTO.setFechaCaducidad("12/30");
         transaccionDTO.setMonto(new BigDecimal("100.00"));
         transaccionDTO.setCodigoMoneda("USD");
         transaccionDTO.setMarca("VISA");
@@ -132,7 +132,7 @@ public class IntegracionCoreBancarioTest {
         transaccionDTO.setCodigoGtw("PAYPAL");
         transaccionDTO.setNumeroTarjeta("4111111111111111");
         transaccionDTO.setCvv("123");
-        transaccionDTO.setFechaCaducidad("12/25");
+        transaccionDTO.setFechaCaducidad("12/30");
         transaccionDTO.setMonto(new BigDecimal("10000.00"));
         transaccionDTO.setCodigoMoneda("USD");
         transaccionDTO.setMarca("VISA");
@@ -0,0 +1,84 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.carga;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+/**
+ * Generador de carga de lazo abierto: las solicitudes se envían a una tasa fija sin esperar a que
+ * terminen las anteriores, como llegan los pagos reales. Así la lentitud del servidor se refleja en
+ * la latencia en lugar de reducir la carga ofrecida.
+ */
+public class GeneradorCargaAbierta implements AutoCloseable {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+    private final Duration timeout;
+
+    public GeneradorCargaAbierta(Duration timeout) {
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * Envía {@code tasaPorSegundo * duracion} solicitudes POST a {@code destino}. El cuerpo de la
+     * solicitud {@code i} lo produce {@code cuerpo}.
+     */
+    public ResultadoCarga ejecutar(URI destino, IntFunction<String> cuerpo, int tasaPorSegundo, Duration duracion)
+            throws InterruptedException {
+        int total = (int) (tasaPorSegundo * duracion.toNanos() / 1_000_000_000L);
+        long intervalo = 1_000_000_000L / tasaPorSegundo;
+        long[] latencias = new long[total];
+        int[] estados = new int[total];
+        CompletableFuture<?>[] solicitudes = new CompletableFuture<?>[total];
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long programada = inicio + i * intervalo;
+            long espera;
+            while ((espera = programada - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            int indice = i;
+            HttpRequest solicitud = HttpRequest.newBuilder(destino)
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(cuerpo.apply(i)))
+                    .build();
+            solicitudes[i] = httpClient.sendAsync(solicitud, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((respuesta, error) -> {
+                        // Desde la hora programada, no desde el envío real, para no ocultar la cola
+                        latencias[indice] = System.nanoTime() - programada;
+                        estados[indice] = respuesta != null ? respuesta.statusCode() : 0;
+                    });
+        }
+
+        try {
+            CompletableFuture.allOf(solicitudes).exceptionally(error -> null)
+                    .get(timeout.toMillis() + 5000, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Las solicitudes sin terminar quedan contadas como sin respuesta
+        }
+        Duration transcurrido = Duration.ofNanos(System.nanoTime() - inicio);
+        return new ResultadoCarga(tasaPorSegundo, transcurrido, latencias, estados);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,59 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.carga;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Comportamiento de un endpoint del simulador del core: latencia log-normal, proporción de
+ * respuestas de error y drenado lento del cuerpo de la respuesta.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class PerfilSimulador {
+
+    /** Mediana de la latencia en ms; 0 responde sin demora. */
+    @Builder.Default
+    private final double latenciaMediana = 20;
+
+    /** Dispersión de la distribución log-normal; con 0.5 el p99 es aproximadamente 3,2 veces la mediana. */
+    @Builder.Default
+    private final double latenciaSigma = 0.5;
+
+    /** Proporción de respuestas de error, entre 0 y 1. */
+    @Builder.Default
+    private final double tasaError = 0;
+
+    @Builder.Default
+    private final int estadoError = 503;
+
+    /** Tiempo en ms durante el que se envía el cuerpo por fragmentos; 0 lo envía de una vez. */
+    @Builder.Default
+    private final int drenadoLento = 0;
+
+    @Builder.Default
+    private final int fragmentosDrenado = 10;
+
+    /**
+     * Perfil tomado de las propiedades del sistema {@code <prefijo>.latencia-mediana},
+     * {@code <prefijo>.latencia-sigma}, {@code <prefijo>.tasa-error}, {@code <prefijo>.estado-error}
+     * y {@code <prefijo>.drenado-lento}, usando {@code base} para las que no estén definidas.
+     */
+    public static PerfilSimulador desdePropiedades(String prefijo, PerfilSimulador base) {
+        return base.toBuilder()
+                .latenciaMediana(Double.parseDouble(System.getProperty(prefijo + ".latencia-mediana",
+                        String.valueOf(base.latenciaMediana))))
+                .latenciaSigma(Double.parseDouble(System.getProperty(prefijo + ".latencia-sigma",
+                        String.valueOf(base.latenciaSigma))))
+                .tasaError(Double.parseDouble(System.getProperty(prefijo + ".tasa-error",
+                        String.valueOf(base.tasaError))))
+                .estadoError(Integer.getInteger(prefijo + ".estado-error", base.estadoError))
+                .drenadoLento(Integer.getInteger(prefijo + ".drenado-lento", base.drenadoLento))
+                .build();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("latencia mediana=%.0fms sigma=%.2f, errores=%.1f%% (%d), drenado lento=%dms",
+                latenciaMediana, latenciaSigma, tasaError * 100, estadoError, drenadoLento);
+    }
+}
@@ -0,0 +1,111 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.carga;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Prueba de carga de extremo a extremo sobre {@code /api/v1/core/procesar-cores} con el core
+ * simulado localmente. No forma parte de {@code mvn test}; se ejecuta con {@code mvn -Pcarga test}.
+ *
+ * <p>La tasa y la duración se ajustan con {@code -Dcarga.tasa} (solicitudes por segundo) y
+ * {@code -Dcarga.duracion} (segundos). El perfil de cada endpoint del simulador se ajusta con las
+ * propiedades {@code simulador.tarjeta.*} y {@code simulador.cuenta.*} descritas en
+ * {@link PerfilSimulador#desdePropiedades(String, PerfilSimulador)}.
+ */
+@Tag("carga")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "logging.level.com.banquito=WARN",
+        "server.tomcat.threads.max=400"
+})
+@ActiveProfiles("test")
+public class ProcesarCoresCargaTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ProcesarCoresCargaTest.class);
+
+    private static final int TASA = Integer.getInteger("carga.tasa", 200);
+    private static final Duration DURACION = Duration.ofSeconds(Integer.getInteger("carga.duracion", 20));
+    private static final Duration CALENTAMIENTO = Duration.ofSeconds(Integer.getInteger("carga.calentamiento", 5));
+
+    private static final SimuladorCoreBancario simulador = iniciarSimulador();
+
+    @LocalServerPort
+    private int puerto;
+
+    @DynamicPropertySource
+    static void configurarPropiedades(DynamicPropertyRegistry registry) {
+        registry.add("core.bancario.url", simulador::baseUrl);
+    }
+
+    @AfterAll
+    static void detenerSimulador() {
+        simulador.detener();
+    }
+
+    @Test
+    public void latenciaNominal() throws Exception {
+        PerfilSimulador perfil = PerfilSimulador.builder().build();
+        ResultadoCarga resultado = ejecutar("nominal", perfil, perfil);
+
+        assertEquals(resultado.getEnviadas(), resultado.getCompletadas());
+    }
+
+    @Test
+    public void erroresDelCore() throws Exception {
+        PerfilSimulador perfil = PerfilSimulador.builder().tasaError(0.05).build();
+        ResultadoCarga resultado = ejecutar("errores", perfil, perfil);
+
+        assertEquals(resultado.getEnviadas(), resultado.getCompletadas());
+    }
+
+    @Test
+    public void drenadoLentoEnCredito() throws Exception {
+        ResultadoCarga resultado = ejecutar("drenado-lento", PerfilSimulador.builder().build(),
+                PerfilSimulador.builder().drenadoLento(500).build());
+
+        assertTrue(resultado.getCompletadas() > 0);
+    }
+
+    private ResultadoCarga ejecutar(String escenario, PerfilSimulador tarjeta, PerfilSimulador cuenta)
+            throws InterruptedException {
+        tarjeta = PerfilSimulador.desdePropiedades("simulador.tarjeta", tarjeta);
+        cuenta = PerfilSimulador.desdePropiedades("simulador.cuenta", cuenta);
+        simulador.configurar(tarjeta, cuenta);
+
+        URI destino = URI.create("http://localhost:" + puerto + "/api/v1/core/procesar-cores");
+        try (GeneradorCargaAbierta generador = new GeneradorCargaAbierta(Duration.ofSeconds(30))) {
+            generador.ejecutar(destino, i -> transaccion(escenario + "-calentamiento-" + i), TASA, CALENTAMIENTO);
+            ResultadoCarga resultado = generador.ejecutar(destino, i -> transaccion(escenario + "-" + i), TASA,
+                    DURACION);
+            log.info("Escenario {} | tarjeta: {} | cuenta: {}", escenario, tarjeta, cuenta);
+            log.info("Escenario {} | {}", escenario, resultado.reporte());
+            return resultado;
+        }
+    }
+
+    private static SimuladorCoreBancario iniciarSimulador() {
+        SimuladorCoreBancario nuevo = new SimuladorCoreBancario(Integer.getInteger("simulador.hilos", 400));
+        nuevo.iniciar();
+        return nuevo;
+    }
+
+    private static String transaccion(String codigoUnico) {
+        return "{\"codTransaccion\":\"TRX123456\",\"codigoUnico\":\"" + codigoUnico + "\","
+                + "\"codigoGtw\":\"PAYPAL\",\"numeroTarjeta\":\"4111111111111111\",\"cvv\":\"123\","
+                + "\"fechaCaducidad\":\"12/30\",\"monto\":100.00,\"codigoMoneda\":\"USD\",\"marca\":\"VISA\","
+                + "\"tipo\":\"COM\",\"swiftBancoTarjeta\":\"BANQECAA\",\"swiftBancoComercio\":\"BANQECBB\","
+                + "\"cuentaIbanComercio\":\"ES9121000418450200051332\",\"referencia\":\"REF123456\",\"pais\":\"EC\"}";
+    }
+}
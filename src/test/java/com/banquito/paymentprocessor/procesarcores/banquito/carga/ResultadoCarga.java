@@ -0,0 +1,79 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.carga;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resultado de una ejecución de {@link GeneradorCargaAbierta}. Las latencias se miden desde el
+ * instante en que la solicitud debía enviarse, por lo que incluyen la espera causada por un
+ * servidor saturado.
+ */
+public class ResultadoCarga {
+
+    private final int tasaObjetivo;
+    private final Duration duracion;
+    private final long[] latencias;
+    private final Map<Integer, Integer> estados;
+    private final int sinRespuesta;
+
+    ResultadoCarga(int tasaObjetivo, Duration duracion, long[] latenciasNanos, int[] estadosPorSolicitud) {
+        this.tasaObjetivo = tasaObjetivo;
+        this.duracion = duracion;
+        this.estados = new TreeMap<>();
+        int completadas = 0;
+        int fallidas = 0;
+        long[] medidas = new long[latenciasNanos.length];
+        for (int i = 0; i < latenciasNanos.length; i++) {
+            if (estadosPorSolicitud[i] > 0) {
+                medidas[completadas++] = latenciasNanos[i];
+                estados.merge(estadosPorSolicitud[i], 1, Integer::sum);
+            } else {
+                fallidas++;
+            }
+        }
+        this.latencias = Arrays.copyOf(medidas, completadas);
+        Arrays.sort(this.latencias);
+        this.sinRespuesta = fallidas;
+    }
+
+    public int getEnviadas() {
+        return latencias.length + sinRespuesta;
+    }
+
+    public int getCompletadas() {
+        return latencias.length;
+    }
+
+    public int getSinRespuesta() {
+        return sinRespuesta;
+    }
+
+    public Map<Integer, Integer> getEstados() {
+        return estados;
+    }
+
+    public double throughput() {
+        return latencias.length / (duracion.toNanos() / 1e9);
+    }
+
+    /**
+     * Percentil de latencia en ms, con {@code percentil} entre 0 y 1.
+     */
+    public double percentil(double percentil) {
+        if (latencias.length == 0) {
+            return Double.NaN;
+        }
+        int indice = (int) Math.ceil(percentil * latencias.length) - 1;
+        return latencias[Math.max(0, Math.min(indice, latencias.length - 1))] / 1e6;
+    }
+
+    public String reporte() {
+        return String.format(
+                "tasa objetivo=%d/s enviadas=%d completadas=%d sin respuesta=%d throughput=%.1f/s "
+                        + "p50=%.1fms p99=%.1fms p999=%.1fms max=%.1fms estados=%s",
+                tasaObjetivo, getEnviadas(), getCompletadas(), sinRespuesta, throughput(),
+                percentil(0.50), percentil(0.99), percentil(0.999), percentil(1.0), estados);
+    }
+}
@@ -0,0 +1,107 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.carga;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+/**
+ * Simulador local de los endpoints de débito y crédito del core bancario sobre WireMock. Cada
+ * endpoint tiene su propio {@link PerfilSimulador}; no requiere red externa.
+ */
+public class SimuladorCoreBancario {
+
+    public static final String RUTA_TARJETA = "/v1/transacciones/tarjeta";
+    public static final String RUTA_CUENTA = "/v1/transacciones/cuenta";
+
+    private static final String APROBADO = "{\"estado\":\"APROBADO\",\"mensaje\":\"Transacción simulada\","
+            + "\"codigoRespuesta\":\"00\",\"codigoTransaccion\":\"SIM123\"}";
+
+    private final WireMockServer servidor;
+
+    public SimuladorCoreBancario(int hilos) {
+        this.servidor = new WireMockServer(wireMockConfig()
+                .dynamicPort()
+                .containerThreads(hilos)
+                .jettyAcceptors(2)
+                .disableRequestJournal()
+                .extensions(new FallasAleatorias()));
+    }
+
+    public void iniciar() {
+        servidor.start();
+    }
+
+    public void detener() {
+        servidor.stop();
+    }
+
+    public String baseUrl() {
+        return servidor.baseUrl();
+    }
+
+    public void configurar(PerfilSimulador tarjeta, PerfilSimulador cuenta) {
+        servidor.resetAll();
+        servidor.stubFor(post(urlEqualTo(RUTA_TARJETA)).willReturn(respuesta(tarjeta)));
+        servidor.stubFor(post(urlEqualTo(RUTA_CUENTA)).willReturn(respuesta(cuenta)));
+    }
+
+    private ResponseDefinitionBuilder respuesta(PerfilSimulador perfil) {
+        ResponseDefinitionBuilder respuesta = aResponse()
+                .withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withBody(APROBADO)
+                .withTransformers(FallasAleatorias.NOMBRE)
+                .withTransformerParameter("tasaError", perfil.getTasaError())
+                .withTransformerParameter("estadoError", perfil.getEstadoError());
+        if (perfil.getLatenciaMediana() > 0) {
+            respuesta.withLogNormalRandomDelay(perfil.getLatenciaMediana(), perfil.getLatenciaSigma());
+        }
+        if (perfil.getDrenadoLento() > 0) {
+            respuesta.withChunkedDribbleDelay(perfil.getFragmentosDrenado(), perfil.getDrenadoLento());
+        }
+        return respuesta;
+    }
+
+    /**
+     * Reemplaza la respuesta aprobada por una de error con la probabilidad configurada.
+     */
+    static class FallasAleatorias extends ResponseDefinitionTransformer {
+
+        static final String NOMBRE = "fallas-aleatorias";
+
+        @Override
+        public ResponseDefinition transform(Request request, ResponseDefinition respuesta, FileSource archivos,
+                Parameters parametros) {
+            double tasaError = ((Number) parametros.getOrDefault("tasaError", 0)).doubleValue();
+            if (tasaError <= 0 || ThreadLocalRandom.current().nextDouble() >= tasaError) {
+                return respuesta;
+            }
+            int estadoError = ((Number) parametros.getOrDefault("estadoError", 503)).intValue();
+            return ResponseDefinitionBuilder.like(respuesta).but()
+                    .withStatus(estadoError)
+                    .withBody("{\"estado\":\"ERROR\",\"mensaje\":\"Falla simulada\"}")
+                    .build();
+        }
+
+        @Override
+        public boolean applyGlobally() {
+            return false;
+        }
+
+        @Override
+        public String getName() {
+            return NOMBRE;
+        }
+    }
+}
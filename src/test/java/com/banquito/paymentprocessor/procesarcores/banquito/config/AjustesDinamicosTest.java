@@ -0,0 +1,156 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.exception.CoreProcessingException;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.Plazo;
+
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AjustesDinamicosTest {
+
+    @TempDir
+    private Path directorio;
+
+    private AjustesDinamicos ajustes;
+
+    @AfterEach
+    public void cerrar() {
+        if (ajustes != null) {
+            ajustes.close();
+        }
+    }
+
+    @Test
+    public void recarga_aplicaElArchivoYConservaLosAjustesAnterioresSiEsInvalido() throws Exception {
+        Path archivo = directorio.resolve("ajustes.properties");
+        Files.writeString(archivo, AjustesCore.TIMEOUT_LECTURA + "=1200\n");
+        ajustes = crear(archivo);
+        assertEquals(1200, ajustes.actual().getTimeoutLectura());
+        assertEquals(1000, ajustes.actual().getTimeoutConexion());
+
+        Files.writeString(archivo, AjustesCore.TIMEOUT_LECTURA + "=800\n" + AjustesCore.MAX_INTENTOS + "=1\n");
+        Files.setLastModifiedTime(archivo, FileTime.from(Instant.now().plusSeconds(10)));
+        esperar(() -> ajustes.actual().getTimeoutLectura() == 800);
+        assertEquals(1, ajustes.actual().getMaxIntentos());
+
+        AjustesCore vigentes = ajustes.actual();
+        Files.writeString(archivo, AjustesCore.BACKOFF + "=10\n" + AjustesCore.BACKOFF_MAXIMO + "=5\n");
+        Files.setLastModifiedTime(archivo, FileTime.from(Instant.now().plusSeconds(20)));
+        Thread.sleep(200);
+        assertSame(vigentes, ajustes.actual());
+    }
+
+    @Test
+    public void fijar_prevaleceSobreElArchivoHastaRestablecer() throws IOException {
+        Path archivo = directorio.resolve("ajustes.properties");
+        Files.writeString(archivo, AjustesCore.TIMEOUT_TRANSACCION + "=10\n", StandardCharsets.UTF_8);
+        ajustes = crear(archivo);
+
+        ajustes.fijar(AjustesCore.TIMEOUT_TRANSACCION, "3");
+        assertEquals(Duration.ofSeconds(3), ajustes.actual().getTimeoutTransaccion());
+        assertEquals(Map.of(AjustesCore.TIMEOUT_TRANSACCION, "3"), ajustes.getManuales());
+
+        assertThrows(IllegalArgumentException.class, () -> ajustes.fijar("core.desconocido", "1"));
+        assertThrows(IllegalArgumentException.class, () -> ajustes.fijar(AjustesCore.MAX_INTENTOS, "0"));
+        assertEquals(3, ajustes.actual().getMaxIntentos());
+
+        ajustes.restablecer();
+        assertEquals(Duration.ofSeconds(10), ajustes.actual().getTimeoutTransaccion());
+        assertTrue(ajustes.getManuales().isEmpty());
+    }
+
+    @Test
+    public void clienteAjustable_usaLosTimeoutsVigentesSalvoLosDeLaLlamada() throws IOException {
+        ajustes = crear(null);
+        AtomicReference<Request.Options> usadas = new AtomicReference<>();
+        ClienteCoreAjustable cliente = new ClienteCoreAjustable((request, opciones) -> {
+            usadas.set(opciones);
+            return Response.builder().status(200).request(request).build();
+        }, ajustes);
+        Request request = Request.create(Request.HttpMethod.POST, "http://core/tarjeta", Map.of(), null, null, null);
+
+        ajustes.fijar(AjustesCore.TIMEOUT_LECTURA, "700");
+        cliente.execute(request, new Request.Options(5, TimeUnit.SECONDS, 5, TimeUnit.SECONDS, true));
+        assertEquals(700, usadas.get().readTimeoutMillis());
+
+        OpcionesLlamada propias = new OpcionesLlamada(100, 1500);
+        cliente.execute(request, propias);
+        assertSame(propias, usadas.get());
+
+        // Un emisor que solo fija el timeout de lectura usa el de conexión vigente al momento de la llamada
+        OpcionesLlamada parciales = new OpcionesLlamada(null, 1500);
+        ajustes.fijar(AjustesCore.TIMEOUT_CONEXION, "300");
+        cliente.execute(request, parciales);
+        assertEquals(300, usadas.get().connectTimeoutMillis());
+        assertEquals(1500, usadas.get().readTimeoutMillis());
+    }
+
+    @Test
+    public void clienteAjustable_acotaLosTimeoutsAlPlazoYLoEnviaAlCore() throws IOException {
+        ajustes = crear(null);
+        AtomicReference<Request> enviada = new AtomicReference<>();
+        AtomicReference<Request.Options> usadas = new AtomicReference<>();
+        ClienteCoreAjustable cliente = new ClienteCoreAjustable((request, opciones) -> {
+            enviada.set(request);
+            usadas.set(opciones);
+            return Response.builder().status(200).request(request).build();
+        }, ajustes);
+        Request request = Request.create(Request.HttpMethod.POST, "http://core/tarjeta", Map.of(), null, null, null);
+
+        Plazo.de(Duration.ofMillis(800)).aplicar(() -> ejecutar(cliente, request));
+        assertTrue(usadas.get().readTimeoutMillis() <= 800);
+        assertTrue(usadas.get().connectTimeoutMillis() <= 800);
+        long enviado = Long.parseLong(enviada.get().headers().get(Plazo.CABECERA).iterator().next());
+        assertTrue(enviado > 0 && enviado <= 800);
+
+        enviada.set(null);
+        CoreProcessingException e = assertThrows(CoreProcessingException.class,
+                () -> Plazo.de(Duration.ZERO).aplicar(() -> ejecutar(cliente, request)));
+        assertEquals(Plazo.ERROR_PLAZO_VENCIDO, e.getErrorCode());
+        assertNull(enviada.get());
+    }
+
+    private Response ejecutar(ClienteCoreAjustable cliente, Request request) {
+        try {
+            return cliente.execute(request, new Request.Options());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private AjustesDinamicos crear(Path archivo) {
+        AjustesDinamicos nuevos = new AjustesDinamicos(
+                new AjustesCore(1000, 5000, 3, 100, 1000, Duration.ofSeconds(30)), archivo, 20,
+                new SimpleMeterRegistry());
+        nuevos.iniciar();
+        return nuevos;
+    }
+
+    private void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (!condicion.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < limite, "Los ajustes no se recargaron");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.client.CoreBancarioClient;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.CoreResponseDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.TarjetaRequestDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+
+public class CoreClientCodecTest {
+
+    private static final Request REQUEST = Request.create(Request.HttpMethod.POST,
+            "http://core/v1/transacciones/tarjeta", Collections.emptyMap(), new byte[0], StandardCharsets.UTF_8, null);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final CoreClientEncoder encoder = new CoreClientEncoder(objectMapper, List.of(TarjetaRequestDTO.class), 2);
+
+    private final CoreClientDecoder decoder = new CoreClientDecoder(objectMapper, List.of(CoreResponseDTO.class));
+
+    @Test
+    public void encode_escribeElJsonDelDtoReutilizandoBuffers() throws Exception {
+        TarjetaRequestDTO primera = tarjeta("TRX1", "100.00");
+        TarjetaRequestDTO segunda = tarjeta("TRX2", "7.5");
+
+        RequestTemplate plantillaPrimera = new RequestTemplate();
+        encoder.encode(primera, TarjetaRequestDTO.class, plantillaPrimera);
+        RequestTemplate plantillaSegunda = new RequestTemplate();
+        encoder.encode(segunda, TarjetaRequestDTO.class, plantillaSegunda);
+
+        // El cuerpo de la primera solicitud no debe verse afectado por reutilizar el buffer
+        assertEquals(primera, objectMapper.readValue(plantillaPrimera.body(), TarjetaRequestDTO.class));
+        assertEquals(segunda, objectMapper.readValue(plantillaSegunda.body(), TarjetaRequestDTO.class));
+        assertEquals(List.of("application/json"), List.copyOf(plantillaPrimera.headers().get("Content-Type")));
+    }
+
+    @Test
+    public void decode_construyeResponseEntityConEstadoYCuerpo() throws Exception {
+        CoreResponseDTO esperado = CoreResponseDTO.builder()
+                .estado("APROBADO")
+                .codigoRespuesta("00")
+                .codigoTransaccion("AUTH123")
+                .build();
+
+        Object resultado = decoder.decode(respuesta(201, objectMapper.writeValueAsBytes(esperado)), tipoRespuesta());
+
+        ResponseEntity<?> entidad = assertInstanceOf(ResponseEntity.class, resultado);
+        assertEquals(HttpStatus.CREATED, entidad.getStatusCode());
+        assertEquals(esperado, entidad.getBody());
+        assertEquals("req-1", entidad.getHeaders().getFirst("X-Request-Id"));
+    }
+
+    @Test
+    public void decode_cuerpoVacioDevuelveEntidadSinCuerpo() throws Exception {
+        Object resultado = decoder.decode(respuesta(200, new byte[0]), tipoRespuesta());
+
+        ResponseEntity<?> entidad = assertInstanceOf(ResponseEntity.class, resultado);
+        assertEquals(HttpStatus.OK, entidad.getStatusCode());
+        assertNull(entidad.getBody());
+    }
+
+    private Type tipoRespuesta() throws NoSuchMethodException {
+        return CoreBancarioClient.class.getMethod("procesarTransaccionTarjeta", TarjetaRequestDTO.class)
+                .getGenericReturnType();
+    }
+
+    private Response respuesta(int status, byte[] cuerpo) {
+        return Response.builder()
+                .status(status)
+                .reason("OK")
+                .headers(Map.of("X-Request-Id", List.of("req-1")))
+                .request(REQUEST)
+                .body(cuerpo)
+                .build();
+    }
+
+    private TarjetaRequestDTO tarjeta(String codigoUnico, String monto) {
+        return TarjetaRequestDTO.builder()
+                .tipo("COM")
+                .monto(new BigDecimal(monto))
+                .moneda("USD")
+                .pais("EC")
+                .swift("BANQECAA")
+                .numeroTarjeta("4111111111111111")
+                .codigoUnicoTransaccion(codigoUnico)
+                .referencia("REF123456")
+                .diferido(false)
+                .cuotas(1)
+                .build();
+    }
+}
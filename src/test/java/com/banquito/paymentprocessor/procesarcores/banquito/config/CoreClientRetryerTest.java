@@ -0,0 +1,134 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.service.Plazo;
+
+import feign.Request;
+import feign.Response;
+import feign.RetryableException;
+import feign.Retryer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+
+public class CoreClientRetryerTest {
+
+    private static final Request REQUEST = Request.create(Request.HttpMethod.POST,
+            "http://core/v1/transacciones/tarjeta", Collections.emptyMap(), new byte[0], StandardCharsets.UTF_8, null);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final MetricasReintentos metricas = new MetricasReintentos(meterRegistry, ObservationRegistry.NOOP);
+
+    @Test
+    public void continueOrPropagate_reintentaErroresDeConexionHastaMaximo() {
+        Retryer retryer = new CoreClientRetryer(3, 1, 5, new PresupuestoReintentos(10, 0), metricas).clone();
+        RetryableException e = errorDeConexion();
+
+        retryer.continueOrPropagate(e);
+        retryer.continueOrPropagate(e);
+        assertThrows(RetryableException.class, () -> retryer.continueOrPropagate(e));
+
+        assertEquals(2, meterRegistry.get("core.reintentos").tag("resultado", "reintentado")
+                .tag("causa", "conexion").counter().count());
+        assertEquals(1, meterRegistry.get("core.reintentos").tag("resultado", "intentos-agotados")
+                .counter().count());
+        assertEquals(2, meterRegistry.get("core.reintentos.espera").timer().count());
+    }
+
+    @Test
+    public void continueOrPropagate_noReintentaTimeoutDeLectura() {
+        Retryer retryer = new CoreClientRetryer(3, 1, 5, new PresupuestoReintentos(10, 0), metricas).clone();
+        RetryableException e = new RetryableException(-1, "Read timed out", Request.HttpMethod.POST,
+                new SocketTimeoutException("Read timed out"), (Long) null, REQUEST);
+
+        assertThrows(RetryableException.class, () -> retryer.continueOrPropagate(e));
+    }
+
+    @Test
+    public void continueOrPropagate_noReintentaErrorDelServidorConRetryAfter() {
+        Retryer retryer = new CoreClientRetryer(3, 1, 5, new PresupuestoReintentos(10, 0), metricas).clone();
+        Response respuesta = Response.builder()
+                .status(502)
+                .reason("Bad Gateway")
+                .headers(Map.of("Retry-After", List.of("0")))
+                .request(REQUEST)
+                .build();
+
+        // El decoder por defecto de Feign la devuelve como reintentable por traer Retry-After
+        RetryableException e = assertInstanceOf(RetryableException.class,
+                new CoreClientErrorDecoder().decode("CoreBancarioClient#procesarTransaccionTarjeta", respuesta));
+
+        assertThrows(RetryableException.class, () -> retryer.continueOrPropagate(e));
+    }
+
+    @Test
+    public void continueOrPropagate_presupuestoCompartidoEntreClones() {
+        PresupuestoReintentos presupuesto = new PresupuestoReintentos(1, 0);
+        CoreClientRetryer prototipo = new CoreClientRetryer(3, 1, 5, presupuesto, metricas);
+        RetryableException e = errorDeConexion();
+
+        prototipo.clone().continueOrPropagate(e);
+        Retryer otraLlamada = prototipo.clone();
+
+        assertThrows(RetryableException.class, () -> otraLlamada.continueOrPropagate(e));
+        assertEquals(0d, presupuesto.disponibles(), 0.01);
+    }
+
+    @Test
+    public void continueOrPropagate_respetaRetryAfter() {
+        CoreClientRetryer retryer = new CoreClientRetryer(3, 1, 5_000, new PresupuestoReintentos(10, 0), metricas);
+        Long retryAfter = CoreClientErrorDecoder.retryAfter(List.of("2"));
+        RetryableException e = new RetryableException(503, "Service Unavailable", Request.HttpMethod.POST,
+                retryAfter, REQUEST);
+
+        long espera = retryer.calcularEspera(e);
+
+        assertTrue(espera > 1_000 && espera <= 2_000);
+    }
+
+    @Test
+    public void continueOrPropagate_retryAfterMayorAlMaximoNoSeReintenta() {
+        Retryer retryer = new CoreClientRetryer(3, 1, 1_000, new PresupuestoReintentos(10, 0), metricas).clone();
+        RetryableException e = new RetryableException(429, "Too Many Requests", Request.HttpMethod.POST,
+                CoreClientErrorDecoder.retryAfter(List.of("60")), REQUEST);
+
+        assertThrows(RetryableException.class, () -> retryer.continueOrPropagate(e));
+    }
+
+    @Test
+    public void continueOrPropagate_esperaMayorAlPlazoNoSeReintenta() {
+        Retryer retryer = new CoreClientRetryer(3, 1, 5_000, new PresupuestoReintentos(10, 0), metricas).clone();
+        RetryableException e = new RetryableException(503, "Service Unavailable", Request.HttpMethod.POST,
+                CoreClientErrorDecoder.retryAfter(List.of("2")), REQUEST);
+
+        Plazo.de(Duration.ofMillis(500)).aplicar(() -> assertThrows(RetryableException.class,
+                () -> retryer.continueOrPropagate(e)));
+
+        assertEquals(1, meterRegistry.get("core.reintentos").tag("resultado", "plazo-vencido").counter().count());
+    }
+
+    @Test
+    public void calcularEspera_fullJitterDentroDelTecho() {
+        CoreClientRetryer retryer = new CoreClientRetryer(10, 100, 300, new PresupuestoReintentos(10, 0), metricas);
+        for (int i = 0; i < 100; i++) {
+            long espera = retryer.calcularEspera(errorDeConexion());
+            assertTrue(espera >= 0 && espera <= 300);
+        }
+    }
+
+    private RetryableException errorDeConexion() {
+        return new RetryableException(-1, "Connection refused", Request.HttpMethod.POST,
+                new ConnectException("Connection refused"), (Long) null, REQUEST);
+    }
+}
@@ -1,18 +1,25 @@
 package com.banquito.paymentprocessor.procesarcores.banquito.controller;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
@@ -21,10 +28,14 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreDTO;
 import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreResponseDTO;
 import com.banquito.paymentprocessor.procesarcores.banquito.exception.CoreProcessingException;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.LimitadorConcurrencia;
+import com.banquito.paymentprocessor.procesarcores.banquito.service.PlanificadorGateways;
 import com.banquito.paymentprocessor.procesarcores.banquito.service.ProcesarCoreService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 public class ProcesarCoreControllerTest {
 
@@ -33,6 +44,13 @@ public class ProcesarCoreControllerTest {
     @Mock
     private ProcesarCoreService service;
     
+    private final LimitadorConcurrencia limitadorConcurrencia = new LimitadorConcurrencia(true, 1, 1, 10,
+            new SimpleMeterRegistry());
+    
+    @Spy
+    private PlanificadorGateways planificadorGateways = new PlanificadorGateways(limitadorConcurrencia, Map.of(),
+            Set.of(), 0, 0, new SimpleMeterRegistry());
+    
     @InjectMocks
     private ProcesarCoreController controller;
     
@@ -40,7 +58,9 @@ public class ProcesarCoreControllerTest {
     
     @BeforeEach
     public void setup() {
-        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new ManejadorValidacion())
+                .build();
         objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule()); // Para manejar LocalDateTime
     }
@@ -55,7 +75,7 @@ public class ProcesarCoreControllerTest {
         responseDTO.setMensaje("Transacción procesada exitosamente");
         
         // Configurar comportamiento del mock
-        when(service.procesarTransaccion(any(TransaccionCoreDTO.class))).thenReturn(responseDTO);
+        when(service.procesarTransaccion(any(TransaccionCoreDTO.class), any())).thenReturn(responseDTO);
         
         // Ejecutar y verificar
         mockMvc.perform(post("/api/v1/core/procesar")
@@ -70,7 +90,7 @@ public class ProcesarCoreControllerTest {
         TransaccionCoreDTO transaccionDTO = crearTransaccionDTOPrueba();
         
         // Configurar comportamiento del mock
-        when(service.procesarTransaccion(any(TransaccionCoreDTO.class)))
+        when(service.procesarTransaccion(any(TransaccionCoreDTO.class), any()))
             .thenThrow(new CoreProcessingException("Error en procesamiento del core", (String)null));
         
         // Ejecutar y verificar
@@ -86,7 +106,7 @@ public class ProcesarCoreControllerTest {
         TransaccionCoreDTO transaccionDTO = crearTransaccionDTOPrueba();
         
         // Configurar comportamiento del mock
-        when(service.procesarTransaccion(any(TransaccionCoreDTO.class)))
+        when(service.procesarTransaccion(any(TransaccionCoreDTO.class), any()))
             .thenThrow(new RuntimeException("Error interno"));
         
         // Ejecutar y verificar
@@ -96,6 +116,38 @@ public class ProcesarCoreControllerTest {
                 .andExpect(status().isInternalServerError());
     }
     
+    @Test
+    public void procesarTransaccion_carrilLleno() throws Exception {
+        TransaccionCoreDTO transaccionDTO = crearTransaccionDTOPrueba();
+        limitadorConcurrencia.adquirir();
+        
+        mockMvc.perform(post("/api/v1/core/procesar-cores")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(transaccionDTO)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+        
+        verify(service, never()).procesarTransaccion(any(TransaccionCoreDTO.class), any());
+    }
+    
+    @Test
+    public void procesarTransaccion_datosInvalidosNoLleganAlCore() throws Exception {
+        TransaccionCoreDTO transaccionDTO = crearTransaccionDTOPrueba();
+        transaccionDTO.setNumeroTarjeta("4111111111111112");
+        transaccionDTO.setFechaCaducidad("01/20");
+        
+        mockMvc.perform(post("/api/v1/core/procesar-cores")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(transaccionDTO)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.codigoUnico").value("UNIQUE123"))
+                .andExpect(jsonPath("$.errores.length()").value(2))
+                .andExpect(jsonPath("$.errores[?(@.campo == 'numeroTarjeta')].mensaje")
+                        .value("número de tarjeta inválido"));
+        
+        verify(service, never()).procesarTransaccion(any(TransaccionCoreDTO.class), any());
+    }
+    
     private TransaccionCoreDTO crearTransaccionDTOPrueba() {
         TransaccionCoreDTO dto = new TransaccionCoreDTO();
         dto.setCodTransaccion("TRX123456");
@@ -103,7 +155,7 @@ public class ProcesarCoreControllerTest {
         dto.setCodigoGtw("PAYPAL");
         dto.setNumeroTarjeta("4111111111111111");
         dto.setCvv("123");
-        dto.setFechaCaducidad("12/25");
+        dto.setFechaCaducidad("12/30");
         dto.setMonto(new BigDecimal("100.00"));
         dto.setCodigoMoneda("USD");
         dto.setMarca("VISA");
@@ -0,0 +1,173 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.ComercioRequestDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AcumuladorCreditosTest {
+
+    private static final String IBAN = "EC-COMERCIO-1";
+
+    @TempDir
+    private Path directorio;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final List<AcumuladorCreditos> acumuladores = new ArrayList<>();
+
+    @AfterEach
+    public void cerrar() {
+        acumuladores.forEach(AcumuladorCreditos::close);
+    }
+
+    @Test
+    public void agregar_liquidaUnSoloCreditoPorIbanAlAlcanzarElMaximo() {
+        ColaCompensaciones cola = mock(ColaCompensaciones.class);
+        AcumuladorCreditos acumulador = crear(cola);
+
+        acumulador.agregar(credito("TRX1", IBAN, "10.00"));
+        acumulador.agregar(credito("TRX2", "EC-COMERCIO-2", "5.00"));
+        acumulador.agregar(credito("TRX3", IBAN, "20.50"));
+        verify(cola, never()).encolar(any());
+        acumulador.agregar(credito("TRX4", IBAN, "1.50"));
+
+        ArgumentCaptor<Compensacion> liquidacion = ArgumentCaptor.forClass(Compensacion.class);
+        verify(cola).encolar(liquidacion.capture());
+        Compensacion encolada = liquidacion.getValue();
+        assertEquals(OperacionCore.CREDITO_AGREGADO, encolada.getOperacion());
+        assertEquals(List.of("TRX1", "TRX3", "TRX4"), encolada.getManifiesto());
+        assertEquals(IBAN, encolada.getCredito().getIban());
+        assertEquals(new BigDecimal("32.00"), encolada.getCredito().getMonto());
+        assertEquals(encolada.getId(), encolada.getCredito().getCodigoUnico());
+    }
+
+    @Test
+    public void iniciar_recuperaLosCreditosPendientesDeLaBitacora() {
+        ColaCompensaciones cola = mock(ColaCompensaciones.class);
+        AcumuladorCreditos anterior = crear(cola);
+        anterior.agregar(credito("TRX1", IBAN, "10.00"));
+        anterior.agregar(credito("TRX2", IBAN, "15.00"));
+        anterior.close();
+
+        AcumuladorCreditos recuperado = crear(cola);
+        recuperado.agregar(credito("TRX3", IBAN, "5.00"));
+
+        ArgumentCaptor<Compensacion> liquidacion = ArgumentCaptor.forClass(Compensacion.class);
+        verify(cola).encolar(liquidacion.capture());
+        assertEquals(List.of("TRX1", "TRX2", "TRX3"), liquidacion.getValue().getManifiesto());
+        assertEquals(new BigDecimal("30.00"), liquidacion.getValue().getCredito().getMonto());
+    }
+
+    @Test
+    public void iniciar_reencolaLaLiquidacionAnotadaQueNoLlegoALaCola() {
+        ColaCompensaciones caida = mock(ColaCompensaciones.class);
+        doThrow(new IllegalStateException("Caída antes de encolar")).when(caida).encolar(any());
+        AcumuladorCreditos anterior = crear(caida);
+        anterior.agregar(credito("TRX1", IBAN, "10.00"));
+        anterior.agregar(credito("TRX2", IBAN, "10.00"));
+        assertDoesNotThrow(() -> anterior.agregar(credito("TRX3", IBAN, "10.00")));
+        ArgumentCaptor<Compensacion> perdida = ArgumentCaptor.forClass(Compensacion.class);
+        verify(caida).encolar(perdida.capture());
+
+        ColaCompensaciones cola = mock(ColaCompensaciones.class);
+        crear(cola);
+
+        ArgumentCaptor<Compensacion> reencolada = ArgumentCaptor.forClass(Compensacion.class);
+        verify(cola).encolar(reencolada.capture());
+        assertEquals(perdida.getValue().getId(), reencolada.getValue().getId());
+        assertEquals(List.of("TRX1", "TRX2", "TRX3"), reencolada.getValue().getManifiesto());
+    }
+
+    @Test
+    public void agregar_reintentaEnLaSiguienteRevisionLaLiquidacionQueLaColaRechazo() {
+        ColaCompensaciones cola = mock(ColaCompensaciones.class);
+        doThrow(new IllegalStateException("Disco lleno")).doNothing().when(cola).encolar(any());
+        AcumuladorCreditos acumulador = crear(cola);
+        acumulador.agregar(credito("TRX1", IBAN, "10.00"));
+        acumulador.agregar(credito("TRX2", IBAN, "10.00"));
+        acumulador.agregar(credito("TRX3", IBAN, "10.00"));
+
+        acumulador.liquidarVencidos();
+
+        ArgumentCaptor<Compensacion> liquidacion = ArgumentCaptor.forClass(Compensacion.class);
+        verify(cola, times(2)).encolar(liquidacion.capture());
+        assertEquals(liquidacion.getAllValues().get(0).getId(), liquidacion.getAllValues().get(1).getId());
+    }
+
+    @Test
+    public void iniciar_noReenviaLaLiquidacionQueLaColaConfirmo() {
+        ColaCompensaciones cola = mock(ColaCompensaciones.class);
+        AcumuladorCreditos anterior = crear(cola);
+        anterior.agregar(credito("TRX1", IBAN, "10.00"));
+        anterior.agregar(credito("TRX2", IBAN, "10.00"));
+        anterior.agregar(credito("TRX3", IBAN, "10.00"));
+        ArgumentCaptor<Compensacion> liquidacion = ArgumentCaptor.forClass(Compensacion.class);
+        verify(cola).encolar(liquidacion.capture());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Consumer<Compensacion>> oyente = ArgumentCaptor.forClass(Consumer.class);
+        verify(cola).alCompletar(oyente.capture());
+        // La cola aplicó la liquidación y la retiró antes de la caída, sin compactar la bitácora
+        oyente.getValue().accept(liquidacion.getValue());
+
+        crear(cola);
+
+        verify(cola).encolar(any());
+    }
+
+    @Test
+    public void iniciar_noReenviaLaLiquidacionAplicadaAntesDeRegistrarElOyente() {
+        ColaCompensaciones anteriorCola = mock(ColaCompensaciones.class);
+        AcumuladorCreditos anterior = crear(anteriorCola);
+        anterior.agregar(credito("TRX1", IBAN, "10.00"));
+        anterior.agregar(credito("TRX2", IBAN, "10.00"));
+        anterior.agregar(credito("TRX3", IBAN, "10.00"));
+        ArgumentCaptor<Compensacion> liquidacion = ArgumentCaptor.forClass(Compensacion.class);
+        verify(anteriorCola).encolar(liquidacion.capture());
+
+        // Al reiniciar, la cola recupera y aplica la liquidación antes de que el acumulador se registre
+        ColaCompensaciones cola = mock(ColaCompensaciones.class);
+        doAnswer(invocacion -> {
+            invocacion.<Consumer<Compensacion>>getArgument(0).accept(liquidacion.getValue());
+            return null;
+        }).when(cola).alCompletar(any());
+        crear(cola);
+
+        verify(cola, never()).encolar(any());
+    }
+
+    private AcumuladorCreditos crear(ColaCompensaciones cola) {
+        AcumuladorCreditos acumulador = new AcumuladorCreditos(true, Set.of(), 3, null, 60_000, 1024 * 1024,
+                directorio, objectMapper, cola, new SimpleMeterRegistry());
+        acumulador.iniciar();
+        acumuladores.add(acumulador);
+        return acumulador;
+    }
+
+    private ComercioRequestDTO credito(String codigoUnico, String iban, String monto) {
+        return ComercioRequestDTO.builder()
+                .iban(iban)
+                .swift("BANQECBB")
+                .tipo("COM")
+                .codigoUnico(codigoUnico)
+                .monto(new BigDecimal(monto))
+                .referencia("REF-" + codigoUnico)
+                .build();
+    }
+}
@@ -0,0 +1,124 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class CoberturaDebitoTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CoberturaDebito cobertura;
+
+    @AfterEach
+    public void cerrar() {
+        cobertura.close();
+    }
+
+    @Test
+    public void ejecutar_llamadaLentaSeCubreYGanaLaMasRapida() {
+        cobertura = crear(100);
+        calentar();
+        AtomicInteger llamadas = new AtomicInteger();
+
+        long inicio = System.nanoTime();
+        String respuesta = cobertura.ejecutar(() -> llamadas.incrementAndGet() == 1 ? lenta("ORIGINAL") : "COBERTURA");
+        long milisegundos = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        assertEquals("COBERTURA", respuesta);
+        assertEquals(2, llamadas.get());
+        assertTrue(milisegundos < 1000, "la respuesta no debe esperar a la llamada lenta: " + milisegundos);
+        assertEquals(1d, meterRegistry.get("core.cobertura.enviadas").counter().count());
+        // La cobertura cuenta su victoria después de entregar la respuesta
+        esperarHasta(() -> meterRegistry.get("core.cobertura.ganadas").counter().count() == 1d);
+    }
+
+    @Test
+    public void ejecutar_sinPresupuestoNoEnviaCobertura() {
+        cobertura = crear(0);
+        calentar();
+        AtomicInteger llamadas = new AtomicInteger();
+
+        String respuesta = cobertura.ejecutar(() -> {
+            llamadas.incrementAndGet();
+            return dormir(200, "ORIGINAL");
+        });
+
+        assertEquals("ORIGINAL", respuesta);
+        assertEquals(1, llamadas.get());
+        assertEquals(0d, meterRegistry.get("core.cobertura.enviadas").counter().count());
+    }
+
+    @Test
+    public void ejecutar_fallaDeLaOriginalUsaLaCobertura() {
+        cobertura = crear(100);
+        calentar();
+        AtomicInteger llamadas = new AtomicInteger();
+
+        String respuesta = cobertura.ejecutar(() -> {
+            if (llamadas.incrementAndGet() == 1) {
+                dormir(200, null);
+                throw new IllegalStateException("timeout de lectura");
+            }
+            return "COBERTURA";
+        });
+
+        assertEquals("COBERTURA", respuesta);
+    }
+
+    @Test
+    public void ejecutar_errorDeTodasLasLlamadasNoDejaAlLlamadorEsperando() {
+        cobertura = crear(100);
+        calentar();
+
+        assertThrows(AssertionError.class, () -> cobertura.ejecutar(() -> {
+            dormir(100, null);
+            throw new AssertionError("error en la llamada");
+        }));
+    }
+
+    private CoberturaDebito crear(double porcentajeMaximo) {
+        return new CoberturaDebito(true, 0.95, 20, porcentajeMaximo, Executors.newVirtualThreadPerTaskExecutor(),
+                meterRegistry);
+    }
+
+    /**
+     * Registra las muestras mínimas para que exista un percentil; con llamadas instantáneas el
+     * retardo queda en el mínimo configurado.
+     */
+    private void calentar() {
+        for (int i = 0; i < 100; i++) {
+            cobertura.ejecutar(() -> "RAPIDA");
+        }
+        assertEquals(20d, meterRegistry.get("core.cobertura.retardo").gauge().value());
+    }
+
+    private void esperarHasta(BooleanSupplier condicion) {
+        long limite = System.currentTimeMillis() + 1000;
+        while (!condicion.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < limite, "La condición no se cumplió a tiempo");
+            dormir(5, null);
+        }
+    }
+
+    private String lenta(String valor) {
+        return dormir(1500, valor);
+    }
+
+    private String dormir(long milisegundos, String valor) {
+        try {
+            Thread.sleep(milisegundos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,204 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.ReversoRequestDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.exception.CoreProcessingException;
+import com.banquito.paymentprocessor.procesarcores.banquito.util.CifradorPan;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class ColaCompensacionesTest {
+
+    @TempDir
+    private Path directorio;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final List<ColaCompensaciones> colas = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    public void cerrar() {
+        colas.forEach(ColaCompensaciones::close);
+    }
+
+    @Test
+    public void encolar_ejecutaElReversoYLimpiaElRegistro() throws Exception {
+        List<String> reversados = new CopyOnWriteArrayList<>();
+        ColaCompensaciones cola = crearCola(20, compensacion -> reversados.add(compensacion.getCodigoUnico()));
+
+        cola.encolar(crearCompensacion("TRX1"));
+
+        esperarHasta(() -> reversados.contains("TRX1") && cola.pendientes().isEmpty());
+        assertTrue(cola.fallidas().isEmpty());
+    }
+
+    @Test
+    public void alCompletar_entregaLasLiquidacionesAplicadasAntesDeRegistrarse() throws Exception {
+        ColaCompensaciones cola = crearCola(20, compensacion -> { });
+        Compensacion liquidacion = crearCompensacion("LIQ-1").toBuilder()
+                .operacion(OperacionCore.CREDITO_AGREGADO)
+                .reverso(null)
+                .manifiesto(List.of("TRX1", "TRX2"))
+                .build();
+        cola.encolar(liquidacion);
+        cola.encolar(crearCompensacion("TRX3"));
+        esperarHasta(() -> cola.pendientes().isEmpty());
+
+        List<String> completadas = new CopyOnWriteArrayList<>();
+        cola.alCompletar(compensacion -> completadas.add(compensacion.getCodigoUnico()));
+        cola.encolar(crearCompensacion("TRX4"));
+
+        // Sin oyente solo se guardan las liquidaciones; con él se notifica cada compensación aplicada
+        esperarHasta(() -> completadas.contains("TRX4"));
+        assertEquals(List.of("LIQ-1", "TRX4"), completadas);
+    }
+
+    @Test
+    public void encolar_reintentaHastaQueElCoreApruebe() throws Exception {
+        AtomicInteger llamadas = new AtomicInteger();
+        ColaCompensaciones cola = crearCola(20, compensacion -> {
+            if (llamadas.incrementAndGet() < 3) {
+                throw new CoreProcessingException("Core no disponible");
+            }
+        });
+
+        cola.encolar(crearCompensacion("TRX2"));
+
+        esperarHasta(() -> llamadas.get() == 3 && cola.pendientes().isEmpty());
+        assertTrue(cola.fallidas().isEmpty());
+    }
+
+    @Test
+    public void encolar_agotaIntentosYMueveAFallidas() throws Exception {
+        ColaCompensaciones cola = crearCola(2, compensacion -> {
+            throw new CoreProcessingException("Reverso rechazado");
+        });
+
+        cola.encolar(crearCompensacion("TRX3"));
+
+        esperarHasta(() -> cola.fallidas().size() == 1);
+        Compensacion fallida = cola.fallidas().get(0);
+        assertEquals("TRX3", fallida.getCodigoUnico());
+        assertEquals(2, fallida.getIntentos());
+        assertEquals("Reverso rechazado", fallida.getUltimoError());
+        assertTrue(cola.pendientes().isEmpty());
+    }
+
+    @Test
+    public void iniciar_recuperaLasCompensacionesPendientesTrasReinicio() throws Exception {
+        ColaCompensaciones detenida = new ColaCompensaciones(directorio, 1, 20, 60_000, 60_000, objectMapper,
+                compensacion -> {
+                    throw new CoreProcessingException("Core no disponible");
+                });
+        colas.add(detenida);
+        detenida.encolar(crearCompensacion("TRX4"));
+        esperarHasta(() -> detenida.pendientes().get(0).getIntentos() == 1);
+        detenida.close();
+
+        List<String> reversados = new CopyOnWriteArrayList<>();
+        ColaCompensaciones reiniciada = crearCola(20, compensacion -> reversados.add(compensacion.getCodigoUnico()));
+        reiniciada.iniciar();
+
+        esperarHasta(() -> reversados.contains("TRX4") && reiniciada.pendientes().isEmpty());
+    }
+
+    @Test
+    public void iniciar_mueveAFallidasLasCompensacionesIlegibles() throws Exception {
+        List<String> reversados = new CopyOnWriteArrayList<>();
+        ColaCompensaciones cola = crearCola(20, compensacion -> reversados.add(compensacion.getCodigoUnico()));
+        Files.writeString(directorio.resolve("truncada.json"), "{\"id\":\"truncada\",\"codigoUn");
+        Compensacion cifrada = crearCompensacion("TRX2");
+        cifrada.getReverso().setNumeroTarjeta(CifradorPan.PREFIJO + "AAAA");
+        Files.write(directorio.resolve(cifrada.getId() + ".json"), objectMapper.writeValueAsBytes(cifrada));
+        Compensacion legible = crearCompensacion("TRX1");
+        Files.write(directorio.resolve(legible.getId() + ".json"), objectMapper.writeValueAsBytes(legible));
+        assertDoesNotThrow(cola::iniciar);
+
+        // Sin clave configurada el número cifrado no se puede leer; la compensación legible sí se aplica
+        esperarHasta(() -> reversados.contains("TRX1") && cola.pendientes().isEmpty());
+        assertTrue(Files.exists(directorio.resolve("fallidas").resolve("truncada.json")));
+        assertTrue(Files.exists(directorio.resolve("fallidas").resolve(cifrada.getId() + ".json")));
+        assertEquals(List.of("TRX1"), reversados);
+    }
+
+    @Test
+    public void encolar_guardaElNumeroDeTarjetaCifradoYSoloParaElPropietario() throws Exception {
+        CifradorPan cifradorPan = new CifradorPan(Base64.getEncoder().encodeToString(new byte[32]));
+        ColaCompensaciones cola = new ColaCompensaciones(directorio, 1, 20, 60_000, 60_000, objectMapper,
+                compensacion -> {
+                    throw new CoreProcessingException("Core no disponible");
+                }, cifradorPan);
+        colas.add(cola);
+
+        Compensacion compensacion = crearCompensacion("TRX5");
+        cola.encolar(compensacion);
+
+        Path archivo = directorio.resolve(compensacion.getId() + ".json");
+        assertFalse(Files.readString(archivo).contains("4111111111111111"));
+        assertEquals("4111111111111111", cola.pendientes().get(0).getReverso().getNumeroTarjeta());
+        assertEquals("4111111111111111", compensacion.getReverso().getNumeroTarjeta());
+        if (Files.getFileStore(archivo).supportsFileAttributeView(PosixFileAttributeView.class)) {
+            assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(archivo));
+        }
+    }
+
+    @Test
+    public void calcularEspera_creceExponencialmenteHastaElMaximo() {
+        ColaCompensaciones cola = new ColaCompensaciones(directorio, 1, 20, 1000, 5000, objectMapper,
+                compensacion -> { });
+        colas.add(cola);
+
+        assertEquals(1000, cola.calcularEspera(1));
+        assertEquals(2000, cola.calcularEspera(2));
+        assertEquals(4000, cola.calcularEspera(3));
+        assertEquals(5000, cola.calcularEspera(4));
+        assertEquals(5000, cola.calcularEspera(60));
+    }
+
+    private ColaCompensaciones crearCola(int maxIntentos, Consumer<Compensacion> reverso) {
+        ColaCompensaciones cola = new ColaCompensaciones(directorio, 1, maxIntentos, 10, 50, objectMapper, reverso);
+        colas.add(cola);
+        return cola;
+    }
+
+    private Compensacion crearCompensacion(String codigoUnico) {
+        return Compensacion.builder()
+                .id(UUID.randomUUID().toString())
+                .codigoUnico(codigoUnico)
+                .operacion(OperacionCore.REVERSO_TARJETA)
+                .reverso(ReversoRequestDTO.builder()
+                        .codigoUnicoTransaccion(codigoUnico)
+                        .numeroTarjeta("4111111111111111")
+                        .monto(new BigDecimal("100.00"))
+                        .moneda("USD")
+                        .build())
+                .fechaRegistro(LocalDateTime.now())
+                .build();
+    }
+
+    private void esperarHasta(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (!condicion.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < limite, "La condición no se cumplió a tiempo");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DiarioTransaccionesTest {
+
+    @TempDir
+    private Path directorio;
+
+    private DiarioTransacciones diario;
+
+    @AfterEach
+    public void cerrar() {
+        if (diario != null) {
+            diario.close();
+        }
+    }
+
+    @Test
+    public void iniciar_recuperaTransaccionesSinEstadoFinal() {
+        diario = abrir(64 * 1024, Duration.ofDays(1));
+        diario.registrar("TRX1", EstadoDiario.RECIBIDA);
+        diario.registrar("TRX2", EstadoDiario.RECIBIDA);
+        diario.registrar("TRX2", EstadoDiario.DEBITADA);
+        diario.registrar("TRX3", EstadoDiario.RECIBIDA);
+        diario.registrar("TRX3", EstadoDiario.DEBITADA);
+        diario.registrar("TRX3", EstadoDiario.ACREDITADA);
+        diario.registrar("TRX4", EstadoDiario.RECIBIDA);
+        diario.registrar("TRX4", EstadoDiario.RECHAZADA);
+        diario.close();
+
+        diario = new DiarioTransacciones(directorio, 64 * 1024, 5, Duration.ofDays(1));
+        Map<String, EstadoDiario> recuperadas = porCodigo(diario.iniciar());
+
+        assertEquals(Map.of("TRX1", EstadoDiario.RECIBIDA, "TRX2", EstadoDiario.DEBITADA), recuperadas);
+    }
+
+    @Test
+    public void registrar_rotaSegmentosConservandoLasTransaccionesEnCurso() throws IOException {
+        diario = abrir(512, Duration.ofDays(1));
+        diario.registrar("EN-CURSO", EstadoDiario.RECIBIDA);
+        diario.registrar("EN-CURSO", EstadoDiario.DEBITADA);
+        for (int i = 0; i < 200; i++) {
+            diario.registrar("TRX" + i, EstadoDiario.RECIBIDA);
+            diario.registrar("TRX" + i, EstadoDiario.ACREDITADA);
+        }
+
+        assertEquals(1, segmentos().size());
+        assertEquals(Map.of("EN-CURSO", EstadoDiario.DEBITADA), porCodigo(diario.enCurso()));
+
+        diario.close();
+        diario = new DiarioTransacciones(directorio, 512, 5, Duration.ofDays(1));
+        assertEquals(Map.of("EN-CURSO", EstadoDiario.DEBITADA), porCodigo(diario.iniciar()));
+    }
+
+    @Test
+    public void iniciar_ignoraRegistrosCorruptos() throws IOException {
+        diario = abrir(64 * 1024, Duration.ofDays(1));
+        diario.registrar("TRX1", EstadoDiario.RECIBIDA);
+        diario.registrar("TRX2", EstadoDiario.RECIBIDA);
+        diario.close();
+
+        // Se altera el código del segundo registro sin actualizar su CRC
+        Path segmento = segmentos().get(0);
+        int inicioSegundo = ByteBuffer.wrap(Files.readAllBytes(segmento)).getInt(0);
+        try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(new byte[] { 'X' }), inicioSegundo + 19);
+        }
+
+        diario = new DiarioTransacciones(directorio, 64 * 1024, 5, Duration.ofDays(1));
+        assertEquals(Map.of("TRX1", EstadoDiario.RECIBIDA), porCodigo(diario.iniciar()));
+    }
+
+    @Test
+    public void iniciar_descartaTransaccionesQueSuperanLaRetencion() throws InterruptedException {
+        diario = abrir(64 * 1024, Duration.ofDays(1));
+        diario.registrar("TRX1", EstadoDiario.DEBITADA);
+        diario.close();
+        Thread.sleep(20);
+
+        diario = new DiarioTransacciones(directorio, 64 * 1024, 5, Duration.ofMillis(1));
+        diario.iniciar();
+
+        assertTrue(diario.enCurso().isEmpty());
+    }
+
+    private DiarioTransacciones abrir(int tamanoSegmento, Duration retencion) {
+        DiarioTransacciones nuevo = new DiarioTransacciones(directorio, tamanoSegmento, 5, retencion);
+        nuevo.iniciar();
+        return nuevo;
+    }
+
+    private List<Path> segmentos() throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos.sorted().toList();
+        }
+    }
+
+    private Map<String, EstadoDiario> porCodigo(Collection<DiarioTransacciones.Entrada> entradas) {
+        return entradas.stream().collect(Collectors.toMap(DiarioTransacciones.Entrada::codigoUnico,
+                DiarioTransacciones.Entrada::estado));
+    }
+}
@@ -0,0 +1,88 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.exception.CoreProcessingException;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+
+public class EjecutorCoreBancarioTest {
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private SimpleMeterRegistry meterRegistry;
+    private EjecutorCoreBancario ejecutor;
+
+    @BeforeEach
+    public void setup() {
+        circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        meterRegistry = new SimpleMeterRegistry();
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .build());
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        ejecutor = new EjecutorCoreBancario(circuitBreakerRegistry, bulkheadRegistry, meterRegistry,
+                observationRegistry);
+    }
+
+    @Test
+    public void ejecutar_circuitoCerrado() {
+        assertEquals("OK", ejecutor.ejecutar(OperacionCore.TARJETA, () -> "OK"));
+        assertEquals(1, meterRegistry.get("core.bancario.llamada")
+                .tag("operacion", "TARJETA").tag("error", "none").timer().count());
+    }
+
+    @Test
+    public void ejecutar_circuitoAbiertoFallaRapido() {
+        circuitBreakerRegistry.circuitBreaker(OperacionCore.TARJETA.getInstancia()).transitionToForcedOpenState();
+        AtomicInteger llamadas = new AtomicInteger();
+
+        CoreProcessingException e = assertThrows(CoreProcessingException.class,
+                () -> ejecutor.ejecutar(OperacionCore.TARJETA, llamadas::incrementAndGet));
+
+        assertEquals(EjecutorCoreBancario.ERROR_CIRCUITO_ABIERTO, e.getErrorCode());
+        assertEquals(0, llamadas.get());
+        assertEquals(1.0, meterRegistry.get("core.resiliencia.rechazos")
+                .tag("operacion", "TARJETA").tag("motivo", "circuito-abierto").counter().count());
+        // El circuito del otro core no se ve afectado
+        assertEquals("OK", ejecutor.ejecutar(OperacionCore.COMERCIO, () -> "OK"));
+    }
+
+    @Test
+    public void ejecutar_bulkheadLlenoFallaRapido() throws Exception {
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Thread ocupante = new Thread(() -> ejecutor.ejecutar(OperacionCore.COMERCIO, () -> {
+            enCurso.countDown();
+            try {
+                return liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }));
+        ocupante.start();
+        assertTrue(enCurso.await(5, TimeUnit.SECONDS));
+
+        CoreProcessingException e = assertThrows(CoreProcessingException.class,
+                () -> ejecutor.ejecutar(OperacionCore.COMERCIO, () -> "OK"));
+
+        liberar.countDown();
+        ocupante.join();
+        assertEquals(EjecutorCoreBancario.ERROR_BULKHEAD_LLENO, e.getErrorCode());
+        assertEquals(1.0, meterRegistry.get("core.resiliencia.rechazos")
+                .tag("operacion", "COMERCIO").tag("motivo", "bulkhead-lleno").counter().count());
+    }
+}
@@ -0,0 +1,214 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.client.CoreBancarioClient;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.ComercioRequestDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.CoreResponseDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.RetencionRequestDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.ReversoRequestDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.TarjetaRequestDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.config.AjustesCore;
+import com.banquito.paymentprocessor.procesarcores.banquito.config.AjustesDinamicos;
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import feign.Request;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Prueba de carga que compara cuántas transacciones bloqueantes pueden estar en curso a la vez
+ * con el pool de hilos de plataforma por defecto de Tomcat (200) frente a hilos virtuales.
+ * El core se simula con una latencia fija por llamada.
+ */
+public class HilosVirtualesCargaTest {
+
+    private static final Logger log = LoggerFactory.getLogger(HilosVirtualesCargaTest.class);
+
+    private static final int TRANSACCIONES = 1000;
+    private static final int HILOS_TOMCAT = 200;
+    private static final long LATENCIA_CORE_MS = 50;
+
+    private final AtomicInteger enCurso = new AtomicInteger();
+    private final AtomicInteger maximoEnCurso = new AtomicInteger();
+
+    @TempDir
+    private Path directorioCompensaciones;
+
+    @TempDir
+    private Path directorioDiario;
+
+    private DiarioTransacciones diarioTransacciones;
+
+    private ProcesarCoreService service;
+
+    @BeforeEach
+    public void setup() {
+        ResponseEntity<CoreResponseDTO> aprobado = ResponseEntity.ok(CoreResponseDTO.builder()
+                .estado("APROBADO")
+                .codigoRespuesta("00")
+                .build());
+
+        // Stub sin Mockito: el registro de invocaciones de un mock sincroniza y fija los hilos virtuales
+        CoreBancarioClient coreBancarioClient = new CoreBancarioClient() {
+            @Override
+            public ResponseEntity<CoreResponseDTO> procesarTransaccionTarjeta(TarjetaRequestDTO request) {
+                maximoEnCurso.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+                esperarCore();
+                return aprobado;
+            }
+
+            @Override
+            public ResponseEntity<CoreResponseDTO> procesarTransaccionCuenta(ComercioRequestDTO request) {
+                esperarCore();
+                enCurso.decrementAndGet();
+                return aprobado;
+            }
+
+            @Override
+            public ResponseEntity<CoreResponseDTO> procesarTransaccionTarjeta(URI core, TarjetaRequestDTO request,
+                    Request.Options opciones) {
+                return procesarTransaccionTarjeta(request);
+            }
+
+            @Override
+            public ResponseEntity<CoreResponseDTO> reversarTransaccionTarjeta(URI core, ReversoRequestDTO request,
+                    Request.Options opciones) {
+                return reversarTransaccionTarjeta(request);
+            }
+
+            @Override
+            public ResponseEntity<CoreResponseDTO> reversarTransaccionTarjeta(ReversoRequestDTO request) {
+                return aprobado;
+            }
+
+            @Override
+            public ResponseEntity<CoreResponseDTO> retenerCreditoCuenta(ComercioRequestDTO request) {
+                return aprobado;
+            }
+
+            @Override
+            public ResponseEntity<CoreResponseDTO> confirmarCreditoCuenta(RetencionRequestDTO request) {
+                return aprobado;
+            }
+
+            @Override
+            public ResponseEntity<CoreResponseDTO> anularCreditoCuenta(RetencionRequestDTO request) {
+                return aprobado;
+            }
+        };
+
+        // Bulkhead amplio: esta prueba mide los hilos, no los límites de concurrencia hacia el core
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(TRANSACCIONES)
+                .build());
+        EjecutorCoreBancario ejecutorCoreBancario = new EjecutorCoreBancario(CircuitBreakerRegistry.ofDefaults(),
+                bulkheadRegistry, new SimpleMeterRegistry(), ObservationRegistry.NOOP);
+
+        IdempotenciaService idempotenciaService = new IdempotenciaService(
+                new AlmacenIdempotenciaMemoria(TRANSACCIONES * 2L, Duration.ofMinutes(1)));
+
+        // Todas las transacciones se aprueban, así que la cola de compensaciones nunca se usa
+        SagaService sagaService = new SagaService(new ColaCompensaciones(directorioCompensaciones, 1, 1, 0, 0,
+                new ObjectMapper(), compensacion -> { }));
+
+        diarioTransacciones = new DiarioTransacciones(directorioDiario, 1024 * 1024, 5, Duration.ofDays(1));
+        diarioTransacciones.iniciar();
+
+        service = new ProcesarCoreService(coreBancarioClient, ejecutorCoreBancario, idempotenciaService,
+                sagaService, diarioTransacciones, new MetricasTransaccion(new SimpleMeterRegistry()),
+                EjecucionParalela.deshabilitada(), CoberturaDebito.deshabilitada(new SimpleMeterRegistry()),
+                AcumuladorCreditos.deshabilitado(), RuteadorBin.deshabilitado(), new AjustesDinamicos(
+                        new AjustesCore(1_000, 5_000, 3, 1, 5, Duration.ofSeconds(30)), null, 0,
+                        new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    public void cerrar() {
+        diarioTransacciones.close();
+    }
+
+    @Test
+    public void cargaConcurrente_hilosVirtualesSuperanLimiteDePlataforma() throws Exception {
+        ResultadoCarga plataforma;
+        try (ExecutorService executor = Executors.newFixedThreadPool(HILOS_TOMCAT)) {
+            plataforma = ejecutarCarga(executor, "PLATAFORMA");
+        }
+        ResultadoCarga virtuales;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            virtuales = ejecutarCarga(executor, "VIRTUAL");
+        }
+
+        log.info("Hilos de plataforma ({}): máximo en curso={}, tiempo={} ms", HILOS_TOMCAT,
+                plataforma.maximoEnCurso(), plataforma.milisegundos());
+        log.info("Hilos virtuales: máximo en curso={}, tiempo={} ms", virtuales.maximoEnCurso(),
+                virtuales.milisegundos());
+
+        assertTrue(plataforma.maximoEnCurso() <= HILOS_TOMCAT,
+                "máximo en curso con hilos de plataforma: " + plataforma.maximoEnCurso());
+        assertTrue(virtuales.maximoEnCurso() > HILOS_TOMCAT,
+                "máximo en curso con hilos virtuales: " + virtuales.maximoEnCurso());
+    }
+
+    private void esperarCore() {
+        try {
+            Thread.sleep(LATENCIA_CORE_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ResultadoCarga ejecutarCarga(ExecutorService executor, String prefijo) throws Exception {
+        enCurso.set(0);
+        maximoEnCurso.set(0);
+        long inicio = System.nanoTime();
+
+        List<Future<TransaccionCoreResponseDTO>> resultados = new ArrayList<>(TRANSACCIONES);
+        for (int i = 0; i < TRANSACCIONES; i++) {
+            TransaccionCoreDTO transaccion = crearTransaccion(prefijo + i);
+            resultados.add(executor.submit(() -> service.procesarTransaccion(transaccion)));
+        }
+        for (Future<TransaccionCoreResponseDTO> resultado : resultados) {
+            assertEquals("APROBADO", resultado.get().getEstado());
+        }
+
+        return new ResultadoCarga(maximoEnCurso.get(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private TransaccionCoreDTO crearTransaccion(String codigoUnico) {
+        TransaccionCoreDTO dto = new TransaccionCoreDTO();
+        dto.setCodigoUnico(codigoUnico);
+        dto.setNumeroTarjeta("4111111111111111");
+        dto.setMonto(new BigDecimal("10.00"));
+        dto.setTipo("COM");
+        dto.setCuentaIbanComercio("ES9121000418450200051332");
+        return dto;
+    }
+
+    private record ResultadoCarga(int maximoEnCurso, long milisegundos) {
+    }
+}
@@ -0,0 +1,148 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreResponseDTO;
+
+import reactor.core.publisher.Mono;
+
+public class IdempotenciaServiceTest {
+
+    private IdempotenciaService service;
+
+    @BeforeEach
+    public void setup() {
+        service = new IdempotenciaService(new AlmacenIdempotenciaMemoria(100, Duration.ofMinutes(1)));
+    }
+
+    @Test
+    public void ejecutar_duplicadoDevuelveResultadoRegistrado() {
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        TransaccionCoreResponseDTO primero = service.ejecutar("TRX1", () -> resultado("TRX1", ejecuciones));
+        TransaccionCoreResponseDTO duplicado = service.ejecutar("TRX1", () -> resultado("TRX1", ejecuciones));
+
+        assertSame(primero, duplicado);
+        assertEquals(1, ejecuciones.get());
+    }
+
+    @Test
+    public void ejecutar_duplicadoEnCursoEsperaAlPrimerIntento() throws Exception {
+        AtomicInteger ejecuciones = new AtomicInteger();
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<TransaccionCoreResponseDTO> primero = executor.submit(() -> service.ejecutar("TRX2", () -> {
+                enCurso.countDown();
+                try {
+                    liberar.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return resultado("TRX2", ejecuciones);
+            }));
+            assertTrue(enCurso.await(5, TimeUnit.SECONDS));
+
+            Future<TransaccionCoreResponseDTO> duplicado = executor.submit(
+                    () -> service.ejecutar("TRX2", () -> resultado("TRX2", ejecuciones)));
+            liberar.countDown();
+
+            assertSame(primero.get(5, TimeUnit.SECONDS), duplicado.get(5, TimeUnit.SECONDS));
+            assertEquals(1, ejecuciones.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void ejecutar_rechazoSinLlegarAlCoreNoSeRegistra() {
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        service.ejecutar("TRX3", () -> {
+            ejecuciones.incrementAndGet();
+            return TransaccionCoreResponseDTO.builder()
+                    .codigoUnico("TRX3")
+                    .estado("RECHAZADO")
+                    .codigoRespuesta(EjecutorCoreBancario.ERROR_CIRCUITO_ABIERTO)
+                    .build();
+        });
+        TransaccionCoreResponseDTO reintento = service.ejecutar("TRX3", () -> resultado("TRX3", ejecuciones));
+
+        assertEquals("APROBADO", reintento.getEstado());
+        assertEquals(2, ejecuciones.get());
+    }
+
+    @Test
+    public void ejecutar_rechazoPorPlazoVencidoNoSeRegistra() {
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        service.ejecutar("TRX5", () -> {
+            ejecuciones.incrementAndGet();
+            return TransaccionCoreResponseDTO.builder()
+                    .codigoUnico("TRX5")
+                    .estado("RECHAZADO")
+                    .codigoRespuesta(Plazo.ERROR_PLAZO_VENCIDO)
+                    .build();
+        });
+        TransaccionCoreResponseDTO reintento = service.ejecutar("TRX5", () -> resultado("TRX5", ejecuciones));
+
+        assertEquals("APROBADO", reintento.getEstado());
+        assertEquals(2, ejecuciones.get());
+    }
+
+    @Test
+    public void ejecutar_plazoVencidoTrasElDebitoSeRegistraComoFinal() {
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        service.ejecutar("TRX6", () -> {
+            ejecuciones.incrementAndGet();
+            return TransaccionCoreResponseDTO.builder()
+                    .codigoUnico("TRX6")
+                    .estado("RECHAZADO")
+                    .codigoRespuesta(Plazo.ERROR_PLAZO_VENCIDO)
+                    .pasosAplicados(true)
+                    .build();
+        });
+        TransaccionCoreResponseDTO reintento = service.ejecutar("TRX6", () -> resultado("TRX6", ejecuciones));
+
+        // El reverso del débito está pendiente: reintentar volvería a debitar la tarjeta
+        assertEquals("RECHAZADO", reintento.getEstado());
+        assertEquals(1, ejecuciones.get());
+    }
+
+    @Test
+    public void ejecutarReactivo_duplicadoDevuelveResultadoRegistrado() {
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        TransaccionCoreResponseDTO primero = service.ejecutarReactivo("TRX4",
+                () -> Mono.fromSupplier(() -> resultado("TRX4", ejecuciones))).block();
+        TransaccionCoreResponseDTO duplicado = service.ejecutarReactivo("TRX4",
+                () -> Mono.fromSupplier(() -> resultado("TRX4", ejecuciones))).block();
+
+        assertSame(primero, duplicado);
+        assertEquals(1, ejecuciones.get());
+    }
+
+    private TransaccionCoreResponseDTO resultado(String codigoUnico, AtomicInteger ejecuciones) {
+        ejecuciones.incrementAndGet();
+        return TransaccionCoreResponseDTO.builder()
+                .codigoUnico(codigoUnico)
+                .fechaProceso(LocalDateTime.now())
+                .estado("APROBADO")
+                .build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class LimitadorConcurrenciaTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void adquirir_rechazaAlSuperarElLimite() {
+        LimitadorConcurrencia limitador = new LimitadorConcurrencia(true, 2, 1, 10, meterRegistry);
+
+        assertTrue(limitador.adquirir());
+        assertTrue(limitador.adquirir());
+        assertFalse(limitador.adquirir());
+
+        limitador.liberar();
+        assertTrue(limitador.adquirir());
+        assertEquals(2d, meterRegistry.get("core.concurrencia.en.curso").gauge().value());
+    }
+
+    @Test
+    public void registrarLatencia_creceConLatenciaEstableYBajaCuandoSube() {
+        LimitadorConcurrencia limitador = new LimitadorConcurrencia(true, 10, 2, 100, meterRegistry);
+        ocupar(limitador, 10);
+
+        for (int i = 0; i < 20; i++) {
+            limitador.registrarLatencia(10_000_000);
+        }
+        int limiteEstable = limitador.getLimite();
+        assertTrue(limiteEstable > 10, "el límite debe crecer mientras la latencia no cambia");
+
+        ocupar(limitador, limiteEstable);
+        for (int i = 0; i < 20; i++) {
+            limitador.registrarLatencia(40_000_000);
+        }
+        assertTrue(limitador.getLimite() < limiteEstable, "el límite debe bajar cuando la latencia sube");
+        assertEquals(limitador.getLimite(), meterRegistry.get("core.concurrencia.limite").gauge().value());
+    }
+
+    @Test
+    public void registrarLatencia_sinCargaNoAumentaElLimite() {
+        LimitadorConcurrencia limitador = new LimitadorConcurrencia(true, 10, 2, 100, meterRegistry);
+
+        for (int i = 0; i < 20; i++) {
+            limitador.registrarLatencia(10_000_000);
+        }
+
+        assertEquals(10, limitador.getLimite());
+    }
+
+    @Test
+    public void registrarSobrecarga_reduceHastaElMinimo() {
+        LimitadorConcurrencia limitador = new LimitadorConcurrencia(true, 10, 4, 100, meterRegistry);
+
+        limitador.registrarSobrecarga();
+        assertEquals(9, limitador.getLimite());
+
+        for (int i = 0; i < 50; i++) {
+            limitador.registrarSobrecarga();
+        }
+        assertEquals(4, limitador.getLimite());
+    }
+
+    @Test
+    public void adquirir_deshabilitadoNoRechaza() {
+        LimitadorConcurrencia limitador = new LimitadorConcurrencia(false, 1, 1, 1, meterRegistry);
+
+        assertTrue(limitador.adquirir());
+        assertTrue(limitador.adquirir());
+        assertEquals(2, limitador.getEnCurso());
+    }
+
+    private void ocupar(LimitadorConcurrencia limitador, int transacciones) {
+        while (limitador.getEnCurso() < transacciones) {
+            assertTrue(limitador.adquirir());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.exception.CarrilLlenoException;
+import com.banquito.paymentprocessor.procesarcores.banquito.exception.CoreProcessingException;
+import com.banquito.paymentprocessor.procesarcores.banquito.exception.LimiteConcurrenciaException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class PlanificadorGatewaysTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> ejecutadas = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch liberar = new CountDownLatch(1);
+
+    private ExecutorService executor;
+    private PlanificadorGateways planificador;
+
+    @BeforeEach
+    public void setup() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        // Un único lugar fijo hacia el core para que el orden de despacho sea observable
+        LimitadorConcurrencia limitador = new LimitadorConcurrencia(true, 1, 1, 1, meterRegistry);
+        planificador = new PlanificadorGateways(limitador, Map.of("GRANDE", 2, "PEQUENO", 1, "RUIDOSO", 1,
+                "TRANQUILO", 1, "OTRO", 1, "OCUPADA", 1), Set.of("REV"), 3, 5, meterRegistry);
+    }
+
+    @AfterEach
+    public void cerrar() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void ejecutar_reparteLosLugaresEntreGateways() throws Exception {
+        ocuparLugar();
+        List<Future<String>> futuros = new ArrayList<>();
+        futuros.add(encolar("RUIDOSO", "COM", "R1", 1));
+        futuros.add(encolar("RUIDOSO", "COM", "R2", 2));
+        futuros.add(encolar("RUIDOSO", "COM", "R3", 3));
+        futuros.add(encolar("TRANQUILO", "COM", "T1", 1));
+
+        liberar.countDown();
+        for (Future<String> futuro : futuros) {
+            futuro.get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(List.of("OCUPADA", "R1", "T1", "R2", "R3"), ejecutadas);
+        assertEquals(5, meterRegistry.get("core.planificador.espera").tag("carril", "RUIDOSO").timer().count()
+                + meterRegistry.get("core.planificador.espera").tag("carril", "TRANQUILO").timer().count()
+                + meterRegistry.get("core.planificador.espera").tag("carril", "OCUPADA").timer().count());
+    }
+
+    @Test
+    public void ejecutar_respetaElPesoDelGateway() throws Exception {
+        ocuparLugar();
+        List<Future<String>> futuros = new ArrayList<>();
+        futuros.add(encolar("GRANDE", "COM", "G1", 1));
+        futuros.add(encolar("GRANDE", "COM", "G2", 2));
+        futuros.add(encolar("GRANDE", "COM", "G3", 3));
+        futuros.add(encolar("PEQUENO", "COM", "P1", 1));
+        futuros.add(encolar("PEQUENO", "COM", "P2", 2));
+
+        liberar.countDown();
+        for (Future<String> futuro : futuros) {
+            futuro.get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(List.of("OCUPADA", "G1", "G2", "P1", "G3", "P2"), ejecutadas);
+    }
+
+    @Test
+    public void ejecutar_carrilPrioritarioSeAtiendePrimero() throws Exception {
+        ocuparLugar();
+        Future<String> comun = encolar("RUIDOSO", "COM", "R1", 1);
+        Future<String> devolucion = encolar("RUIDOSO", "REV", "DEVOLUCION", 1);
+
+        liberar.countDown();
+        comun.get(5, TimeUnit.SECONDS);
+        devolucion.get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("OCUPADA", "DEVOLUCION", "R1"), ejecutadas);
+    }
+
+    @Test
+    public void ejecutar_rechazaAlLlenarseElCarrilOLaEspera() throws Exception {
+        ocuparLugar();
+        List<Future<String>> futuros = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            futuros.add(encolar("RUIDOSO", "COM", "R" + i, i));
+        }
+
+        assertThrows(CarrilLlenoException.class,
+                () -> planificador.ejecutar(transaccion("RUIDOSO", "COM"), plazo(), () -> "R4"));
+
+        futuros.add(encolar("OTRO", "COM", "O1", 1));
+        futuros.add(encolar("OTRO", "COM", "O2", 2));
+        assertThrows(LimiteConcurrenciaException.class,
+                () -> planificador.ejecutar(transaccion("TERCERO", "COM"), plazo(), () -> "T1"));
+
+        liberar.countDown();
+        for (Future<String> futuro : futuros) {
+            futuro.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(1d, meterRegistry.get("core.planificador.rechazos").tag("carril", "RUIDOSO").counter().count());
+        assertEquals(1d, meterRegistry.get("core.planificador.rechazos").tag("carril", "todos")
+                .tag("motivo", "espera-llena").counter().count());
+    }
+
+    @Test
+    public void ejecutar_gatewaysNoConfiguradosCompartenUnCarril() throws Exception {
+        ocuparLugar();
+        List<Future<String>> futuros = new ArrayList<>();
+        futuros.add(encolar("DESCONOCIDO-1", "COM", "D1", 1));
+        futuros.add(encolar("DESCONOCIDO-2", "COM", "D2", 2));
+
+        liberar.countDown();
+        for (Future<String> futuro : futuros) {
+            futuro.get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(List.of("OCUPADA", "D1", "D2"), ejecutadas);
+        assertNull(meterRegistry.find("core.planificador.espera").tag("carril", "DESCONOCIDO-1").timer());
+        assertEquals(2, meterRegistry.get("core.planificador.espera")
+                .tag("carril", PlanificadorGateways.CARRIL_OTROS).timer().count());
+    }
+
+    @Test
+    public void ejecutar_plazoVencidoEnEsperaSaleDeLaCola() throws Exception {
+        ocuparLugar();
+
+        CoreProcessingException e = assertThrows(CoreProcessingException.class,
+                () -> planificador.ejecutar(transaccion("RUIDOSO", "COM"), Plazo.de(Duration.ofMillis(50)),
+                        () -> "R1"));
+        Future<String> siguiente = encolar("RUIDOSO", "COM", "R2", 1);
+        liberar.countDown();
+        siguiente.get(5, TimeUnit.SECONDS);
+
+        assertEquals(Plazo.ERROR_PLAZO_VENCIDO, e.getErrorCode());
+        assertEquals(List.of("OCUPADA", "R2"), ejecutadas);
+        assertEquals(1d, meterRegistry.get("core.planificador.rechazos").tag("motivo", "plazo-vencido")
+                .counter().count());
+    }
+
+    private void ocuparLugar() throws InterruptedException {
+        CountDownLatch enCurso = new CountDownLatch(1);
+        executor.submit(() -> planificador.ejecutar(transaccion("OCUPADA", "COM"), plazo(), () -> {
+            ejecutadas.add("OCUPADA");
+            enCurso.countDown();
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "OCUPADA";
+        }));
+        assertTrue(enCurso.await(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Encola una transacción y espera a que figure en la cola de su carril, para fijar el orden de llegada.
+     */
+    private Future<String> encolar(String gateway, String tipo, String nombre, int profundidad)
+            throws InterruptedException {
+        Future<String> futuro = executor.submit(() -> planificador.ejecutar(transaccion(gateway, tipo), plazo(), () -> {
+            ejecutadas.add(nombre);
+            return nombre;
+        }));
+        String carril = "REV".equals(tipo) ? PlanificadorGateways.CARRIL_PRIORITARIO
+                : gateway.startsWith("DESCONOCIDO") ? PlanificadorGateways.CARRIL_OTROS : gateway;
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.find("core.planificador.profundidad").tag("carril", carril).gauge() == null
+                || meterRegistry.get("core.planificador.profundidad").tag("carril", carril).gauge().value()
+                        < profundidad) {
+            assertTrue(System.nanoTime() < limite, "la transacción no llegó a la cola de " + carril);
+            Thread.sleep(1);
+        }
+        return futuro;
+    }
+
+    private Plazo plazo() {
+        return Plazo.de(Duration.ofSeconds(5));
+    }
+
+    private TransaccionCoreDTO transaccion(String gateway, String tipo) {
+        TransaccionCoreDTO dto = new TransaccionCoreDTO();
+        dto.setCodigoGtw(gateway);
+        dto.setTipo(tipo);
+        return dto;
+    }
+}
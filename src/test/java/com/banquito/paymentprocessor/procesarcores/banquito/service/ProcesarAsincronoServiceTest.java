@@ -0,0 +1,118 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreResponseDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.exception.ColaTrabajoLlenaException;
+
+public class ProcesarAsincronoServiceTest {
+
+    private ProcesarCoreService procesarCoreService;
+    private AlmacenIdempotencia almacenIdempotencia;
+    private ThreadPoolExecutor executor;
+    private ProcesarAsincronoService service;
+
+    @BeforeEach
+    public void setup() {
+        procesarCoreService = mock(ProcesarCoreService.class);
+        almacenIdempotencia = new AlmacenIdempotenciaMemoria(100, Duration.ofMinutes(1));
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        service = new ProcesarAsincronoService(procesarCoreService, almacenIdempotencia, executor, 100, 60_000);
+    }
+
+    @AfterEach
+    public void cerrar() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void aceptar_devuelvePendienteYLuegoElResultado() throws Exception {
+        when(procesarCoreService.procesarTransaccion(any(TransaccionCoreDTO.class)))
+                .thenAnswer(invocacion -> aprobado(invocacion.<TransaccionCoreDTO>getArgument(0).getCodigoUnico()));
+
+        TransaccionCoreResponseDTO aceptada = service.aceptar(crearTransaccion("TRX1"));
+
+        assertEquals(ProcesarAsincronoService.ESTADO_PENDIENTE, aceptada.getEstado());
+        esperarEstado("TRX1", "APROBADO");
+    }
+
+    @Test
+    public void aceptar_duplicadoNoSeEncolaDosVeces() throws Exception {
+        when(procesarCoreService.procesarTransaccion(any(TransaccionCoreDTO.class)))
+                .thenAnswer(invocacion -> aprobado(invocacion.<TransaccionCoreDTO>getArgument(0).getCodigoUnico()));
+
+        service.aceptar(crearTransaccion("TRX2"));
+        esperarEstado("TRX2", "APROBADO");
+        TransaccionCoreResponseDTO duplicado = service.aceptar(crearTransaccion("TRX2"));
+
+        assertEquals("APROBADO", duplicado.getEstado());
+        verify(procesarCoreService, times(1)).procesarTransaccion(any(TransaccionCoreDTO.class));
+    }
+
+    @Test
+    public void aceptar_colaLlenaRechazaLaTransaccion() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(procesarCoreService.procesarTransaccion(any(TransaccionCoreDTO.class))).thenAnswer(invocacion -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            return aprobado(invocacion.<TransaccionCoreDTO>getArgument(0).getCodigoUnico());
+        });
+
+        // Un trabajador ocupado y un lugar en la cola
+        service.aceptar(crearTransaccion("TRX3"));
+        esperarEstado("TRX3", ProcesarAsincronoService.ESTADO_EN_PROCESO);
+        service.aceptar(crearTransaccion("TRX4"));
+
+        assertThrows(ColaTrabajoLlenaException.class, () -> service.aceptar(crearTransaccion("TRX5")));
+        assertTrue(service.consultar("TRX5").isEmpty());
+
+        liberar.countDown();
+        esperarEstado("TRX4", "APROBADO");
+    }
+
+    @Test
+    public void consultar_devuelveResultadosDelAlmacenDeIdempotencia() {
+        almacenIdempotencia.guardar("TRX6", aprobado("TRX6"));
+
+        assertEquals("APROBADO", service.consultar("TRX6").orElseThrow().getEstado());
+        assertTrue(service.consultar("DESCONOCIDA").isEmpty());
+    }
+
+    private void esperarEstado(String codigoUnico, String estado) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (!service.consultar(codigoUnico).map(r -> estado.equals(r.getEstado())).orElse(false)) {
+            assertTrue(System.currentTimeMillis() < limite, "La transacción no llegó al estado " + estado);
+            Thread.sleep(10);
+        }
+    }
+
+    private TransaccionCoreResponseDTO aprobado(String codigoUnico) {
+        return TransaccionCoreResponseDTO.builder()
+                .codigoUnico(codigoUnico)
+                .fechaProceso(LocalDateTime.now())
+                .estado("APROBADO")
+                .build();
+    }
+
+    private TransaccionCoreDTO crearTransaccion(String codigoUnico) {
+        TransaccionCoreDTO dto = new TransaccionCoreDTO();
+        dto.setCodigoUnico(codigoUnico);
+        dto.setNumeroTarjeta("4111111111111111");
+        dto.setMonto(new BigDecimal("100.00"));
+        return dto;
+    }
+}
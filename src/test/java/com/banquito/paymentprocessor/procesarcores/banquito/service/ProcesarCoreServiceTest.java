@@ -2,28 +2,53 @@ package com.banquito.paymentprocessor.procesarcores.banquito.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import com.banquito.paymentprocessor.procesarcores.banquito.client.CoreBancarioClient;
 import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.ComercioRequestDTO;
 import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.CoreResponseDTO;
 import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.TarjetaRequestDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.config.AjustesCore;
+import com.banquito.paymentprocessor.procesarcores.banquito.config.AjustesDinamicos;
+import com.banquito.paymentprocessor.procesarcores.banquito.config.OpcionesLlamada;
 import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreDTO;
 import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreResponseDTO;
 import com.banquito.paymentprocessor.procesarcores.banquito.exception.CoreProcessingException;
 
+import feign.Request;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import reactor.core.publisher.Mono;
+
 @ExtendWith(MockitoExtension.class)
 public class ProcesarCoreServiceTest {
 
@@ -33,12 +58,82 @@ public class ProcesarCoreServiceTest {
     @Mock
     private WebClient.Builder webClientBuilder;
 
+    @Spy
+    private EjecutorCoreBancario ejecutorCoreBancario = new EjecutorCoreBancario(
+            CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), new SimpleMeterRegistry(),
+            ObservationRegistry.NOOP);
+
+    @Mock
+    private SagaService sagaService;
+
+    @Mock
+    private ColaCompensaciones colaCompensaciones;
+
+    @Mock
+    private DiarioTransacciones diarioTransacciones;
+
+    @Spy
+    private IdempotenciaService idempotenciaService = new IdempotenciaService(
+            new AlmacenIdempotenciaMemoria(100, Duration.ofMinutes(1)));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private MetricasTransaccion metricasTransaccion = new MetricasTransaccion(meterRegistry);
+
+    @Spy
+    private EjecucionParalela ejecucionParalela = new EjecucionParalela(true, null, Set.of("EC-CONFIABLE"),
+            Executors.newVirtualThreadPerTaskExecutor());
+
+    @Spy
+    private CoberturaDebito coberturaDebito = CoberturaDebito.deshabilitada(new SimpleMeterRegistry());
+
+    @Mock
+    private AcumuladorCreditos acumuladorCreditos;
+
+    @Mock
+    private RuteadorBin ruteadorBin;
+
+    @Spy
+    private AjustesDinamicos ajustesDinamicos = new AjustesDinamicos(
+            new AjustesCore(1_000, 5_000, 3, 1, 5, Duration.ofSeconds(30)), null, 0, new SimpleMeterRegistry());
+
     @InjectMocks
     private ProcesarCoreService service;
 
     @BeforeEach
     public void setup() {
         // Inicialización o configuración adicional si es necesaria
+        lenient().when(sagaService.iniciar(anyString()))
+                .thenAnswer(invocacion -> new SagaTransaccion(invocacion.getArgument(0), colaCompensaciones));
+    }
+
+    @Test
+    public void procesarTransaccion_plazoVencidoNoLlamaAlCore() {
+        TransaccionCoreResponseDTO resultado = service.procesarTransaccion(crearTransaccionDTOPrueba(),
+                Plazo.de(Duration.ZERO));
+
+        assertEquals("RECHAZADO", resultado.getEstado());
+        assertEquals(Plazo.ERROR_PLAZO_VENCIDO, resultado.getCodigoRespuesta());
+        verifyNoInteractions(coreBancarioClient, colaCompensaciones);
+    }
+
+    @Test
+    public void procesarTransaccion_plazoVencidoTrasElDebitoReversaSinAcreditar() {
+        when(coreBancarioClient.procesarTransaccionTarjeta(any(TarjetaRequestDTO.class))).thenAnswer(invocacion -> {
+            Thread.sleep(100);
+            return ResponseEntity.ok(CoreResponseDTO.builder().estado("APROBADO").build());
+        });
+
+        TransaccionCoreResponseDTO resultado = service.procesarTransaccion(crearTransaccionDTOPrueba(),
+                Plazo.de(Duration.ofMillis(50)));
+
+        assertEquals("RECHAZADO", resultado.getEstado());
+        assertEquals(Plazo.ERROR_PLAZO_VENCIDO, resultado.getCodigoRespuesta());
+        assertTrue(resultado.isPasosAplicados());
+        verify(coreBancarioClient, never()).procesarTransaccionCuenta(any(ComercioRequestDTO.class));
+        verify(colaCompensaciones).encolar(argThat(compensacion ->
+                compensacion.getOperacion() == OperacionCore.REVERSO_TARJETA));
     }
 
     @Test
@@ -66,6 +161,10 @@ public class ProcesarCoreServiceTest {
 
         verify(coreBancarioClient, times(1)).procesarTransaccionTarjeta(any(TarjetaRequestDTO.class));
         verify(coreBancarioClient, times(1)).procesarTransaccionCuenta(any(ComercioRequestDTO.class));
+        assertEquals(1, meterRegistry.get("core.transaccion")
+                .tags("modo", "bloqueante", "estado", "APROBADO").timer().count());
+        assertEquals(1, meterRegistry.get("core.transaccion.etapa")
+                .tags("etapa", "credito", "resultado", "exito").timer().count());
     }
 
     @Test
@@ -92,6 +191,11 @@ public class ProcesarCoreServiceTest {
 
         verify(coreBancarioClient, times(1)).procesarTransaccionTarjeta(any(TarjetaRequestDTO.class));
         verify(coreBancarioClient, never()).procesarTransaccionCuenta(any(ComercioRequestDTO.class));
+        verifyNoInteractions(colaCompensaciones);
+        assertEquals(1, meterRegistry.get("core.transaccion")
+                .tags("modo", "bloqueante", "estado", "RECHAZADO").timer().count());
+        assertEquals(1, meterRegistry.get("core.transaccion.etapa")
+                .tags("etapa", "respuesta", "resultado", "error").timer().count());
     }
 
     @Test
@@ -129,6 +233,136 @@ public class ProcesarCoreServiceTest {
 
         verify(coreBancarioClient, times(1)).procesarTransaccionTarjeta(any(TarjetaRequestDTO.class));
         verify(coreBancarioClient, times(1)).procesarTransaccionCuenta(any(ComercioRequestDTO.class));
+        verify(colaCompensaciones, times(1)).encolar(argThat(compensacion ->
+                compensacion.getOperacion() == OperacionCore.REVERSO_TARJETA
+                        && "UNIQUE123".equals(compensacion.getReverso().getCodigoUnicoTransaccion())));
+        verify(coreBancarioClient, never()).reversarTransaccionTarjeta(any());
+        verify(diarioTransacciones).registrar("UNIQUE123", EstadoDiario.DEBITADA);
+        verify(diarioTransacciones).registrar("UNIQUE123", EstadoDiario.RECHAZADA);
+        verify(diarioTransacciones, never()).registrar("UNIQUE123", EstadoDiario.ACREDITADA);
+    }
+
+    @Test
+    public void procesarTransaccion_debitoSeEnviaAlCoreDelEmisor() {
+        URI coreEmisor = URI.create("http://core-emisor:8080");
+        Request.Options opciones = new Request.Options(1, TimeUnit.SECONDS, 2, TimeUnit.SECONDS, true);
+        TransaccionCoreDTO transaccionDTO = crearTransaccionDTOPrueba();
+        transaccionDTO.setSwiftBancoTarjeta(null);
+        when(ruteadorBin.resolver(transaccionDTO.getNumeroTarjeta()))
+                .thenReturn(new PerfilEmisor("EMISOR", "EMISECAA", coreEmisor, opciones));
+        ResponseEntity<CoreResponseDTO> aprobado = ResponseEntity.ok(CoreResponseDTO.builder()
+                .estado("APROBADO")
+                .build());
+        when(coreBancarioClient.procesarTransaccionTarjeta(eq(coreEmisor), any(TarjetaRequestDTO.class), eq(opciones)))
+                .thenReturn(aprobado);
+        when(coreBancarioClient.procesarTransaccionCuenta(any(ComercioRequestDTO.class))).thenReturn(aprobado);
+
+        TransaccionCoreResponseDTO resultado = service.procesarTransaccion(transaccionDTO);
+
+        assertEquals("APROBADO", resultado.getEstado());
+        verify(coreBancarioClient).procesarTransaccionTarjeta(eq(coreEmisor),
+                argThat(request -> "EMISECAA".equals(request.getSwift())), eq(opciones));
+        verify(coreBancarioClient, never()).procesarTransaccionTarjeta(any(TarjetaRequestDTO.class));
+    }
+
+    @Test
+    public void procesarTransaccion_reversoGuardaElCoreYElSwiftDelEmisorDelDebito() {
+        URI coreEmisor = URI.create("http://core-emisor:8080");
+        OpcionesLlamada opciones = new OpcionesLlamada(1000, 2000);
+        TransaccionCoreDTO transaccionDTO = crearTransaccionDTOPrueba();
+        transaccionDTO.setSwiftBancoTarjeta(null);
+        when(ruteadorBin.resolver(transaccionDTO.getNumeroTarjeta()))
+                .thenReturn(new PerfilEmisor("EMISOR", "EMISECAA", coreEmisor, opciones));
+        when(coreBancarioClient.procesarTransaccionTarjeta(eq(coreEmisor), any(TarjetaRequestDTO.class), eq(opciones)))
+                .thenReturn(ResponseEntity.ok(CoreResponseDTO.builder().estado("APROBADO").build()));
+        when(coreBancarioClient.procesarTransaccionCuenta(any(ComercioRequestDTO.class)))
+                .thenReturn(ResponseEntity.ok(CoreResponseDTO.builder().estado("RECHAZADO").build()));
+
+        service.procesarTransaccion(transaccionDTO);
+
+        verify(colaCompensaciones).encolar(argThat(compensacion ->
+                new DestinoEmisor("EMISOR", coreEmisor, 1000, 2000).equals(compensacion.getEmisor())
+                        && "EMISECAA".equals(compensacion.getReverso().getSwift())));
+    }
+
+    @Test
+    public void procesarTransaccion_creditoDiferidoSeAcumulaSinLlamarAlCore() {
+        CoreResponseDTO coreResponseExitoso = CoreResponseDTO.builder()
+                .estado("APROBADO")
+                .codigoRespuesta("00")
+                .build();
+        when(coreBancarioClient.procesarTransaccionTarjeta(any(TarjetaRequestDTO.class)))
+                .thenReturn(ResponseEntity.ok(coreResponseExitoso));
+        TransaccionCoreDTO transaccionDTO = crearTransaccionDTOPrueba();
+        when(acumuladorCreditos.aplica(transaccionDTO)).thenReturn(true);
+
+        TransaccionCoreResponseDTO resultado = service.procesarTransaccion(transaccionDTO);
+
+        assertEquals("APROBADO", resultado.getEstado());
+        // El estado se anota antes de que una liquidación por umbral pueda marcarla ACREDITADA
+        InOrder orden = inOrder(diarioTransacciones, acumuladorCreditos);
+        orden.verify(diarioTransacciones).registrar("UNIQUE123", EstadoDiario.CREDITO_DIFERIDO);
+        orden.verify(acumuladorCreditos).agregar(argThat(credito -> "UNIQUE123".equals(credito.getCodigoUnico())
+                && new BigDecimal("100.00").equals(credito.getMonto())));
+        verify(coreBancarioClient, never()).procesarTransaccionCuenta(any(ComercioRequestDTO.class));
+        verifyNoInteractions(colaCompensaciones);
+    }
+
+    @Test
+    public void procesarTransaccion_paraleloConfirmaRetencion() {
+        CoreResponseDTO coreResponseExitoso = CoreResponseDTO.builder()
+                .estado("APROBADO")
+                .mensaje("Transacción exitosa")
+                .codigoRespuesta("00")
+                .codigoTransaccion("AUTH123")
+                .build();
+
+        when(coreBancarioClient.procesarTransaccionTarjeta(any(TarjetaRequestDTO.class)))
+                .thenReturn(ResponseEntity.ok(coreResponseExitoso));
+        when(coreBancarioClient.retenerCreditoCuenta(any(ComercioRequestDTO.class)))
+                .thenReturn(ResponseEntity.ok(coreResponseExitoso));
+
+        TransaccionCoreDTO transaccionDTO = crearTransaccionDTOPrueba();
+        transaccionDTO.setCuentaIbanComercio("EC-CONFIABLE");
+        TransaccionCoreResponseDTO resultado = service.procesarTransaccion(transaccionDTO);
+
+        assertEquals("APROBADO", resultado.getEstado());
+        verify(coreBancarioClient, never()).procesarTransaccionCuenta(any());
+        verify(colaCompensaciones, times(1)).encolar(argThat(compensacion ->
+                compensacion.getOperacion() == OperacionCore.CONFIRMACION_RETENCION
+                        && "UNIQUE123".equals(compensacion.getRetencion().getCodigoUnico())));
+        verify(diarioTransacciones).registrar("UNIQUE123", EstadoDiario.ACREDITADA);
+    }
+
+    @Test
+    public void procesarTransaccion_paraleloDebitoRechazadoAnulaRetencion() {
+        CoreResponseDTO retencionExitosa = CoreResponseDTO.builder()
+                .estado("APROBADO")
+                .codigoRespuesta("00")
+                .codigoTransaccion("RET123")
+                .build();
+        CoreResponseDTO debitoRechazado = CoreResponseDTO.builder()
+                .estado("RECHAZADO")
+                .mensaje("Fondos insuficientes")
+                .codigoRespuesta("51")
+                .build();
+
+        when(coreBancarioClient.procesarTransaccionTarjeta(any(TarjetaRequestDTO.class)))
+                .thenReturn(ResponseEntity.ok(debitoRechazado));
+        when(coreBancarioClient.retenerCreditoCuenta(any(ComercioRequestDTO.class)))
+                .thenReturn(ResponseEntity.ok(retencionExitosa));
+
+        TransaccionCoreDTO transaccionDTO = crearTransaccionDTOPrueba();
+        transaccionDTO.setCuentaIbanComercio("EC-CONFIABLE");
+        TransaccionCoreResponseDTO resultado = service.procesarTransaccion(transaccionDTO);
+
+        assertEquals("RECHAZADO", resultado.getEstado());
+        assertTrue(resultado.getMensaje().contains("Fondos insuficientes"));
+        verify(colaCompensaciones, times(1)).encolar(argThat(compensacion ->
+                compensacion.getOperacion() == OperacionCore.ANULACION_RETENCION));
+        verify(colaCompensaciones, never()).encolar(argThat(compensacion ->
+                compensacion.getOperacion() == OperacionCore.REVERSO_TARJETA));
+        verify(diarioTransacciones, never()).registrar("UNIQUE123", EstadoDiario.ACREDITADA);
     }
 
     @Test
@@ -144,6 +378,59 @@ public class ProcesarCoreServiceTest {
         assertTrue(resultado.getMensaje().contains("Error de conexión"));
     }
 
+    @Test
+    public void procesarTransaccionReactiva_exitoso() {
+        configurarWebClient(HttpStatus.OK, "{\"estado\":\"APROBADO\",\"codigoRespuesta\":\"00\"}",
+                HttpStatus.OK, "{\"estado\":\"APROBADO\",\"codigoRespuesta\":\"00\"}");
+
+        TransaccionCoreResponseDTO resultado = service.procesarTransaccionReactiva(crearTransaccionDTOPrueba()).block();
+
+        assertNotNull(resultado);
+        assertEquals("APROBADO", resultado.getEstado());
+        verifyNoInteractions(coreBancarioClient);
+    }
+
+    @Test
+    public void procesarTransaccionReactiva_errorEnDebitoTarjeta() {
+        configurarWebClient(HttpStatus.OK, "{\"estado\":\"RECHAZADO\",\"mensaje\":\"Fondos insuficientes\"}",
+                HttpStatus.OK, "{\"estado\":\"APROBADO\"}");
+
+        TransaccionCoreResponseDTO resultado = service.procesarTransaccionReactiva(crearTransaccionDTOPrueba()).block();
+
+        assertNotNull(resultado);
+        assertEquals("RECHAZADO", resultado.getEstado());
+        assertTrue(resultado.getMensaje().contains("Fondos insuficientes"));
+    }
+
+    @Test
+    public void procesarTransaccionReactiva_errorClienteEnCredito() {
+        configurarWebClient(HttpStatus.OK, "{\"estado\":\"APROBADO\"}",
+                HttpStatus.BAD_REQUEST, "{}");
+
+        TransaccionCoreResponseDTO resultado = service.procesarTransaccionReactiva(crearTransaccionDTOPrueba()).block();
+
+        assertNotNull(resultado);
+        assertEquals("RECHAZADO", resultado.getEstado());
+        assertTrue(resultado.getMensaje().contains("400"));
+        verify(colaCompensaciones, times(1)).encolar(any(Compensacion.class));
+    }
+
+    private void configurarWebClient(HttpStatus estadoDebito, String cuerpoDebito,
+            HttpStatus estadoCredito, String cuerpoCredito) {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    boolean debito = request.url().getPath().endsWith("/tarjeta");
+                    return Mono.just(ClientResponse.create(debito ? estadoDebito : estadoCredito)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(debito ? cuerpoDebito : cuerpoCredito)
+                            .build());
+                })
+                .build();
+        ReflectionTestUtils.setField(service, "webClient", webClient);
+        ReflectionTestUtils.setField(service, "debitUrl", "http://core-tarjetas/api/v1/transacciones/tarjeta");
+        ReflectionTestUtils.setField(service, "creditUrl", "http://core-cuentas/api/v1/transacciones/cuenta");
+    }
+
     private TransaccionCoreDTO crearTransaccionDTOPrueba() {
         TransaccionCoreDTO dto = new TransaccionCoreDTO();
         dto.setCodTransaccion("TRX123456");
@@ -151,7 +438,7 @@ public class ProcesarCoreServiceTest {
         dto.setCodigoGtw("PAYPAL");
         dto.setNumeroTarjeta("4111111111111111");
         dto.setCvv("123");
-        dto.setFechaCaducidad("12/25");
+        dto.setFechaCaducidad("12/30");
         dto.setMonto(new BigDecimal("100.00"));
         dto.setCodigoMoneda("USD");
         dto.setTipo("COM");
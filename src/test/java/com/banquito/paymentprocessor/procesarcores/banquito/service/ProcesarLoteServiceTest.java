@@ -0,0 +1,151 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreResponseDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.exception.LoteInvalidoException;
+
+import jakarta.validation.Validation;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@ExtendWith(MockitoExtension.class)
+public class ProcesarLoteServiceTest {
+
+    @Mock
+    private ProcesarCoreService procesarCoreService;
+
+    private Scheduler scheduler;
+
+    private ProcesarLoteService service;
+
+    @BeforeEach
+    public void setup() {
+        scheduler = Schedulers.newBoundedElastic(8, 100, "lote-test");
+        service = new ProcesarLoteService(procesarCoreService, scheduler,
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(service, "concurrencia", 4);
+        ReflectionTestUtils.setField(service, "tamanoMaximo", 50);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        scheduler.dispose();
+    }
+
+    @Test
+    public void procesarLote_mantieneOrdenYLimitaConcurrencia() {
+        AtomicInteger enCurso = new AtomicInteger();
+        AtomicInteger maximoEnCurso = new AtomicInteger();
+
+        when(procesarCoreService.procesarTransaccion(any(TransaccionCoreDTO.class))).thenAnswer(invocacion -> {
+            TransaccionCoreDTO transaccion = invocacion.getArgument(0);
+            maximoEnCurso.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+            // Las primeras transacciones tardan más para forzar que terminen fuera de orden
+            Thread.sleep(transaccion.getCodigoUnico().endsWith("0") ? 40 : 5);
+            enCurso.decrementAndGet();
+            return TransaccionCoreResponseDTO.builder()
+                    .codigoUnico(transaccion.getCodigoUnico())
+                    .fechaProceso(LocalDateTime.now())
+                    .estado("APROBADO")
+                    .build();
+        });
+
+        List<TransaccionCoreDTO> lote = crearLote(20);
+        List<TransaccionCoreResponseDTO> resultado = service.procesarLote(lote).collectList().block();
+
+        assertNotNull(resultado);
+        assertEquals(20, resultado.size());
+        for (int i = 0; i < lote.size(); i++) {
+            assertEquals(lote.get(i).getCodigoUnico(), resultado.get(i).getCodigoUnico());
+        }
+        assertTrue(maximoEnCurso.get() <= 4);
+        verify(procesarCoreService, times(20)).procesarTransaccion(any(TransaccionCoreDTO.class));
+    }
+
+    @Test
+    public void procesarLote_errorEnTransaccionNoDetieneElLote() {
+        when(procesarCoreService.procesarTransaccion(any(TransaccionCoreDTO.class))).thenAnswer(invocacion -> {
+            TransaccionCoreDTO transaccion = invocacion.getArgument(0);
+            if ("LOTE1".equals(transaccion.getCodigoUnico())) {
+                throw new RuntimeException("Error inesperado");
+            }
+            return TransaccionCoreResponseDTO.builder()
+                    .codigoUnico(transaccion.getCodigoUnico())
+                    .estado("APROBADO")
+                    .build();
+        });
+
+        List<TransaccionCoreResponseDTO> resultado = service.procesarLote(crearLote(3)).collectList().block();
+
+        assertNotNull(resultado);
+        assertEquals("APROBADO", resultado.get(0).getEstado());
+        assertEquals("RECHAZADO", resultado.get(1).getEstado());
+        assertTrue(resultado.get(1).getMensaje().contains("Error inesperado"));
+        assertEquals("APROBADO", resultado.get(2).getEstado());
+    }
+
+    @Test
+    public void procesarLote_transaccionInvalidaSeRechazaSinLlamarAlCore() {
+        when(procesarCoreService.procesarTransaccion(any(TransaccionCoreDTO.class))).thenAnswer(invocacion ->
+                TransaccionCoreResponseDTO.builder()
+                        .codigoUnico(invocacion.<TransaccionCoreDTO>getArgument(0).getCodigoUnico())
+                        .estado("APROBADO")
+                        .build());
+        List<TransaccionCoreDTO> lote = crearLote(3);
+        lote.get(1).setNumeroTarjeta("4111111111111112");
+
+        List<TransaccionCoreResponseDTO> resultado = service.procesarLote(lote).collectList().block();
+
+        assertNotNull(resultado);
+        assertEquals("APROBADO", resultado.get(0).getEstado());
+        assertEquals("RECHAZADO", resultado.get(1).getEstado());
+        assertEquals(ProcesarLoteService.CODIGO_DATOS_INVALIDOS, resultado.get(1).getCodigoRespuesta());
+        assertTrue(resultado.get(1).getMensaje().contains("numeroTarjeta"));
+        assertEquals("APROBADO", resultado.get(2).getEstado());
+        verify(procesarCoreService, times(2)).procesarTransaccion(any(TransaccionCoreDTO.class));
+    }
+
+    @Test
+    public void procesarLote_loteDemasiadoGrande() {
+        List<TransaccionCoreDTO> lote = crearLote(51);
+        assertThrows(LoteInvalidoException.class, () -> service.procesarLote(lote));
+        verify(procesarCoreService, never()).procesarTransaccion(any(TransaccionCoreDTO.class));
+    }
+
+    @Test
+    public void procesarLote_loteVacio() {
+        assertThrows(LoteInvalidoException.class, () -> service.procesarLote(new ArrayList<>()));
+    }
+
+    private List<TransaccionCoreDTO> crearLote(int tamano) {
+        List<TransaccionCoreDTO> lote = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            TransaccionCoreDTO dto = new TransaccionCoreDTO();
+            dto.setCodigoUnico("LOTE" + i);
+            dto.setNumeroTarjeta("4111111111111111");
+            dto.setFechaCaducidad("12/30");
+            dto.setMonto(new BigDecimal("10.00"));
+            dto.setTipo("COM");
+            lote.add(dto);
+        }
+        return lote;
+    }
+}
@@ -0,0 +1,110 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.config.OpcionesLlamada;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class RuteadorBinTest {
+
+    private static final String EMISORES = "\"emisores\":["
+            + "{\"nombre\":\"BANCO_A\",\"swift\":\"BANQECAA\",\"core\":\"http://core-a:8080\",\"timeoutLectura\":1500},"
+            + "{\"nombre\":\"BANCO_B\",\"swift\":\"BANQECBB\",\"core\":\"http://core-b:8080\"}]";
+
+    @TempDir
+    private Path directorio;
+
+    private final List<RuteadorBin> ruteadores = new ArrayList<>();
+
+    @AfterEach
+    public void cerrar() {
+        ruteadores.forEach(RuteadorBin::close);
+    }
+
+    @Test
+    public void resolver_usaElRangoQueContieneElBin() throws IOException {
+        RuteadorBin ruteador = crear(escribir("{" + EMISORES + ",\"rangos\":["
+                + "{\"desde\":\"411111\",\"hasta\":\"411199\",\"emisor\":\"BANCO_A\"},"
+                + "{\"desde\":\"5\",\"emisor\":\"BANCO_B\"}]}"));
+
+        PerfilEmisor emisor = ruteador.resolver("4111111111111111");
+        assertEquals("BANCO_A", emisor.nombre());
+        assertEquals(URI.create("http://core-a:8080"), emisor.core());
+        OpcionesLlamada opciones = assertInstanceOf(OpcionesLlamada.class, emisor.opciones());
+        assertEquals(1500, opciones.getTimeoutLectura());
+        // El timeout de conexión que el emisor no fija se toma de los ajustes vigentes en cada llamada
+        assertNull(opciones.getTimeoutConexion());
+        assertEquals("BANCO_A", ruteador.resolver("4111990000000000").nombre());
+        assertEquals("BANCO_B", ruteador.resolver("5500005555555559").nombre());
+        assertNull(ruteador.resolver("4112000000000000"));
+        assertNull(ruteador.resolver("6011000000000004"));
+        assertNull(ruteador.resolver("41111"));
+    }
+
+    @Test
+    public void iniciar_rechazaRangosSolapados() throws IOException {
+        Path archivo = escribir("{" + EMISORES + ",\"rangos\":["
+                + "{\"desde\":\"4\",\"emisor\":\"BANCO_A\"},"
+                + "{\"desde\":\"411111\",\"emisor\":\"BANCO_B\"}]}");
+
+        assertThrows(IllegalArgumentException.class, () -> crear(archivo));
+    }
+
+    @Test
+    public void recarga_publicaLaTablaNuevaYConservaLaAnteriorSiEsInvalida() throws Exception {
+        Path archivo = escribir("{" + EMISORES + ",\"rangos\":[{\"desde\":\"4\",\"emisor\":\"BANCO_A\"}]}");
+        RuteadorBin ruteador = crear(archivo);
+        assertEquals("BANCO_A", ruteador.resolver("4111111111111111").nombre());
+
+        Files.writeString(archivo, "{" + EMISORES + ",\"rangos\":[{\"desde\":\"4\",\"emisor\":\"BANCO_B\"}]}");
+        Files.setLastModifiedTime(archivo, FileTime.from(Instant.now().plusSeconds(10)));
+        esperar(() -> "BANCO_B".equals(ruteador.resolver("4111111111111111").nombre()));
+
+        Files.writeString(archivo, "{" + EMISORES + ",\"rangos\":[{\"desde\":\"4\",\"emisor\":\"BANCO_C\"}]}");
+        Files.setLastModifiedTime(archivo, FileTime.from(Instant.now().plusSeconds(20)));
+        Thread.sleep(200);
+        assertEquals("BANCO_B", ruteador.resolver("4111111111111111").nombre());
+    }
+
+    @Test
+    public void iniciar_archivoInexistenteDetieneElArranque() {
+        assertThrows(UncheckedIOException.class, () -> crear(directorio.resolve("no-existe.json")));
+    }
+
+    private RuteadorBin crear(Path archivo) {
+        RuteadorBin ruteador = new RuteadorBin(archivo, 20, new ObjectMapper(),
+                new SimpleMeterRegistry());
+        ruteadores.add(ruteador);
+        ruteador.iniciar();
+        return ruteador;
+    }
+
+    private Path escribir(String contenido) throws IOException {
+        return Files.writeString(directorio.resolve("bines.json"), contenido);
+    }
+
+    private void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (!condicion.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < limite, "La tabla de BIN no se recargó");
+            Thread.sleep(10);
+        }
+    }
+}
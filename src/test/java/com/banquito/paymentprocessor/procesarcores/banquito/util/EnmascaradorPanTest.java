@@ -0,0 +1,43 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.client.dto.TarjetaRequestDTO;
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreDTO;
+
+public class EnmascaradorPanTest {
+
+    @Test
+    public void enmascarar_conservaBinYUltimosCuatro() {
+        assertEquals("411111******1111", EnmascaradorPan.enmascarar("4111111111111111"));
+        assertEquals("4111 11** **** 1111", EnmascaradorPan.enmascarar("4111 1111 1111 1111"));
+    }
+
+    @Test
+    public void enmascarar_numeroCortoSoloConservaUltimosCuatro() {
+        assertEquals("*****1234", EnmascaradorPan.enmascarar("123451234"));
+        assertEquals("1234", EnmascaradorPan.enmascarar("1234"));
+        assertNull(EnmascaradorPan.enmascarar(null));
+    }
+
+    @Test
+    public void toString_noExponeDatosDeLaTarjeta() {
+        TransaccionCoreDTO transaccion = TransaccionCoreDTO.builder()
+                .codigoUnico("TRX1")
+                .numeroTarjeta("4111111111111111")
+                .cvv("987")
+                .fechaCaducidad("12/30")
+                .build();
+        TarjetaRequestDTO request = TarjetaRequestDTO.builder()
+                .numeroTarjeta("4111111111111111")
+                .build();
+
+        assertFalse(transaccion.toString().contains("4111111111111111"));
+        assertTrue(transaccion.toString().contains("numeroTarjeta=411111******1111"));
+        assertFalse(transaccion.toString().contains("987"));
+        assertFalse(transaccion.toString().contains("12/30"));
+        assertTrue(request.toString().contains("numeroTarjeta=411111******1111"));
+    }
+}
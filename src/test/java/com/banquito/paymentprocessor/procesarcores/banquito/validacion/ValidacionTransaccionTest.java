@@ -0,0 +1,111 @@
+package com.banquito.paymentprocessor.procesarcores.banquito.validacion;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.banquito.paymentprocessor.procesarcores.banquito.controller.dto.TransaccionCoreDTO;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+public class ValidacionTransaccionTest {
+
+    private static final DateTimeFormatter FORMATO_CADUCIDAD = DateTimeFormatter.ofPattern("MM/yy");
+
+    private static ValidatorFactory fabrica;
+    private static Validator validador;
+
+    @BeforeAll
+    public static void iniciar() {
+        fabrica = Validation.buildDefaultValidatorFactory();
+        validador = fabrica.getValidator();
+    }
+
+    @AfterAll
+    public static void cerrar() {
+        fabrica.close();
+    }
+
+    @Test
+    public void transaccionValidaNoTieneErrores() {
+        assertEquals(Set.of(), camposInvalidos(transaccionValida()));
+    }
+
+    @Test
+    public void luhn_rechazaDigitoVerificadorIncorrectoYCaracteresNoNumericos() {
+        Luhn.Validador luhn = new Luhn.Validador();
+
+        assertTrue(luhn.isValid("4111111111111111", null));
+        assertTrue(luhn.isValid("5500005555555559", null));
+        assertFalse(luhn.isValid("4111111111111112", null));
+        assertFalse(luhn.isValid("4111-1111-1111-1111", null));
+        assertFalse(luhn.isValid("41111", null));
+    }
+
+    @Test
+    public void iban_verificaElModulo97() {
+        Iban.Validador iban = new Iban.Validador();
+
+        assertTrue(iban.isValid("ES9121000418450200051332", null));
+        assertTrue(iban.isValid("GB82WEST12345698765432", null));
+        assertFalse(iban.isValid("ES9221000418450200051332", null));
+        assertFalse(iban.isValid("es9121000418450200051332", null));
+        assertFalse(iban.isValid("ES91 2100 0418 4502 0005 1332", null));
+    }
+
+    @Test
+    public void caducidad_vigenteHastaElFinDelMes() {
+        CaducidadVigente.Validador caducidad = new CaducidadVigente.Validador();
+        YearMonth actual = YearMonth.now();
+
+        assertTrue(caducidad.isValid(actual.format(FORMATO_CADUCIDAD), null));
+        assertTrue(caducidad.isValid(actual.plusYears(3).format(FORMATO_CADUCIDAD), null));
+        assertFalse(caducidad.isValid(actual.minusMonths(1).format(FORMATO_CADUCIDAD), null));
+        assertFalse(caducidad.isValid("13/30", null));
+        assertFalse(caducidad.isValid("1230", null));
+    }
+
+    @Test
+    public void transaccionInvalidaReportaCadaCampo() {
+        TransaccionCoreDTO transaccion = transaccionValida();
+        transaccion.setNumeroTarjeta("4111111111111112");
+        transaccion.setCvv("12");
+        transaccion.setMonto(new BigDecimal("-1.005"));
+        transaccion.setSwiftBancoComercio("BANQ");
+        transaccion.setCuentaIbanComercio("ES0021000418450200051332");
+
+        assertEquals(Set.of("numeroTarjeta", "cvv", "monto", "swiftBancoComercio", "cuentaIbanComercio"),
+                camposInvalidos(transaccion));
+    }
+
+    private Set<String> camposInvalidos(TransaccionCoreDTO transaccion) {
+        return validador.validate(transaccion).stream()
+                .map(ConstraintViolation::getPropertyPath)
+                .map(Object::toString)
+                .collect(Collectors.toSet());
+    }
+
+    private TransaccionCoreDTO transaccionValida() {
+        return TransaccionCoreDTO.builder()
+                .codigoUnico("UNIQUE123")
+                .numeroTarjeta("4111111111111111")
+                .cvv("123")
+                .fechaCaducidad(YearMonth.now().plusYears(2).format(FORMATO_CADUCIDAD))
+                .monto(new BigDecimal("100.50"))
+                .swiftBancoTarjeta("BANQECAA")
+                .swiftBancoComercio("BANQECBBXXX")
+                .cuentaIbanComercio("ES9121000418450200051332")
+                .build();
+    }
+}